@@ -0,0 +1,13 @@
+package com.pm.patientservicereactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class PatientServiceReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(PatientServiceReactiveApplication.class, args);
+    }
+
+}
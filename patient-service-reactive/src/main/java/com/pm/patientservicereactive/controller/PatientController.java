@@ -0,0 +1,156 @@
+package com.pm.patientservicereactive.controller;
+
+import com.pm.patientservicereactive.dto.PatientRequestDTO;
+import com.pm.patientservicereactive.dto.PatientResponseDTO;
+import com.pm.patientservicereactive.dto.validators.CreatePatientValidationGroup;
+import com.pm.patientservicereactive.exception.PatientVersionMismatchException;
+import com.pm.patientservicereactive.service.PatientService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.groups.Default;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController // Marking this class as a REST controller
+@RequestMapping("/patients") // Base path for all endpoints in this controller
+@Tag(name = "Patient APIs", description = "API for managing Patients") // Swagger/OpenAPI tag for grouping endpoints
+public class PatientController {
+
+    private final PatientService patientService; // Injecting service for business logic
+
+    // Constructor-based dependency injection
+    public PatientController(PatientService patientService) {
+        this.patientService = patientService;
+    }
+
+    /**
+     * Get patient by ID.
+     * Responds with an ETag (the patient's version) and Last-Modified; WebFlux answers
+     * matching If-None-Match / If-Modified-Since requests with 304 Not Modified.
+     *
+     * @return PatientResponseDTO wrapped in ResponseEntity
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get patient by ID") // Swagger summary
+    public Mono<ResponseEntity<PatientResponseDTO>> getPatient(@PathVariable UUID id) {
+        return patientService.getPatientById(id) // Fetching patient by ID
+                .map(patient -> withValidators(ResponseEntity.ok(), patient).body(patient)); // Returning 200 OK with a patient
+    }
+
+    /**
+     * Get all patients as a JSON array.
+     * The array is encoded element by element as rows arrive, and rows are only requested
+     * from the database as fast as the client reads them.
+     *
+     * @return streamed JSON array of PatientResponseDTO
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get all patients") // Swagger summary
+    public Flux<PatientResponseDTO> getPatients() {
+        return patientService.getPatients();
+    }
+
+    /**
+     * Get all patients as newline-delimited JSON, one patient per line, flushed as each
+     * row is read.
+     *
+     * @return streamed NDJSON of PatientResponseDTO
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all patients as NDJSON") // Swagger summary
+    public Flux<PatientResponseDTO> streamPatients() {
+        return patientService.getPatients();
+    }
+
+    /**
+     * Create a new patient.
+     * Uses validation groups to apply specific validation rules for creation.
+     *
+     * @param requestDTO PatientRequestDTO from a client
+     * @return Created PatientResponseDTO
+     */
+    @PostMapping
+    @Operation(summary = "Create a new Patient")
+    public Mono<ResponseEntity<PatientResponseDTO>> createPatient(
+            @Validated({Default.class, CreatePatientValidationGroup.class}) // Applying validation groups
+            @RequestBody PatientRequestDTO requestDTO) {
+
+        return patientService.createPatient(requestDTO) // Creating patient
+                .map(patient -> withValidators(ResponseEntity.ok(), patient).body(patient)); // Returning created patient
+    }
+
+    /**
+     * Update an existing patient.
+     * When an If-Match header is sent, the update only applies if it names the current
+     * version of the patient; otherwise 412 Precondition Failed is returned.
+     *
+     * @param id Patient ID
+     * @param ifMatch optional If-Match header carrying the ETag the client last saw
+     * @param requestDTO PatientRequestDTO from client
+     * @return Updated PatientResponseDTO
+     */
+    @PutMapping("/{id}")
+    @Operation(summary = "Update existing Patient")
+    public Mono<ResponseEntity<PatientResponseDTO>> updatePatient(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Validated(Default.class) // Applying default validation rules
+            @RequestBody PatientRequestDTO requestDTO) {
+
+        return patientService.updatePatient(id, requestDTO, parseIfMatch(ifMatch)) // Updating patient
+                .map(patient -> withValidators(ResponseEntity.ok(), patient).body(patient)); // Returning updated patient
+    }
+
+    /**
+     * Delete a patient by ID.
+     *
+     * @param id Patient ID
+     * @return No content (204)
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a Patient")
+    public Mono<ResponseEntity<Void>> deletePatient(@PathVariable UUID id) {
+        return patientService.deletePatient(id) // Deleting patient
+                .then(Mono.just(ResponseEntity.noContent().build())); // Returning 204 No Content
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder,
+                                                             PatientResponseDTO patient) {
+        if (patient.getVersion() != null) {
+            builder.eTag("\"" + patient.getVersion() + "\"");
+        }
+        if (patient.getLastModified() != null) {
+            builder.lastModified(patient.getLastModified());
+        }
+        return builder;
+    }
+
+    /**
+     * Extracts the expected version from an If-Match header.
+     * A missing header or {@code *} means any version; anything that is not one of our
+     * ETags can never match, so it fails the precondition. That includes weak ETags, since
+     * If-Match uses strong comparison (RFC 9110) and patients only get strong ones.
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PatientVersionMismatchException("If-Match " + ifMatch + " is a weak ETag");
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException ex) {
+            throw new PatientVersionMismatchException("If-Match " + ifMatch + " does not name a patient version");
+        }
+    }
+}
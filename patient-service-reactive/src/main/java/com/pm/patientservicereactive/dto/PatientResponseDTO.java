@@ -0,0 +1,179 @@
+package com.pm.patientservicereactive.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object (DTO) for sending patient data to the client in API responses.
+ * This class represents a simplified view of a patient, excluding sensitive or internal
+ * fields like registered date, to be used in responses to client requests.
+ * Same JSON shape as patient-service's PatientResponseDTO. The version and last
+ * modification time travel with the DTO for the ETag and Last-Modified headers,
+ * but are not part of the JSON body.
+ */
+public class PatientResponseDTO {
+
+    /**
+     * The unique identifier of the patient, represented as a string (converted from UUID).
+     */
+    private String id;
+
+    /**
+     * The patient's full name.
+     */
+    private String name;
+
+    /**
+     * The patient's email address.
+     */
+    private String email;
+
+    /**
+     * The patient's residential address.
+     */
+    private String address;
+
+    /**
+     * The patient's date of birth, represented as a string (e.g., "yyyy-MM-dd").
+     */
+    private String dateOfBirth;
+
+    /**
+     * The optimistic-locking version, sent as the ETag header.
+     */
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * When the patient was last inserted or updated, sent as the Last-Modified header.
+     */
+    @JsonIgnore
+    private Instant lastModified;
+
+    /**
+     * Gets the patient's unique identifier.
+     *
+     * @return the patient's ID as a string
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the patient's unique identifier.
+     *
+     * @param id the ID to set as a string
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the patient's name.
+     *
+     * @return the patient's name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the patient's name.
+     *
+     * @param name the name to set
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the patient's email address.
+     *
+     * @return the patient's email
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Sets the patient's email address.
+     *
+     * @param email the email to set
+     */
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    /**
+     * Gets the patient's address.
+     *
+     * @return the patient's address
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Sets the patient's address.
+     *
+     * @param address the address to set
+     */
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    /**
+     * Gets the patient's date of birth.
+     *
+     * @return the date of birth as a string
+     */
+    public String getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    /**
+     * Sets the patient's date of birth.
+     *
+     * @param dateOfBirth the date of birth to set as a string
+     */
+    public void setDateOfBirth(String dateOfBirth) {
+        this.dateOfBirth = dateOfBirth;
+    }
+
+    /**
+     * Gets the optimistic-locking version.
+     *
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the optimistic-locking version.
+     *
+     * @param version the version to set
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Gets when the patient was last inserted or updated.
+     *
+     * @return the last modification time
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Sets when the patient was last inserted or updated.
+     *
+     * @param lastModified the last modification time to set
+     */
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+}
@@ -0,0 +1,4 @@
+package com.pm.patientservicereactive.dto.validators;
+
+public interface CreatePatientValidationGroup {
+}
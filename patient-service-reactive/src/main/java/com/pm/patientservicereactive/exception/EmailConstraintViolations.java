@@ -0,0 +1,35 @@
+package com.pm.patientservicereactive.exception;
+
+import com.pm.patientservicereactive.model.Patient;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Helper for recognising violations of the unique constraint on patient.email.
+ * <p>
+ * Writes rely on the database constraint instead of a prior lookup. R2DBC drivers only
+ * report the violation in the message, which names the constraint (or, on older schemas,
+ * the column).
+ */
+public final class EmailConstraintViolations {
+
+    private EmailConstraintViolations() {
+    }
+
+    /**
+     * Checks whether the given exception was caused by the patient email unique constraint.
+     *
+     * @param ex the exception raised by the insert or update
+     * @return true if the email is already used by another patient
+     */
+    public static boolean isEmailConflict(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            var message = String.valueOf(cause.getMessage()).toLowerCase(Locale.ROOT);
+            if (message.contains(Patient.EMAIL_CONSTRAINT) || message.contains("(email)")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,112 @@
+package com.pm.patientservicereactive.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Global exception handler to manage application-wide exceptions in a consistent manner.
+ * <p>
+ * Answers with the same status codes and error bodies as patient-service's
+ * GlobalExceptionHandler, so clients can switch between the two variants.
+ */
+@ControllerAdvice
+public class GlobalExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    /**
+     * Handles validation errors thrown when @Validated fails on a request body.
+     *
+     * @param ex the WebExchangeBindException thrown by WebFlux
+     * @return a ResponseEntity containing a map of field errors and HTTP status 400 (Bad Request)
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleValidationExceptions(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getFieldErrors()
+                .forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    /**
+     * Handles EmailAlreadyExistsException when a user tries to register with an existing email.
+     *
+     * @param ex the EmailAlreadyExistsException
+     * @return a ResponseEntity with an error message and HTTP status 400 (Bad Request)
+     */
+    @ExceptionHandler(EmailAlreadyExistsException.class)
+    public ResponseEntity<Map<String, String>> handleEmailAlreadyExists(EmailAlreadyExistsException ex) {
+        log.warn("Email Already Exists: {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Email address already exists.");
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    /**
+     * Handles DataIntegrityViolationException raised by inserts and updates that did not
+     * violate the email constraint (those become {@link EmailAlreadyExistsException}).
+     *
+     * @param ex the DataIntegrityViolationException translated by Spring Data
+     * @return a ResponseEntity with an error message and HTTP status 409 (Conflict)
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        log.error("Data integrity violation", ex);
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Request conflicts with existing data.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errors);
+    }
+
+    /**
+     * Handles PatientNotFoundException when a requested patient cannot be found in the system.
+     *
+     * @param ex the PatientNotFoundException
+     * @return a ResponseEntity with an error message and HTTP status 404 (Not Found)
+     */
+    @ExceptionHandler(PatientNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handlePatientNotFound(PatientNotFoundException ex) {
+        log.warn("Patient not found: {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Patient not found.");
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errors);
+    }
+
+    /**
+     * Handles PatientVersionMismatchException when an If-Match header names a stale version.
+     *
+     * @param ex the PatientVersionMismatchException
+     * @return a ResponseEntity with an error message and HTTP status 412 (Precondition Failed)
+     */
+    @ExceptionHandler(PatientVersionMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleVersionMismatch(PatientVersionMismatchException ex) {
+        log.warn("Patient version mismatch: {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Patient has been modified since it was read.");
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errors);
+    }
+
+    /**
+     * Handles OptimisticLockingFailureException when another request updated the same
+     * patient between this request's read and write.
+     *
+     * @param ex the OptimisticLockingFailureException
+     * @return a ResponseEntity with an error message and HTTP status 409 (Conflict)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent patient update: {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Patient was modified concurrently, please retry.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errors);
+    }
+}
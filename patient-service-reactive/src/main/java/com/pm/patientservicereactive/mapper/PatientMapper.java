@@ -0,0 +1,50 @@
+package com.pm.patientservicereactive.mapper;
+
+import com.pm.patientservicereactive.dto.PatientRequestDTO;
+import com.pm.patientservicereactive.dto.PatientResponseDTO;
+import com.pm.patientservicereactive.model.Patient;
+
+import java.time.LocalDate;
+
+/**
+ * Utility class for mapping between the Patient row and DTOs.
+ * Mirrors patient-service's PatientMapper so both variants produce the same JSON.
+ */
+public class PatientMapper {
+
+    /**
+     * Converts a {@link Patient} to a {@link PatientResponseDTO}.
+     * The registeredDate field is excluded from the DTO to hide internal data.
+     *
+     * @param patient the Patient to convert
+     * @return a PatientResponseDTO containing the mapped patient data
+     */
+    public static PatientResponseDTO toPatientResponseDTO(Patient patient) {
+        var responseDTO = new PatientResponseDTO();
+        responseDTO.setId(patient.getId().toString());
+        responseDTO.setName(patient.getName());
+        responseDTO.setEmail(patient.getEmail());
+        responseDTO.setAddress(patient.getAddress());
+        responseDTO.setDateOfBirth(patient.getDateOfBirth().toString());
+        responseDTO.setVersion(patient.getVersion());
+        responseDTO.setLastModified(patient.getUpdatedAt());
+        return responseDTO;
+    }
+
+    /**
+     * Converts a {@link PatientRequestDTO} to a new {@link Patient}.
+     * The ID, version and modification time are set by the service.
+     *
+     * @param requestDTO the PatientRequestDTO containing the input data
+     * @return a Patient with the mapped data
+     */
+    public static Patient toModel(PatientRequestDTO requestDTO) {
+        var patient = new Patient();
+        patient.setName(requestDTO.getName());
+        patient.setEmail(requestDTO.getEmail());
+        patient.setAddress(requestDTO.getAddress());
+        patient.setDateOfBirth(LocalDate.parse(requestDTO.getDateOfBirth()));
+        patient.setRegisteredDate(LocalDate.parse(requestDTO.getRegisteredDate()));
+        return patient;
+    }
+}
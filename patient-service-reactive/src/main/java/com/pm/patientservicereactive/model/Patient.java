@@ -0,0 +1,210 @@
+package com.pm.patientservicereactive.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Patient row mapped with Spring Data R2DBC.
+ * Reads and writes the same {@code patient} table as patient-service, so both variants
+ * can run against one database.
+ */
+@Table("patient")
+public class Patient {
+
+    /**
+     * Name of the unique constraint on the email column.
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_patient_email";
+
+    /**
+     * The unique identifier for the patient, assigned by the service before the insert.
+     */
+    @Id
+    private UUID id;
+
+    /**
+     * The patient's full name.
+     */
+    private String name;
+
+    /**
+     * The patient's email address, unique in the database.
+     */
+    private String email;
+
+    /**
+     * The patient's residential address.
+     */
+    private String address;
+
+    /**
+     * The patient's date of birth.
+     */
+    private LocalDate dateOfBirth;
+
+    /**
+     * The date the patient was registered.
+     */
+    private LocalDate registeredDate;
+
+    /**
+     * Optimistic-locking version, incremented on every update. Exposed to clients as the ETag.
+     * A null version marks the patient as new, so {@code save} inserts it.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * When the patient was last inserted or updated. Exposed to clients as Last-Modified.
+     */
+    private Instant updatedAt;
+
+    /**
+     * Gets the unique identifier.
+     *
+     * @return the unique identifier
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier.
+     *
+     * @param id the unique identifier to set
+     */
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the patient's name.
+     *
+     * @return the patient's name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the patient's name.
+     *
+     * @param name the patient's name to set
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the patient's email.
+     *
+     * @return the patient's email
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Sets the patient's email.
+     *
+     * @param email the patient's email to set
+     */
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    /**
+     * Gets the patient's address.
+     *
+     * @return the patient's address
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Sets the patient's address.
+     *
+     * @param address the patient's address to set
+     */
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    /**
+     * Gets the patient's date of birth.
+     *
+     * @return the patient's date of birth
+     */
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    /**
+     * Sets the patient's date of birth.
+     *
+     * @param dateOfBirth the patient's date of birth to set
+     */
+    public void setDateOfBirth(LocalDate dateOfBirth) {
+        this.dateOfBirth = dateOfBirth;
+    }
+
+    /**
+     * Gets the date the patient was registered.
+     *
+     * @return the date the patient was registered
+     */
+    public LocalDate getRegisteredDate() {
+        return registeredDate;
+    }
+
+    /**
+     * Sets the date the patient was registered.
+     *
+     * @param registeredDate the date the patient was registered to set
+     */
+    public void setRegisteredDate(LocalDate registeredDate) {
+        this.registeredDate = registeredDate;
+    }
+
+    /**
+     * Gets the optimistic-locking version.
+     *
+     * @return the optimistic-locking version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the optimistic-locking version.
+     *
+     * @param version the optimistic-locking version to set
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Gets the last modification time.
+     *
+     * @return the last modification time
+     */
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Sets the last modification time.
+     *
+     * @param updatedAt the last modification time to set
+     */
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
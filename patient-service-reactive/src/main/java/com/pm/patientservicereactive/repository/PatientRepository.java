@@ -0,0 +1,37 @@
+package com.pm.patientservicereactive.repository;
+
+import com.pm.patientservicereactive.model.Patient;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Reactive repository for {@link Patient} rows.
+ */
+@Repository
+public interface PatientRepository extends ReactiveCrudRepository<Patient, UUID> {
+
+    /**
+     * Emits every patient in the same order as patient-service's streamed list.
+     * Rows are pulled from the driver as the subscriber requests them.
+     *
+     * @return all patients ordered by registration date, then ID
+     */
+    @Query("SELECT * FROM patient ORDER BY registered_date ASC, id ASC")
+    Flux<Patient> findAllOrdered();
+
+    /**
+     * Deletes a patient with a single statement.
+     *
+     * @param id the patient ID
+     * @return the number of rows removed (0 or 1)
+     */
+    @Modifying
+    @Query("DELETE FROM patient WHERE id = :id")
+    Mono<Integer> removeById(UUID id);
+}
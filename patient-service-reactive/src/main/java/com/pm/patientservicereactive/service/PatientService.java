@@ -0,0 +1,133 @@
+package com.pm.patientservicereactive.service;
+
+import com.pm.patientservicereactive.dto.PatientRequestDTO;
+import com.pm.patientservicereactive.dto.PatientResponseDTO;
+import com.pm.patientservicereactive.exception.EmailAlreadyExistsException;
+import com.pm.patientservicereactive.exception.EmailConstraintViolations;
+import com.pm.patientservicereactive.exception.PatientNotFoundException;
+import com.pm.patientservicereactive.exception.PatientVersionMismatchException;
+import com.pm.patientservicereactive.mapper.PatientMapper;
+import com.pm.patientservicereactive.model.Patient;
+import com.pm.patientservicereactive.repository.PatientRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of patient-service's PatientService for the core
+ * {@code /patients} operations. Nothing here blocks a thread; every call returns a
+ * publisher that runs when the caller subscribes.
+ */
+@Service
+public class PatientService {
+
+    private final PatientRepository patientRepository;
+
+    // Constructor-based dependency injection
+    public PatientService(PatientRepository patientRepository) {
+        this.patientRepository = patientRepository;
+    }
+
+    /**
+     * Get all patients as a stream.
+     * Rows are read as downstream demand arrives, so a slow client slows the query down
+     * instead of filling memory.
+     *
+     * @return all patients ordered by registration date, then ID
+     */
+    public Flux<PatientResponseDTO> getPatients() {
+        return patientRepository.findAllOrdered()
+                .map(PatientMapper::toPatientResponseDTO);
+    }
+
+    /**
+     * Get a patient by ID.
+     *
+     * @param id Patient ID
+     * @return the patient, or an error with {@link PatientNotFoundException}
+     */
+    public Mono<PatientResponseDTO> getPatientById(UUID id) {
+        return patientRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new PatientNotFoundException("Patient not found with ID: " + id)))
+                .map(PatientMapper::toPatientResponseDTO);
+    }
+
+    /**
+     * Create a new patient.
+     * Email uniqueness is enforced by the INSERT itself.
+     *
+     * @param patientRequestDTO Patient data
+     * @return the created patient, or an error with {@link EmailAlreadyExistsException}
+     */
+    @Transactional
+    public Mono<PatientResponseDTO> createPatient(PatientRequestDTO patientRequestDTO) {
+        var patient = PatientMapper.toModel(patientRequestDTO);
+        patient.setId(UUID.randomUUID());
+        patient.setUpdatedAt(now());
+        return patientRepository.save(patient)
+                .onErrorMap(DataIntegrityViolationException.class, ex -> toEmailConflict(ex, patient))
+                .map(PatientMapper::toPatientResponseDTO);
+    }
+
+    /**
+     * Update an existing patient.
+     * The UPDATE is guarded by the patient's version, so a concurrent change fails
+     * this call with OptimisticLockingFailureException instead of being silently overwritten.
+     *
+     * @param id Patient ID to update
+     * @param patientRequestDTO New patient data
+     * @param expectedVersion version the client last saw (from If-Match), or null to skip the check
+     * @return the updated patient, or an error with {@link PatientNotFoundException},
+     *         {@link PatientVersionMismatchException} or {@link EmailAlreadyExistsException}
+     */
+    @Transactional
+    public Mono<PatientResponseDTO> updatePatient(UUID id, PatientRequestDTO patientRequestDTO, Long expectedVersion) {
+        return patientRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new PatientNotFoundException("Patient not found with ID: " + id)))
+                .flatMap(patient -> {
+                    if (expectedVersion != null && !expectedVersion.equals(patient.getVersion())) {
+                        return Mono.error(new PatientVersionMismatchException(
+                                "Patient " + id + " is at version " + patient.getVersion() + ", not " + expectedVersion));
+                    }
+                    patient.setName(patientRequestDTO.getName());
+                    patient.setAddress(patientRequestDTO.getAddress());
+                    patient.setEmail(patientRequestDTO.getEmail());
+                    patient.setDateOfBirth(LocalDate.parse(patientRequestDTO.getDateOfBirth()));
+                    patient.setUpdatedAt(now());
+                    return patientRepository.save(patient)
+                            .onErrorMap(DataIntegrityViolationException.class, ex -> toEmailConflict(ex, patient));
+                })
+                .map(PatientMapper::toPatientResponseDTO);
+    }
+
+    /**
+     * Delete a patient by ID. Deleting an unknown patient is not an error.
+     *
+     * @param id Patient ID
+     * @return completes when the row is gone
+     */
+    public Mono<Void> deletePatient(UUID id) {
+        return patientRepository.removeById(id).then();
+    }
+
+    private static Throwable toEmailConflict(DataIntegrityViolationException ex, Patient patient) {
+        return EmailConstraintViolations.isEmailConflict(ex)
+                ? new EmailAlreadyExistsException("A patient with this email already exists: " + patient.getEmail())
+                : ex;
+    }
+
+    /**
+     * Current time at the precision the database stores, so the Last-Modified sent after a
+     * write matches what later reads return.
+     */
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,168 @@
+package com.pm.patientservicereactive;
+
+import com.pm.patientservicereactive.dto.PatientResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises the reactive {@code /patients} contract: response shapes, validators,
+ * streamed lists and the error bodies shared with patient-service.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+class PatientControllerTests {
+
+    private static final String SEEDED_ID = "123e4567-e89b-12d3-a456-426614174000";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void getPatientReturnsSeededPatientWithValidators() {
+        var response = webTestClient.get().uri("/patients/{id}", SEEDED_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(SEEDED_ID)
+                .jsonPath("$.email").isEqualTo("john.doe@example.com")
+                .jsonPath("$.dateOfBirth").isEqualTo("1985-06-15")
+                .jsonPath("$.version").doesNotExist()
+                .jsonPath("$.registeredDate").doesNotExist()
+                .returnResult();
+
+        webTestClient.get().uri("/patients/{id}", SEEDED_ID)
+                .header(HttpHeaders.IF_NONE_MATCH, response.getResponseHeaders().getETag())
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void unknownPatientIsNotFound() {
+        webTestClient.get().uri("/patients/{id}", "00000000-0000-0000-0000-000000000000")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Patient not found.");
+    }
+
+    @Test
+    void createUpdateAndDeletePatient() {
+        var created = webTestClient.post().uri("/patients")
+                .bodyValue(request("reactive.crud@example.com", "2024-05-01"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(PatientResponseDTO.class)
+                .returnResult().getResponseBody();
+        assertThat(created.getId()).isNotBlank();
+
+        webTestClient.put().uri("/patients/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(request("reactive.moved@example.com", null))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody().jsonPath("$.email").isEqualTo("reactive.moved@example.com");
+
+        webTestClient.put().uri("/patients/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(request("reactive.stale@example.com", null))
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody().jsonPath("$.message").isEqualTo("Patient has been modified since it was read.");
+
+        webTestClient.delete().uri("/patients/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get().uri("/patients/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void weakIfMatchNeverMatches() {
+        var created = webTestClient.post().uri("/patients")
+                .bodyValue(request("reactive.weak@example.com", "2024-05-01"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PatientResponseDTO.class)
+                .returnResult().getResponseBody();
+
+        // If-Match compares strongly, so a weak tag fails even for the current version
+        webTestClient.put().uri("/patients/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                .bodyValue(request("reactive.weak@example.com", null))
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody().jsonPath("$.message").isEqualTo("Patient has been modified since it was read.");
+        webTestClient.put().uri("/patients/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(request("reactive.weak.moved@example.com", null))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+    }
+
+    @Test
+    void duplicateEmailIsRejected() {
+        webTestClient.post().uri("/patients")
+                .bodyValue(request("john.doe@example.com", "2024-05-01"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Email address already exists.");
+    }
+
+    @Test
+    void invalidRequestReturnsFieldErrors() {
+        webTestClient.post().uri("/patients")
+                .bodyValue(Map.of("name", "No Email", "address", "1 Main St", "dateOfBirth", "1990-01-01"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("Email is required")
+                .jsonPath("$.registeredDate").isEqualTo("Registered date is required");
+    }
+
+    @Test
+    void listIsStreamedAsJsonArrayAndNdjson() {
+        webTestClient.get().uri("/patients")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].id").isNotEmpty();
+
+        var ndjson = webTestClient.get().uri("/patients")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(PatientResponseDTO.class)
+                .getResponseBody();
+        StepVerifier.create(ndjson.take(3))
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    private static Map<String, String> request(String email, String registeredDate) {
+        var request = new HashMap<>(Map.of(
+                "name", "Reactive Patient",
+                "email", email,
+                "address", "1 Reactor Way",
+                "dateOfBirth", "1990-01-01"));
+        if (registeredDate != null) {
+            request.put("registeredDate", registeredDate);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,76 @@
+package com.pm.patientservice.benchmark;
+
+import com.pm.patientservice.exception.GlobalExceptionHandler;
+import com.pm.patientservice.exception.PatientNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The 404 path for an unknown patient ID: throwing the exception from {@code depth} frames
+ * down (a Spring MVC request is roughly a hundred frames deep at the repository) and building
+ * the error response, with the previous exception (stack trace, eager message) and per-response
+ * map versus {@link PatientNotFoundException} and {@link GlobalExceptionHandler} as they are now.
+ * Logging is left out; the previous handler also wrote a WARN line per 404.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientErrorPathBenchmark {
+
+    @Param("100")
+    public int depth;
+
+    private MeterRegistry meterRegistry;
+    private GlobalExceptionHandler handler;
+    private UUID id;
+
+    @Setup
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        handler = new GlobalExceptionHandler(meterRegistry);
+        id = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> previous() {
+        try {
+            throwFrom(depth, false);
+            throw new AssertionError();
+        } catch (RuntimeException ex) {
+            meterRegistry.counter("patient.errors",
+                    "exception", ex.getClass().getSimpleName(),
+                    "status", String.valueOf(HttpStatus.NOT_FOUND.value())).increment();
+            Map<String, String> errors = new HashMap<>();
+            errors.put("message", "Patient not found.");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errors);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> current() {
+        try {
+            throwFrom(depth, true);
+            throw new AssertionError();
+        } catch (PatientNotFoundException ex) {
+            return handler.handlePatientNotFound(ex);
+        }
+    }
+
+    private int throwFrom(int remaining, boolean current) {
+        if (remaining == 0) {
+            throw current ? new PatientNotFoundException(id) : new RuntimeException("Patient not found with ID: " + id);
+        }
+        return throwFrom(remaining - 1, current) + 1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.pm.patientservice.benchmark;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.model.PatientSummary;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deterministic sample data shared by the benchmarks.
+ */
+final class PatientFixtures {
+
+    private static final LocalDate BASE_DATE = LocalDate.of(1950, 1, 1);
+
+    private PatientFixtures() {
+    }
+
+    static Patient patient(int i) {
+        var patient = new Patient();
+        patient.setId(new UUID(0x123e4567e89b12d3L, i));
+        patient.setName("Patient Number " + i);
+        patient.setEmail("patient" + i + "@example.com");
+        patient.setAddress(i + " Main St, Springfield");
+        patient.setDateOfBirth(BASE_DATE.plusDays(i % 20_000));
+        patient.setRegisteredDate(BASE_DATE.plusYears(70).plusDays(i % 2_000));
+        return patient;
+    }
+
+    static PatientRequestDTO request(int i) {
+        var request = new PatientRequestDTO();
+        request.setName("Patient Number " + i);
+        request.setEmail("patient" + i + "@example.com");
+        request.setAddress(i + " Main St, Springfield");
+        request.setDateOfBirth(BASE_DATE.plusDays(i % 20_000).toString());
+        request.setRegisteredDate(BASE_DATE.plusYears(70).plusDays(i % 2_000).toString());
+        return request;
+    }
+
+    static List<PatientResponseDTO> responses(int size) {
+        var responses = new ArrayList<PatientResponseDTO>(size);
+        for (int i = 0; i < size; i++) {
+            responses.add(PatientMapper.toPatientResponseDTO(patient(i)));
+        }
+        return responses;
+    }
+
+    static List<PatientSummary> summaries(int size) {
+        var summaries = new ArrayList<PatientSummary>(size);
+        for (int i = 0; i < size; i++) {
+            var patient = patient(i);
+            summaries.add(new PatientSummary(patient.getId(), patient.getName(), patient.getEmail(),
+                    patient.getAddress(), patient.getDateOfBirth(), patient.getRegisteredDate(),
+                    0L, Instant.EPOCH));
+        }
+        return summaries;
+    }
+}
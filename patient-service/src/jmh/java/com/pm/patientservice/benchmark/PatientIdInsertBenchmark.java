@@ -0,0 +1,119 @@
+package com.pm.patientservice.benchmark;
+
+import com.pm.patientservice.model.TimeOrderedUuidGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput and primary key index size with random (version 4) versus time-ordered
+ * (version 7) patient IDs, as the table grows.
+ * <p>
+ * Each measured iteration inserts {@code rowsPerIteration} rows into a table that keeps
+ * growing, so the per-iteration times show how inserts slow down as the index outgrows the
+ * cache; the table and index sizes are printed at the end. Runs against a file-based H2
+ * database by default; point it at Postgres with e.g.
+ * {@code -p url=jdbc:postgresql://localhost:5432/db?reWriteBatchedInserts=true -p user=... -p password=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 20)
+@Fork(1)
+public class PatientIdInsertBenchmark {
+
+    private static final String TABLE = "patient_id_benchmark";
+    private static final int BATCH_SIZE = 1_000;
+    private static final LocalDate BASE_DATE = LocalDate.of(1950, 1, 1);
+
+    @Param({"random", "time-ordered"})
+    public String ids;
+
+    @Param("jdbc:h2:file:./target/id-benchmark/patients")
+    public String url;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    @Param("100000")
+    public int rowsPerIteration;
+
+    private Connection connection;
+    private int rows;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(url, user, password);
+        connection.setAutoCommit(false);
+        try (var statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + TABLE);
+            statement.execute("create table " + TABLE + " (id uuid primary key, name varchar(255) not null,"
+                    + " email varchar(255) not null, address varchar(255) not null,"
+                    + " date_of_birth date not null, registered_date date not null)");
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        try (var insert = connection.prepareStatement("insert into " + TABLE
+                + " (id, name, email, address, date_of_birth, registered_date) values (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rowsPerIteration; i++) {
+                int n = rows++;
+                insert.setObject(1, nextId());
+                insert.setString(2, "Patient Number " + n);
+                insert.setString(3, "patient" + n + "@example.com");
+                insert.setString(4, n + " Main St, Springfield");
+                insert.setDate(5, Date.valueOf(BASE_DATE.plusDays(n % 20_000)));
+                insert.setDate(6, Date.valueOf(BASE_DATE.plusYears(70).plusDays(n % 2_000)));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        return rows;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (var statement = connection.createStatement()) {
+            if (url.startsWith("jdbc:postgresql:")) {
+                try (var sizes = statement.executeQuery("select pg_relation_size('" + TABLE + "'),"
+                        + " pg_relation_size('" + TABLE + "_pkey')")) {
+                    sizes.next();
+                    System.out.printf("%n%s IDs, %,d rows: table %,d KiB, primary key index %,d KiB%n",
+                            ids, rows, sizes.getLong(1) / 1024, sizes.getLong(2) / 1024);
+                }
+            } else {
+                // H2 only reports the table including its indexes
+                try (var sizes = statement.executeQuery("select disk_space_used('" + TABLE.toUpperCase() + "')")) {
+                    sizes.next();
+                    System.out.printf("%n%s IDs, %,d rows: table and indexes %,d KiB%n",
+                            ids, rows, sizes.getLong(1) / 1024);
+                }
+            }
+            statement.execute("drop table " + TABLE);
+            connection.commit();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private UUID nextId() {
+        return ids.equals("random") ? UUID.randomUUID() : TimeOrderedUuidGenerator.next();
+    }
+}
@@ -0,0 +1,66 @@
+package com.pm.patientservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.mapper.PatientJsonWriter;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.PatientSummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The streamed GET /patients body written from PatientSummary rows: through
+ * PatientMapper + Jackson (the previous path) versus PatientJsonWriter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientListWriterBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<PatientSummary> patients;
+    private ObjectMapper objectMapper;
+    private ObjectWriter patientWriter;
+
+    @Setup
+    public void setUp() {
+        patients = PatientFixtures.summaries(size);
+        objectMapper = new ObjectMapper();
+        patientWriter = objectMapper.writerFor(PatientResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Benchmark
+    public void mapperAndJackson() throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(OutputStream.nullOutputStream())) {
+            generator.writeStartArray();
+            for (var patient : patients) {
+                patientWriter.writeValue(generator, PatientMapper.toPatientResponseDTO(patient));
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    @Benchmark
+    public void patientJsonWriter() throws IOException {
+        try (var writer = new PatientJsonWriter(OutputStream.nullOutputStream())) {
+            writer.writeStartArray();
+            for (var patient : patients) {
+                writer.writeArrayElement(patient);
+            }
+            writer.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.pm.patientservice.benchmark;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.Patient;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the entity/DTO conversions done on every request, and of the
+ * {@link LocalDate} and {@link UUID} conversions inside them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientMapperBenchmark {
+
+    private Patient patient;
+    private PatientRequestDTO request;
+    private String dateOfBirth;
+    private UUID id;
+
+    @Setup
+    public void setUp() {
+        patient = PatientFixtures.patient(42);
+        request = PatientFixtures.request(42);
+        dateOfBirth = request.getDateOfBirth();
+        id = patient.getId();
+    }
+
+    @Benchmark
+    public PatientResponseDTO toPatientResponseDTO() {
+        return PatientMapper.toPatientResponseDTO(patient);
+    }
+
+    @Benchmark
+    public Patient toModel() {
+        return PatientMapper.toModel(request);
+    }
+
+    @Benchmark
+    public LocalDate localDateParse() {
+        return LocalDate.parse(dateOfBirth);
+    }
+
+    @Benchmark
+    public String uuidToString() {
+        return id.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.pm.patientservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of patient lists, both as a single materialized list
+ * and element by element the way the streamed GET /patients endpoint writes it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<PatientResponseDTO> patients;
+    private ObjectMapper objectMapper;
+    private ObjectWriter patientWriter;
+
+    @Setup
+    public void setUp() {
+        patients = PatientFixtures.responses(size);
+        objectMapper = new ObjectMapper();
+        patientWriter = objectMapper.writerFor(PatientResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Benchmark
+    public void writeList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), patients);
+    }
+
+    @Benchmark
+    public void writeStreamed() throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(OutputStream.nullOutputStream())) {
+            generator.writeStartArray();
+            for (var patient : patients) {
+                patientWriter.writeValue(generator, patient);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.pm.patientservice.benchmark;
+
+import com.pm.patientservice.service.PatientTrigramIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of fuzzy searches against a {@link PatientTrigramIndex} of realistic names and
+ * addresses, for a misspelled full name, a single common surname and an address fragment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PatientTrigramIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William",
+            "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah",
+            "Charles", "Karen", "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Betty", "Anthony",
+            "Margaret", "Mark", "Sandra", "Zoë", "José", "François", "Søren", "Łukasz", "Aoife", "Nguyen",
+            "Mohammed", "Fatima", "Priya", "Chen", "Yuki", "Olga", "Dmitri", "Ingrid", "Mateo", "Amara"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez",
+            "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor",
+            "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez",
+            "Clark", "Ramirez", "Lewis", "Robinson", "Müller", "Schröder", "O'Brien", "Kowalski",
+            "Novák", "Ångström", "Okafor", "Haddad", "Tanaka", "Ivanov", "Rossi", "Dubois", "Jensen"};
+    private static final String[] STREETS = {
+            "Main St", "Oak Avenue", "Maple Drive", "Cedar Lane", "Elm Street", "Pine Road", "Lakeview Blvd",
+            "Hauptstraße", "Rue de la Paix", "High Street", "Church Road", "Station Approach", "Mill Lane"};
+    private static final String[] CITIES = {
+            "Springfield", "Shelbyville", "Riverside", "Fairview", "Franklin", "Greenville", "Bristol",
+            "Clinton", "Georgetown", "Salem", "Madison", "München", "Kraków", "Zürich", "Lyon", "Porto"};
+
+    @Param({"100000", "1000000"})
+    public int patients;
+
+    private PatientTrigramIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new PatientTrigramIndex();
+        var random = new Random(42);
+        for (int i = 0; i < patients; i++) {
+            var name = pick(random, FIRST_NAMES) + " " + pick(random, FIRST_NAMES).charAt(0) + ". "
+                    + pick(random, LAST_NAMES) + (random.nextInt(4) == 0 ? "-" + pick(random, LAST_NAMES) : "");
+            var address = (1 + random.nextInt(9_999)) + " " + pick(random, STREETS) + ", " + pick(random, CITIES);
+            index.load(new UUID(random.nextLong(), random.nextLong()), 0, name, address);
+        }
+        index.finishLoading();
+    }
+
+    @Benchmark
+    public List<PatientTrigramIndex.Match> misspelledFullName() {
+        return index.search("Jenifer Rodrigez", 0.3, 20);
+    }
+
+    @Benchmark
+    public List<PatientTrigramIndex.Match> commonSurname() {
+        return index.search("smith", 0.3, 20);
+    }
+
+    @Benchmark
+    public List<PatientTrigramIndex.Match> addressFragment() {
+        return index.search("maple dr springfeld", 0.3, 20);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
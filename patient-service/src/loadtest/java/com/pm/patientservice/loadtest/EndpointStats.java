@@ -0,0 +1,64 @@
+package com.pm.patientservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters for one scenario.
+ */
+final class EndpointStats {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    void record(int status, long latencyNanos) {
+        latencies.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (status >= 500 || status == 0) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Summarises the recorded requests; latencies are in milliseconds.
+     */
+    Map<String, Object> summary(double elapsedSeconds) {
+        var summary = new LinkedHashMap<String, Object>();
+        long requests = latencies.getTotalCount();
+        summary.put("requests", requests);
+        summary.put("errors", errors.sum());
+        summary.put("throughputPerSecond", round(requests / elapsedSeconds));
+
+        var statusCounts = new TreeMap<String, Long>();
+        statuses.forEach((status, count) -> statusCounts.put(String.valueOf(status), count.sum()));
+        summary.put("statuses", statusCounts);
+
+        var latency = new LinkedHashMap<String, Object>();
+        latency.put("mean", millis(latencies.getMean()));
+        latency.put("p50", millis(latencies.getValueAtPercentile(50)));
+        latency.put("p90", millis(latencies.getValueAtPercentile(90)));
+        latency.put("p99", millis(latencies.getValueAtPercentile(99)));
+        latency.put("p999", millis(latencies.getValueAtPercentile(99.9)));
+        latency.put("max", millis(latencies.getMaxValue()));
+        summary.put("latencyMillis", latency);
+        return summary;
+    }
+
+    private static double millis(double nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.pm.patientservice.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request template parsed from an IntelliJ-style {@code .http} file.
+ * <p>
+ * Only the first request of each file is used: the request line, its headers and
+ * the body up to the next {@code ###} separator. The scenario name is the file name
+ * without the extension, e.g. {@code get-patient-by-ID}.
+ *
+ * @param name the scenario name
+ * @param method the HTTP method
+ * @param path the request path, e.g. {@code /patients/123e...}
+ * @param headers the request headers
+ * @param body the request body, or an empty string
+ */
+record HttpScenario(String name, String method, String path, Map<String, String> headers, String body) {
+
+    static HttpScenario parse(Path file) throws IOException {
+        var name = file.getFileName().toString().replaceFirst("\\.http$", "");
+        List<String> lines = Files.readAllLines(file);
+
+        int i = 0;
+        while (i < lines.size() && (lines.get(i).isBlank() || lines.get(i).startsWith("#"))) {
+            i++;
+        }
+        if (i == lines.size()) {
+            throw new IllegalArgumentException("No request in " + file);
+        }
+        var requestLine = lines.get(i++).trim().split("\\s+");
+        var path = URI.create(requestLine[1]).getRawPath();
+
+        var headers = new LinkedHashMap<String, String>();
+        while (i < lines.size() && !lines.get(i).isBlank() && !lines.get(i).startsWith("###")) {
+            var header = lines.get(i++);
+            int colon = header.indexOf(':');
+            headers.put(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+        }
+
+        var body = new StringBuilder();
+        while (i < lines.size() && !lines.get(i).startsWith("###")) {
+            body.append(lines.get(i++)).append('\n');
+        }
+        return new HttpScenario(name, requestLine[0], path, headers, body.toString().trim());
+    }
+
+    /**
+     * Whether the path addresses a single patient and needs an existing ID substituted in.
+     */
+    boolean targetsPatient() {
+        return path.matches("/patients/[0-9a-fA-F-]{36}");
+    }
+}
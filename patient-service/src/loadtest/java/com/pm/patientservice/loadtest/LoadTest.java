@@ -0,0 +1,258 @@
+package com.pm.patientservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pm.patientservice.PatientServiceApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Closed-loop load generator that replays the {@code api-requests/patient-service/*.http}
+ * scenarios at a configurable concurrency and mix, and writes per-endpoint throughput and
+ * latency percentiles to a JSON file that can be diffed between builds.
+ * <p>
+ * Without a {@code target} the service is started in-process with the {@code h2} profile,
+ * so the seed data from data.sql is loaded; {@code seed} synthetic patients are added on top
+ * through {@code POST /patients/bulk}. Example:
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="concurrency=64 duration=60s mix=get-patient-by-ID:90,update-patient:10"
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern ID_FIELD = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-fA-F-]{36})\"");
+    private static final Pattern EMAIL_FIELD = Pattern.compile("\"email\"\\s*:\\s*\"[^\"]*\"");
+    private static final int SEED_CHUNK = 1000;
+
+    private final LoadTestOptions options;
+    private final String target;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final PatientIdPool ids = new PatientIdPool();
+    private final AtomicLong emailSequence = new AtomicLong();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    private LoadTest(LoadTestOptions options, String target) {
+        this.options = options;
+        this.target = target;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        var target = options.target();
+        if (target == null) {
+            context = startService(options.profiles());
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            new LoadTest(options, target).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startService(String profiles) {
+        // DevTools would relaunch this main method in a restart class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return SpringApplication.run(PatientServiceApplication.class,
+                "--spring.profiles.active=" + profiles,
+                "--server.port=0",
+                "--logging.level.root=warn");
+    }
+
+    private void run() throws Exception {
+        var scenarios = loadScenarios();
+        seed();
+        System.out.printf("Target %s, %d patients, %d threads, mix %s%n",
+                target, ids.size(), options.concurrency(), options.mix());
+
+        var startedAt = Instant.now();
+        long now = System.nanoTime();
+        long recordFrom = now + options.warmup().toNanos();
+        long stopAt = recordFrom + options.duration().toNanos();
+
+        var workers = new ArrayList<Thread>();
+        for (int i = 0; i < options.concurrency(); i++) {
+            var worker = new Thread(() -> work(scenarios, recordFrom, stopAt), "loadtest-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (var worker : workers) {
+            worker.join();
+        }
+        report(startedAt, options.duration().toNanos() / 1e9);
+    }
+
+    private List<HttpScenario> loadScenarios() throws IOException {
+        var byName = new LinkedHashMap<String, HttpScenario>();
+        try (Stream<Path> files = Files.list(options.scenarios())) {
+            for (var file : files.filter(f -> f.toString().endsWith(".http")).sorted().toList()) {
+                var scenario = HttpScenario.parse(file);
+                byName.put(scenario.name(), scenario);
+            }
+        }
+        var weighted = new ArrayList<HttpScenario>();
+        options.mix().forEach((name, weight) -> {
+            var scenario = byName.get(name);
+            if (scenario == null) {
+                throw new IllegalArgumentException("Unknown scenario " + name + "; available: " + byName.keySet());
+            }
+            stats.put(name, new EndpointStats());
+            for (int i = 0; i < weight; i++) {
+                weighted.add(scenario);
+            }
+        });
+        return weighted;
+    }
+
+    /**
+     * Adds synthetic patients through the bulk endpoint, then collects every live ID.
+     */
+    private void seed() throws IOException, InterruptedException {
+        for (int from = 0; from < options.seedPatients(); from += SEED_CHUNK) {
+            var body = new StringBuilder("[");
+            int to = Math.min(from + SEED_CHUNK, options.seedPatients());
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    body.append(',');
+                }
+                body.append("{\"name\":\"Load Test ").append(i)
+                        .append("\",\"email\":\"").append(nextEmail())
+                        .append("\",\"address\":\"").append(i).append(" Synthetic St")
+                        .append("\",\"dateOfBirth\":\"").append(1950 + i % 60).append("-01-01")
+                        .append("\",\"registeredDate\":\"2024-01-01\"}");
+            }
+            var request = HttpRequest.newBuilder(URI.create(target + "/patients/bulk"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.append(']').toString()))
+                    .build();
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+
+        var request = HttpRequest.newBuilder(URI.create(target + "/patients"))
+                .header("Accept", "application/x-ndjson")
+                .build();
+        try (Stream<String> lines = client.send(request, HttpResponse.BodyHandlers.ofLines()).body()) {
+            lines.forEach(line -> {
+                Matcher matcher = ID_FIELD.matcher(line);
+                if (matcher.find()) {
+                    ids.add(matcher.group(1));
+                }
+            });
+        }
+    }
+
+    private void work(List<HttpScenario> scenarios, long recordFrom, long stopAt) {
+        var random = ThreadLocalRandom.current();
+        while (System.nanoTime() < stopAt) {
+            var scenario = scenarios.get(random.nextInt(scenarios.size()));
+            var request = toRequest(scenario);
+            if (request == null) {
+                continue;
+            }
+            long start = System.nanoTime();
+            int status;
+            String body = null;
+            try {
+                var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                body = response.body();
+            } catch (IOException ex) {
+                status = 0;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long latency = System.nanoTime() - start;
+            if (start >= recordFrom) {
+                stats.get(scenario.name()).record(status, latency);
+            }
+            if (status == 200 && "POST".equals(scenario.method()) && body != null) {
+                Matcher matcher = ID_FIELD.matcher(body);
+                if (matcher.find()) {
+                    ids.add(matcher.group(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Instantiates a scenario: existing IDs in single-patient paths, fresh emails in bodies.
+     *
+     * @return the request, or null if no live patient is left to address
+     */
+    private HttpRequest toRequest(HttpScenario scenario) {
+        var path = scenario.path();
+        if (scenario.targetsPatient()) {
+            var id = "DELETE".equals(scenario.method()) ? ids.take() : ids.pick();
+            if (id == null) {
+                return null;
+            }
+            path = UUID_PATTERN.matcher(path).replaceFirst(id);
+        }
+        var body = scenario.body().isEmpty()
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(EMAIL_FIELD.matcher(scenario.body())
+                        .replaceFirst("\"email\":\"" + nextEmail() + "\""));
+        var builder = HttpRequest.newBuilder(URI.create(target + path)).method(scenario.method(), body);
+        scenario.headers().forEach(builder::header);
+        return builder.build();
+    }
+
+    private String nextEmail() {
+        return "loadtest-" + emailSequence.incrementAndGet() + "@example.com";
+    }
+
+    private void report(Instant startedAt, double elapsedSeconds) throws IOException {
+        var endpoints = new LinkedHashMap<String, Object>();
+        stats.forEach((name, endpointStats) -> endpoints.put(name, endpointStats.summary(elapsedSeconds)));
+
+        var results = new LinkedHashMap<String, Object>();
+        results.put("startedAt", startedAt.toString());
+        results.put("target", target);
+        results.put("concurrency", options.concurrency());
+        results.put("warmupSeconds", options.warmup().toSeconds());
+        results.put("durationSeconds", options.duration().toSeconds());
+        results.put("seedPatients", options.seedPatients());
+        results.put("mix", options.mix());
+        results.put("endpoints", endpoints);
+
+        Files.createDirectories(options.output().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.output().toFile(), results);
+
+        System.out.printf("%-20s %10s %8s %10s %10s %10s %10s%n",
+                "endpoint", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        endpoints.forEach((name, summary) -> {
+            @SuppressWarnings("unchecked")
+            var values = (Map<String, Object>) summary;
+            @SuppressWarnings("unchecked")
+            var latency = (Map<String, Object>) values.get("latencyMillis");
+            System.out.printf("%-20s %10s %8s %10s %10s %10s %10s%n", name, values.get("throughputPerSecond"),
+                    values.get("errors"), latency.get("p50"), latency.get("p90"), latency.get("p99"), latency.get("max"));
+        });
+        System.out.println("Results written to " + options.output().toAbsolutePath());
+    }
+}
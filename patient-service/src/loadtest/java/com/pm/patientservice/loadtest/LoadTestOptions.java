@@ -0,0 +1,65 @@
+package com.pm.patientservice.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options for {@link LoadTest}, given as {@code key=value} arguments.
+ *
+ * @param target base URL of a running service; null starts one in-process
+ * @param profiles Spring profiles for the in-process service
+ * @param scenarios directory containing the {@code .http} scenario files
+ * @param concurrency number of closed-loop client threads
+ * @param warmup time to run before recording
+ * @param duration time to record for
+ * @param seedPatients synthetic patients to create before the run
+ * @param mix scenario name to relative weight
+ * @param output path of the JSON results file
+ */
+record LoadTestOptions(String target,
+                       String profiles,
+                       Path scenarios,
+                       int concurrency,
+                       Duration warmup,
+                       Duration duration,
+                       int seedPatients,
+                       Map<String, Integer> mix,
+                       Path output) {
+
+    static final String DEFAULT_MIX =
+            "get-patient-by-ID:60,get-patients:2,create-patient:15,update-patient:15,delete-patient:8";
+
+    static LoadTestOptions parse(String[] args) {
+        var values = new LinkedHashMap<String, String>();
+        for (var arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            values.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        return new LoadTestOptions(
+                values.get("target"),
+                values.getOrDefault("profiles", "h2"),
+                Path.of(values.getOrDefault("scenarios", "../api-requests/patient-service")),
+                Integer.parseInt(values.getOrDefault("concurrency", "16")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "5s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+                Integer.parseInt(values.getOrDefault("seed", "1000")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Path.of(values.getOrDefault("output", "target/loadtest/results.json")));
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        var weights = new LinkedHashMap<String, Integer>();
+        for (var entry : mix.split(",")) {
+            var parts = entry.split(":");
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,44 @@
+package com.pm.patientservice.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * IDs of patients known to exist, used to fill in get/update/delete paths.
+ * Deleted IDs are removed so later requests keep hitting live rows.
+ */
+final class PatientIdPool {
+
+    private final List<String> ids = new ArrayList<>();
+
+    synchronized void add(String id) {
+        ids.add(id);
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+
+    /**
+     * Returns a random live ID, or null if the pool is empty.
+     */
+    synchronized String pick() {
+        return ids.isEmpty() ? null : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    /**
+     * Removes and returns a random live ID, or null if the pool is empty.
+     * The last element is swapped into its slot so removal stays O(1).
+     */
+    synchronized String take() {
+        if (ids.isEmpty()) {
+            return null;
+        }
+        int index = ThreadLocalRandom.current().nextInt(ids.size());
+        var id = ids.get(index);
+        ids.set(index, ids.get(ids.size() - 1));
+        ids.remove(ids.size() - 1);
+        return id;
+    }
+}
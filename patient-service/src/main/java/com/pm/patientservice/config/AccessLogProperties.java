@@ -0,0 +1,27 @@
+package com.pm.patientservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the structured access log of the patient endpoints.
+ * <p>
+ * Every request slower than {@code slowThreshold} is logged with its phase timings at WARN
+ * level; of the others, a {@code sampleRate} fraction is logged at INFO level. Lines are
+ * queued in a ring buffer of {@code bufferSize} entries and written by a background thread;
+ * when it falls that far behind, further lines are dropped and counted.
+ *
+ * @param enabled whether requests are logged
+ * @param slowThreshold duration from which a request is always logged as slow
+ * @param sampleRate fraction of the faster requests that is logged, between 0 and 1
+ * @param bufferSize lines queued for the writer, rounded up to a power of two
+ */
+@ConfigurationProperties(prefix = "patient-service.access-log")
+public record AccessLogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("500ms") Duration slowThreshold,
+        @DefaultValue("1.0") double sampleRate,
+        @DefaultValue("8192") int bufferSize) {
+}
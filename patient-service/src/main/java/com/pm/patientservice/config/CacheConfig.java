@@ -0,0 +1,19 @@
+package com.pm.patientservice.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring's cache abstraction for the service layer.
+ * The backing store (local Caffeine by default) and its eviction policy are
+ * chosen entirely through the {@code spring.cache.*} properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Cache of mapped {@code PatientResponseDTO}s keyed by patient UUID.
+     */
+    public static final String PATIENTS = "patients";
+}
@@ -0,0 +1,50 @@
+package com.pm.patientservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the concurrency limiter in front of the patient endpoints.
+ * <p>
+ * With virtual threads every request gets its own thread, so without a limit the
+ * backlog simply moves into Hikari's connection queue. The limiter keeps the number
+ * of in-flight requests close to the pool size and rejects the excess quickly.
+ *
+ * @param enabled whether the limiter is installed
+ * @param maxConcurrentRequests permits; should roughly match the Hikari maximum pool size.
+ *        With {@code adaptive.enabled} this is only the starting limit
+ * @param maxWait how long a request may wait for a permit before being rejected with 503;
+ *        zero rejects immediately
+ * @param adaptive settings for adjusting the limit to observed latency
+ */
+@ConfigurationProperties(prefix = "patient-service.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10") int maxConcurrentRequests,
+        @DefaultValue("500ms") Duration maxWait,
+        @DefaultValue Adaptive adaptive) {
+
+    /**
+     * AIMD (additive increase, multiplicative decrease) adjustment of the limit.
+     * <p>
+     * Every completed latency-sensitive request is a sample. A sample slower than
+     * {@code latencyThreshold}, or one that failed with a 5xx status, multiplies the limit by
+     * {@code backoffRatio}. A fast sample while at least half the permits are in use raises
+     * the limit by one.
+     *
+     * @param enabled whether the limit adapts
+     * @param minConcurrentRequests lowest limit
+     * @param maxConcurrentRequests highest limit
+     * @param latencyThreshold latency above which a request counts as a sign of overload
+     * @param backoffRatio factor applied to the limit on overload, between 0 and 1
+     */
+    public record Adaptive(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("2") int minConcurrentRequests,
+            @DefaultValue("200") int maxConcurrentRequests,
+            @DefaultValue("250ms") Duration latencyThreshold,
+            @DefaultValue("0.9") double backoffRatio) {
+    }
+}
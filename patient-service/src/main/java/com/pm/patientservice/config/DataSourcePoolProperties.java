@@ -0,0 +1,32 @@
+package com.pm.patientservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for sizing the Hikari pool from the number of CPU cores.
+ * <p>
+ * When enabled, the pool is fixed at {@code cores * connectionsPerCore + spindles}
+ * connections (the PostgreSQL rule of thumb), overriding
+ * {@code spring.datasource.hikari.maximum-pool-size} and {@code minimum-idle}.
+ *
+ * @param sizeFromCores whether to compute the pool size
+ * @param cores cores to size for; 0 uses the cores available to this JVM
+ * @param connectionsPerCore connections per core
+ * @param spindles effective spindle count (1 for SSD-backed databases)
+ */
+@ConfigurationProperties(prefix = "patient-service.datasource")
+public record DataSourcePoolProperties(
+        @DefaultValue("false") boolean sizeFromCores,
+        @DefaultValue("0") int cores,
+        @DefaultValue("2") int connectionsPerCore,
+        @DefaultValue("1") int spindles) {
+
+    /**
+     * @return the pool size for these settings
+     */
+    public int poolSize() {
+        int effectiveCores = cores > 0 ? cores : Runtime.getRuntime().availableProcessors();
+        return effectiveCores * connectionsPerCore + spindles;
+    }
+}
@@ -0,0 +1,45 @@
+package com.pm.patientservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link DataSourcePoolProperties} to the auto-configured Hikari pool before it starts.
+ * The properties are bound directly from the environment because post-processors are
+ * created before configuration-properties beans.
+ */
+@Component
+public class DataSourcePoolSizer implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourcePoolSizer.class);
+
+    private final Environment environment;
+
+    // Constructor-based dependency injection
+    public DataSourcePoolSizer(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            Binder.get(environment)
+                    .bind("patient-service.datasource", DataSourcePoolProperties.class)
+                    .ifBound(properties -> {
+                        if (!properties.sizeFromCores()) {
+                            return;
+                        }
+                        int poolSize = properties.poolSize();
+                        dataSource.setMaximumPoolSize(poolSize);
+                        dataSource.setMinimumIdle(poolSize);
+                        log.info("Sized connection pool '{}' to {} connections", beanName, poolSize);
+                    });
+        }
+        return bean;
+    }
+}
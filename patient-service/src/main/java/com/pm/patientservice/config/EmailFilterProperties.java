@@ -0,0 +1,23 @@
+package com.pm.patientservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the in-memory email filter that lets bulk imports skip the
+ * "which of these emails exist" query for emails that are definitely new.
+ * <p>
+ * Each build sizes the filter for {@code max(capacity, rows * headroom)} emails; at that
+ * many the false-positive rate reaches {@code falsePositiveRate}. Memory is about
+ * 1.2 bytes per email at 1%.
+ *
+ * @param capacity minimum number of emails the filter is sized for
+ * @param falsePositiveRate target false-positive rate once the filter holds its capacity
+ * @param headroom growth allowed for, as a multiple of the current row count
+ */
+@ConfigurationProperties(prefix = "patient-service.email-filter")
+public record EmailFilterProperties(
+        @DefaultValue("1000000") long capacity,
+        @DefaultValue("0.01") double falsePositiveRate,
+        @DefaultValue("2.0") double headroom) {
+}
@@ -0,0 +1,25 @@
+package com.pm.patientservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for full-table patient exports.
+ * <p>
+ * Exports run on their own small thread pool, so at most {@code threads} of them hold a
+ * database connection at a time and they never compete with request threads.
+ *
+ * @param directory where export files and their checkpoint files are written
+ * @param threads exports that may run at once
+ * @param queueCapacity exports that may wait for a free thread before new ones are rejected
+ * @param checkpointRows rows written between checkpoints; a resumed export repeats at most this many
+ */
+@ConfigurationProperties(prefix = "patient-service.export")
+public record ExportProperties(
+        @DefaultValue("exports") Path directory,
+        @DefaultValue("1") int threads,
+        @DefaultValue("4") int queueCapacity,
+        @DefaultValue("10000") int checkpointRows) {
+}
@@ -0,0 +1,18 @@
+package com.pm.patientservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for fuzzy name and address search ({@code GET /patients/search/fuzzy}).
+ *
+ * @param minSimilarity lowest trigram similarity returned, in [0, 1]; 0.3 matches pg_trgm's default
+ * @param defaultLimit matches returned when the client does not ask for a number
+ * @param maxLimit upper bound on the matches returned
+ */
+@ConfigurationProperties(prefix = "patient-service.fuzzy-search")
+public record FuzzySearchProperties(
+        @DefaultValue("0.3") double minSimilarity,
+        @DefaultValue("20") int defaultLimit,
+        @DefaultValue("100") int maxLimit) {
+}
@@ -0,0 +1,24 @@
+package com.pm.patientservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.service.FilePatientEventSink;
+import com.pm.patientservice.service.PatientEventSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Wires the outbox publisher. Events go to an NDJSON file unless another
+ * {@link PatientEventSink} bean (e.g. a message-broker adapter) is defined.
+ */
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PatientEventSink patientEventSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        return new FilePatientEventSink(properties.file(), objectMapper);
+    }
+}
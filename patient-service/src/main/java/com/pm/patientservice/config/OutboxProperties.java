@@ -0,0 +1,33 @@
+package com.pm.patientservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for publishing the patient outbox.
+ * <p>
+ * Each publisher run delivers at most {@code batchSize * maxBatchesPerRun} events, so a large
+ * backlog is drained in bounded steps and stays in the database rather than in memory.
+ * A failing sink pauses publication with exponential backoff up to {@code maxBackoff}.
+ *
+ * @param publisherEnabled whether this instance drains the outbox
+ * @param pollInterval delay between publisher runs
+ * @param batchSize events per sink call (and per transaction)
+ * @param maxBatchesPerRun batches delivered before yielding to the next run
+ * @param maxBackoff longest pause after consecutive sink failures
+ * @param retention how long published events remain available to {@code GET /patients/changes}
+ * @param file NDJSON file appended to by the default file sink
+ */
+@ConfigurationProperties(prefix = "patient-service.outbox")
+public record OutboxProperties(
+        @DefaultValue("true") boolean publisherEnabled,
+        @DefaultValue("1s") Duration pollInterval,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("20") int maxBatchesPerRun,
+        @DefaultValue("1m") Duration maxBackoff,
+        @DefaultValue("7d") Duration retention,
+        @DefaultValue("patient-events.ndjson") Path file) {
+}
@@ -0,0 +1,44 @@
+package com.pm.patientservice.config;
+
+import com.pm.patientservice.filter.PatientEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Settings for the per-client token-bucket rate limiter in front of the patient endpoints.
+ * <p>
+ * Every client gets a bucket of {@code capacity} tokens refilled at {@code refillPerSecond}.
+ * A request takes its endpoint's cost from the bucket, or is answered with 429 (Too Many
+ * Requests) when the bucket holds too few tokens. With the defaults a client can sustain
+ * 50 single-patient reads per second, but only one full list every two seconds.
+ *
+ * @param enabled whether the limiter is installed
+ * @param capacity bucket size, i.e. the largest burst in tokens
+ * @param refillPerSecond tokens added per second
+ * @param clientHeader request header identifying the client; unset by default, so clients are
+ *        told apart by remote address. Set it only behind a trusted gateway that sets the
+ *        header and strips it from outside requests, since clients could otherwise pick a new
+ *        bucket per request. The remote address is still used when the header is absent
+ * @param maxClients most client buckets kept in memory
+ * @param costs token cost per endpoint group, overriding {@link PatientEndpoint#defaultCost()}
+ */
+@ConfigurationProperties(prefix = "patient-service.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("200") int capacity,
+        @DefaultValue("50") int refillPerSecond,
+        String clientHeader,
+        @DefaultValue("100000") int maxClients,
+        Map<PatientEndpoint, Integer> costs) {
+
+    /**
+     * @param endpoint the endpoint group
+     * @return the configured or default cost, never more than the bucket capacity
+     */
+    public int cost(PatientEndpoint endpoint) {
+        int cost = costs != null && costs.containsKey(endpoint) ? costs.get(endpoint) : endpoint.defaultCost();
+        return Math.min(cost, capacity);
+    }
+}
@@ -0,0 +1,77 @@
+package com.pm.patientservice.config;
+
+import com.pm.patientservice.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured data source with one that sends read-only transactions to
+ * read replicas (see {@link ReplicaProperties}).
+ * <p>
+ * The primary pool is still built from {@code spring.datasource.*}; each replica pool copies
+ * its settings and overrides the URL, credentials and pool name. JPA, SQL initialization and
+ * health checks use the {@link LazyConnectionDataSourceProxy} in front of the
+ * {@link ReplicaRoutingDataSource}, so a connection is only taken, and its target chosen, at the
+ * first statement of a transaction.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "patient-service.replicas", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        var instances = properties.instances() != null ? properties.instances() : List.<ReplicaProperties.Instance>of();
+        var replicas = new ArrayList<ReplicaRoutingDataSource.Replica>(instances.size());
+        for (int i = 0; i < instances.size(); i++) {
+            var instance = instances.get(i);
+            var name = instance.name() != null ? instance.name() : "replica-" + (i + 1);
+            var config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(name);
+            config.setJdbcUrl(instance.url());
+            if (instance.username() != null) {
+                config.setUsername(instance.username());
+            }
+            if (instance.password() != null) {
+                config.setPassword(instance.password());
+            }
+            config.setReadOnly(true);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            // Start even if the replica is down; the lag check keeps it out of rotation
+            config.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, new HikariDataSource(config),
+                    instance.lagQuery() != null ? instance.lagQuery() : properties.lagQuery()));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.selection(),
+                properties.maxLag(), properties.lagCheckInterval(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
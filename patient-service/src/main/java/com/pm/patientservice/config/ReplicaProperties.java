@@ -0,0 +1,61 @@
+package com.pm.patientservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings for sending read-only transactions to read replicas.
+ * <p>
+ * Each replica gets a Hikari pool configured like the primary's
+ * ({@code spring.datasource.hikari.*}), with its own URL and credentials. A background check
+ * runs {@code lagQuery} on every replica each {@code lagCheckInterval}; a replica that is more
+ * than {@code maxLag} behind, or cannot be reached, gets no reads until it catches up. When no
+ * replica is usable, reads go to the primary.
+ *
+ * @param enabled whether read-only transactions are routed to replicas
+ * @param selection how a replica is picked among the usable ones
+ * @param maxLag replication lag beyond which a replica is skipped
+ * @param lagCheckInterval time between lag checks
+ * @param lagQuery query returning a replica's lag in seconds; blank only checks that the
+ *        replica answers. The default works for PostgreSQL streaming replicas and reports 0
+ *        while a replica has replayed everything it received
+ * @param instances the replicas
+ */
+@ConfigurationProperties(prefix = "patient-service.replicas")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("round-robin") Selection selection,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("1s") Duration lagCheckInterval,
+        @DefaultValue(POSTGRES_LAG_QUERY) String lagQuery,
+        List<Instance> instances) {
+
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE"
+            + " WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    /**
+     * How a read-only transaction picks among the usable replicas.
+     */
+    public enum Selection {
+        /** Take turns. */
+        ROUND_ROBIN,
+        /** Pick the replica whose pool has the fewest connections in use or awaited. */
+        LEAST_LOADED
+    }
+
+    /**
+     * One read replica.
+     *
+     * @param name pool and metric name; defaults to {@code replica-<n>}
+     * @param url JDBC URL
+     * @param username user name; defaults to the primary's
+     * @param password password; defaults to the primary's
+     * @param lagQuery overrides the shared {@code lagQuery} for this replica
+     */
+    public record Instance(String name, String url, String username, String password, String lagQuery) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.pm.patientservice.config;
+
+import com.pm.patientservice.datasource.ShardDirectory;
+import com.pm.patientservice.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryBuilderCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured data source with one that sends each transaction to the shard
+ * chosen by {@link com.pm.patientservice.service.PatientShards} (see {@link ShardingProperties}).
+ * <p>
+ * The directory pool is built from {@code spring.datasource.*}; each shard pool copies its
+ * settings and overrides the URL, credentials and pool name. As with read replicas, JPA uses a
+ * {@link LazyConnectionDataSourceProxy} in front of the {@link ShardRoutingDataSource}, so the
+ * shard is chosen at the first statement of a transaction. Cannot be combined with read replicas,
+ * and needs {@code spring.jpa.open-in-view=false}: a request-scoped session holds on to its first
+ * connection, which would send every later transaction of the request to the same shard.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "patient-service.sharding", name = "enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+
+    private static final String ORM_MAPPING = "META-INF/sharding-orm.xml";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource directoryDataSource(DataSourceProperties properties) {
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("directory");
+        return dataSource;
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource directoryDataSource,
+                                                         ShardingProperties properties,
+                                                         ReplicaProperties replicaProperties,
+                                                         @Value("${spring.jpa.open-in-view:true}") boolean openInView,
+                                                         MeterRegistry meterRegistry) {
+        if (replicaProperties.enabled()) {
+            throw new IllegalStateException("Sharding cannot be combined with read replicas");
+        }
+        if (openInView) {
+            throw new IllegalStateException("Sharding needs spring.jpa.open-in-view=false");
+        }
+        var configured = properties.shards() != null ? properties.shards() : List.<ShardingProperties.Shard>of();
+        if (configured.isEmpty()) {
+            throw new IllegalStateException("Sharding is enabled but no shards are configured");
+        }
+        var names = new HashSet<String>();
+        var shards = new ArrayList<ShardRoutingDataSource.Shard>(configured.size());
+        for (var shard : configured) {
+            if (shard.name() == null || !names.add(shard.name())) {
+                throw new IllegalStateException("Every shard needs a unique name, got '" + shard.name() + "'");
+            }
+            var config = new HikariConfig();
+            directoryDataSource.copyStateTo(config);
+            config.setPoolName(shard.name());
+            config.setJdbcUrl(shard.url());
+            if (shard.username() != null) {
+                config.setUsername(shard.username());
+            }
+            if (shard.password() != null) {
+                config.setPassword(shard.password());
+            }
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.add(new ShardRoutingDataSource.Shard(shard.name(), new HikariDataSource(config)));
+        }
+        if (properties.initializeSchema()) {
+            for (int i = 0; i < shards.size(); i++) {
+                shardSchema(configured.get(i).url()).execute(shards.get(i).dataSource());
+            }
+            new ResourceDatabasePopulator(new ClassPathResource("sharding/directory-schema.sql"))
+                    .execute(directoryDataSource);
+        }
+        return new ShardRoutingDataSource(directoryDataSource, shards, meterRegistry);
+    }
+
+    /**
+     * The shard tables, followed by {@code sharding/shard-schema-<platform>.sql} for the indexes
+     * each database spells differently, like Spring Boot's {@code schema-<platform>.sql}.
+     */
+    private static ResourceDatabasePopulator shardSchema(String url) {
+        var populator = new ResourceDatabasePopulator(new ClassPathResource("sharding/shard-schema.sql"));
+        var platformSchema = new ClassPathResource(
+                "sharding/shard-schema-" + DatabaseDriver.fromJdbcUrl(url).getId() + ".sql");
+        if (platformSchema.exists()) {
+            populator.addScript(platformSchema);
+        }
+        return populator;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(HikariDataSource directoryDataSource,
+                                         ShardRoutingDataSource shardRoutingDataSource,
+                                         ShardingProperties properties) {
+        var directory = new ShardDirectory(directoryDataSource, shardRoutingDataSource.shards(), properties.buckets());
+        directory.load(properties.shards().stream().mapToInt(ShardingProperties.Shard::weight).toArray());
+        return directory;
+    }
+
+    /**
+     * Fetches outbox IDs one at a time from the current shard's sequence; see the mapping file.
+     */
+    @Bean
+    public EntityManagerFactoryBuilderCustomizer shardedOutboxSequence() {
+        return builder -> builder.setPersistenceUnitPostProcessors(
+                unit -> unit.addMappingFileName(ORM_MAPPING));
+    }
+}
@@ -0,0 +1,55 @@
+package com.pm.patientservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings for spreading the patient table over several databases.
+ * <p>
+ * A patient's ID hashes to one of {@code buckets} fixed buckets, and a bucket map in the
+ * directory database ({@code spring.datasource.*}) assigns every bucket to a shard. The
+ * directory also holds the global email lookup that keeps emails unique across shards.
+ * Each shard gets a Hikari pool configured like the directory's
+ * ({@code spring.datasource.hikari.*}), with its own URL and credentials.
+ * <p>
+ * The bucket count must never change once data has been written; add capacity by adding
+ * shards and moving buckets to them with the rebalancer ({@code POST /actuator/shards}).
+ *
+ * @param enabled whether patients are sharded
+ * @param buckets number of hash buckets patient IDs are spread over
+ * @param fanOutThreads threads that query the shards in parallel for lists and searches;
+ *        0 uses one per shard
+ * @param fanOutTimeout how long a list or search waits for the slowest shard
+ * @param moveBuckets buckets moved per pass of the rebalancer; writes to them are rejected
+ *        while their pass copies rows, so smaller passes mean shorter pauses
+ * @param copyBatchSize rows read and written per batch while moving buckets
+ * @param initializeSchema whether to create the directory and shard tables at startup
+ * @param shards the shard databases, in a stable order
+ */
+@ConfigurationProperties(prefix = "patient-service.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1024") int buckets,
+        @DefaultValue("0") int fanOutThreads,
+        @DefaultValue("10s") Duration fanOutTimeout,
+        @DefaultValue("64") int moveBuckets,
+        @DefaultValue("500") int copyBatchSize,
+        @DefaultValue("true") boolean initializeSchema,
+        List<Shard> shards) {
+
+    /**
+     * One shard database.
+     *
+     * @param name pool, metric and bucket map name; must stay the same once data is written
+     * @param url JDBC URL
+     * @param username user name; defaults to the directory's
+     * @param password password; defaults to the directory's
+     * @param weight share of the buckets the rebalancer gives this shard; 0 drains it
+     */
+    public record Shard(String name, String url, String username, String password,
+                        @DefaultValue("1") int weight) {
+    }
+}
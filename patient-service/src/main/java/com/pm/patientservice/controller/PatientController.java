@@ -1,17 +1,39 @@
 package com.pm.patientservice.controller;
 
+import com.pm.patientservice.dto.BulkPatientResponseDTO;
+import com.pm.patientservice.dto.PatientBatchGetRequestDTO;
+import com.pm.patientservice.dto.PatientBatchGetResponseDTO;
+import com.pm.patientservice.dto.PatientChangesResponseDTO;
+import com.pm.patientservice.dto.PatientFuzzySearchResponseDTO;
+import com.pm.patientservice.dto.PatientPageResponseDTO;
 import com.pm.patientservice.dto.PatientRequestDTO;
 import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.dto.PatientSearchRequestDTO;
 import com.pm.patientservice.dto.validators.CreatePatientValidationGroup;
+import com.pm.patientservice.exception.PatientVersionMismatchException;
+import com.pm.patientservice.mapper.PatientJsonWriter;
+import com.pm.patientservice.model.PatientListVersion;
+import com.pm.patientservice.model.PatientSummary;
+import com.pm.patientservice.service.PatientBulkImportService;
+import com.pm.patientservice.service.PatientFuzzySearchService;
 import com.pm.patientservice.service.PatientService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.groups.Default;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.UUID;
 
 @RestController // Marking this class as a REST controller
@@ -20,34 +42,176 @@ import java.util.UUID;
 public class PatientController {
 
     private final PatientService patientService; // Injecting service for business logic
+    private final PatientBulkImportService bulkImportService; // Service for bulk creation
+    private final PatientFuzzySearchService fuzzySearchService; // Service for in-memory fuzzy search
 
     // Constructor-based dependency injection
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService,
+                             PatientBulkImportService bulkImportService,
+                             PatientFuzzySearchService fuzzySearchService) {
         this.patientService = patientService;
+        this.bulkImportService = bulkImportService;
+        this.fuzzySearchService = fuzzySearchService;
     }
 
     /**
      * Get patient by ID.
+     * Responds with an ETag (the patient's version) and Last-Modified. A conditional request
+     * (If-None-Match / If-Modified-Since) is first checked against the version alone, so an
+     * unchanged patient is answered with 304 Not Modified without loading or serializing it.
      *
      * @return PatientResponseDTO wrapped in ResponseEntity
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get patient by ID") // Swagger summary
-    public ResponseEntity<PatientResponseDTO> getPatient(@PathVariable UUID id) {
+    public ResponseEntity<PatientResponseDTO> getPatient(@PathVariable UUID id, WebRequest request) {
+        if (isConditional(request)) {
+            var version = patientService.getPatientVersion(id); // Fetching validators only
+            if (request.checkNotModified(eTag(version.version()), toMillis(version.updatedAt()))) {
+                return null; // 304 Not Modified has already been written
+            }
+        }
         var patient = patientService.getPatientById(id); // Fetching patient by ID
-        return ResponseEntity.ok().body(patient); // Returning 200 OK with a patient
+        return withValidators(ResponseEntity.ok(), patient).body(patient); // Returning 200 OK with a patient
     }
 
     /**
-     * Get all patients.
+     * Get all patients as a JSON array.
+     * The array is written incrementally while rows are read from the database,
+     * so the full patient list is never held in memory. Rows are serialized by
+     * {@link PatientJsonWriter} without an intermediate PatientResponseDTO.
+     * A weak ETag derived from the row count, latest update time and version sum lets
+     * clients revalidate the list with If-None-Match and skip the download when unchanged.
+     * The ETag costs an aggregate query, so it is only computed for conditional requests and
+     * HEAD, which returns it without the list.
      *
-     * @return List of PatientResponseDTO wrapped in ResponseEntity
+     * @return streamed JSON array of PatientResponseDTO
      */
-    @GetMapping
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get all patients") // Swagger summary
-    public ResponseEntity<List<PatientResponseDTO>> getPatients() {
-        var patients = patientService.getPatients(); // Fetching all patients
-        return ResponseEntity.ok().body(patients); // Returning 200 OK with a patient list
+    public ResponseEntity<StreamingResponseBody> getPatients(WebRequest request) {
+        if (isListNotModified(request)) {
+            return null; // 304 Not Modified has already been written
+        }
+        if (isHead(request)) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).build();
+        }
+        StreamingResponseBody body = out -> {
+            try (var writer = new PatientJsonWriter(out)) {
+                writer.writeStartArray();
+                patientService.streamPatients(patient -> writeElement(writer, patient));
+                writer.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Get all patients as newline-delimited JSON, one patient per line.
+     * Supports the same list ETag as {@link #getPatients(WebRequest)}.
+     *
+     * @return streamed NDJSON of PatientResponseDTO
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all patients as NDJSON") // Swagger summary
+    public ResponseEntity<StreamingResponseBody> streamPatients(WebRequest request) {
+        if (isListNotModified(request)) {
+            return null; // 304 Not Modified has already been written
+        }
+        if (isHead(request)) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).build();
+        }
+        StreamingResponseBody body = out -> {
+            try (var writer = new PatientJsonWriter(out)) {
+                patientService.streamPatients(patient -> writeLine(writer, patient));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Get one page of patients using keyset pagination.
+     *
+     * @param cursor continuation token from the previous page; omit for the first page
+     * @param limit maximum number of patients to return
+     * @return PatientPageResponseDTO with the patients and the next cursor
+     */
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of patients") // Swagger summary
+    public ResponseEntity<PatientPageResponseDTO> getPatientPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PatientService.DEFAULT_PAGE_SIZE) int limit) {
+        var page = patientService.getPatientPage(cursor, limit); // Fetching one page
+        return ResponseEntity.ok().body(page); // Returning 200 OK with the page
+    }
+
+    /**
+     * Search patients by name prefix, email, date of birth range and registration date range.
+     *
+     * @param criteria search filters bound from query parameters
+     * @param cursor continuation token from the previous page; omit for the first page
+     * @param limit maximum number of patients to return
+     * @return PatientPageResponseDTO with the matching patients and the next cursor
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search patients") // Swagger summary
+    public ResponseEntity<PatientPageResponseDTO> searchPatients(
+            @Validated PatientSearchRequestDTO criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PatientService.DEFAULT_PAGE_SIZE) int limit) {
+        var page = patientService.searchPatients(criteria, cursor, limit); // Searching with index-backed filters
+        return ResponseEntity.ok().body(page); // Returning 200 OK with the page
+    }
+
+    /**
+     * Fuzzy search of patient names and addresses, tolerant of typos, missing accents and
+     * word order. Answered from an in-memory trigram index; no {@code LIKE} scan is run.
+     *
+     * @param q free text to match against names and addresses
+     * @param limit maximum number of matches to return; omit for the default
+     * @return PatientFuzzySearchResponseDTO with the best matches, highest score first
+     */
+    @GetMapping("/search/fuzzy")
+    @Operation(summary = "Fuzzy search patients by name or address") // Swagger summary
+    public ResponseEntity<PatientFuzzySearchResponseDTO> fuzzySearchPatients(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        var result = fuzzySearchService.search(q, limit); // Ranking patients by trigram similarity
+        return ResponseEntity.ok().body(result); // Returning 200 OK with the ranked matches
+    }
+
+    /**
+     * Get several patients by ID in one request.
+     * Answered from the patient cache where possible and otherwise with chunked IN queries;
+     * unknown IDs are listed in {@code missingIds} instead of failing the request.
+     *
+     * @param requestDTO the IDs to look up
+     * @return PatientBatchGetResponseDTO with the patients in request order and the missing IDs
+     */
+    @PostMapping("/batch-get")
+    @Operation(summary = "Get several patients by ID") // Swagger summary
+    public ResponseEntity<PatientBatchGetResponseDTO> getPatientsByIds(
+            @Validated @RequestBody PatientBatchGetRequestDTO requestDTO) {
+        var result = patientService.getPatientsByIds(requestDTO.getIds()); // Resolving all IDs at once
+        return ResponseEntity.ok().body(result); // Returning 200 OK with found and missing patients
+    }
+
+    /**
+     * Get patient changes (creates, updates, deletes) after a feed position.
+     * Consumers start with {@code since=0} and then pass the returned {@code next} to sync
+     * incrementally instead of re-reading the full patient list.
+     *
+     * @param since last feed position already processed
+     * @param limit maximum number of changes to return
+     * @return PatientChangesResponseDTO with the changes and the position to continue from
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Get patient changes since a feed position") // Swagger summary
+    public ResponseEntity<PatientChangesResponseDTO> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "" + PatientService.DEFAULT_PAGE_SIZE) int limit) {
+        var changes = patientService.getChanges(since, limit); // Reading the published change feed
+        return ResponseEntity.ok().body(changes); // Returning 200 OK with the changes
     }
 
     /**
@@ -64,13 +228,46 @@ public class PatientController {
             @RequestBody PatientRequestDTO requestDTO) {
 
         var patient = patientService.createPatient(requestDTO); // Creating patient
-        return ResponseEntity.ok().body(patient); // Returning created patient
+        return withValidators(ResponseEntity.ok(), patient).body(patient); // Returning created patient
+    }
+
+    /**
+     * Create patients in bulk from a JSON array or newline-delimited JSON.
+     * Each row is validated like a single create; the response reports every row's outcome.
+     *
+     * @param body streamed request body
+     * @return BulkPatientResponseDTO with per-row results
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Create Patients in bulk from JSON or NDJSON")
+    public ResponseEntity<BulkPatientResponseDTO> createPatients(InputStream body) throws IOException {
+        var result = bulkImportService.importJson(body); // Importing rows in chunks
+        return ResponseEntity.ok().body(result); // Returning per-row outcomes
+    }
+
+    /**
+     * Create patients in bulk from CSV with a header row
+     * (name,email,address,dateOfBirth,registeredDate).
+     *
+     * @param body streamed request body
+     * @return BulkPatientResponseDTO with per-row results
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @Operation(summary = "Create Patients in bulk from CSV")
+    public ResponseEntity<BulkPatientResponseDTO> createPatientsFromCsv(InputStream body) throws IOException {
+        var result = bulkImportService.importCsv(body); // Importing rows in chunks
+        return ResponseEntity.ok().body(result); // Returning per-row outcomes
     }
 
     /**
      * Update an existing patient.
+     * When an If-Match header is sent, the update only applies if it names the current
+     * version of the patient; otherwise 412 Precondition Failed is returned.
      *
      * @param id Patient ID
+     * @param ifMatch optional If-Match header carrying the ETag the client last saw
      * @param requestDTO PatientRequestDTO from client
      * @return Updated PatientResponseDTO
      */
@@ -78,11 +275,12 @@ public class PatientController {
     @Operation(summary = "Update existing Patient")
     public ResponseEntity<PatientResponseDTO> updatePatient(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Validated(Default.class) // Applying default validation rules
             @RequestBody PatientRequestDTO requestDTO) {
 
-        var patient = patientService.updatePatient(id, requestDTO); // Updating patient
-        return ResponseEntity.ok().body(patient); // Returning updated patient
+        var patient = patientService.updatePatient(id, requestDTO, parseIfMatch(ifMatch)); // Updating patient
+        return withValidators(ResponseEntity.ok(), patient).body(patient); // Returning updated patient
     }
 
     /**
@@ -97,4 +295,85 @@ public class PatientController {
         patientService.deletePatient(id); // Deleting patient
         return ResponseEntity.noContent().build(); // Returning 204 No Content
     }
+
+    /**
+     * Checks the list validators against a conditional request; also sets them on the response
+     * so the next request can be conditional. Unconditional GETs skip the aggregate query and
+     * go out without validators.
+     */
+    private boolean isListNotModified(WebRequest request) {
+        if (!isConditional(request) && !isHead(request)) {
+            return false;
+        }
+        PatientListVersion version = patientService.getPatientListVersion();
+        long lastModified = toMillis(version.lastModified());
+        String eTag = "W/\"" + version.count() + "-" + lastModified + "-" + version.versionSum() + "\"";
+        return request.checkNotModified(eTag, lastModified);
+    }
+
+    private static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    private static boolean isHead(WebRequest request) {
+        return request instanceof ServletWebRequest servletRequest && servletRequest.getHttpMethod() == HttpMethod.HEAD;
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder,
+                                                             PatientResponseDTO patient) {
+        if (patient.getVersion() != null) {
+            builder.eTag(eTag(patient.getVersion()));
+        }
+        if (patient.getLastModified() != null) {
+            builder.lastModified(patient.getLastModified());
+        }
+        return builder;
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static long toMillis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : -1;
+    }
+
+    /**
+     * Extracts the expected version from an If-Match header.
+     * A missing header or {@code *} means any version; anything that is not one of our
+     * ETags can never match, so it fails the precondition. That includes weak ETags, since
+     * If-Match uses strong comparison (RFC 9110) and patients only get strong ones.
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PatientVersionMismatchException("If-Match " + ifMatch + " is a weak ETag");
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException ex) {
+            throw new PatientVersionMismatchException("If-Match " + ifMatch + " does not name a patient version");
+        }
+    }
+
+    private static void writeElement(PatientJsonWriter writer, PatientSummary patient) {
+        try {
+            writer.writeArrayElement(patient);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeLine(PatientJsonWriter writer, PatientSummary patient) {
+        try {
+            writer.writeLine(patient);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
 }
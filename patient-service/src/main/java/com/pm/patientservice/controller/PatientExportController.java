@@ -0,0 +1,86 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dto.PatientExportJobDTO;
+import com.pm.patientservice.service.PatientExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController // Marking this class as a REST controller
+@RequestMapping("/patients/exports") // Base path for all endpoints in this controller
+@Tag(name = "Patient Export APIs", description = "API for exporting all Patients to a file") // Swagger/OpenAPI tag
+public class PatientExportController {
+
+    private final PatientExportService exportService; // Injecting service for export jobs
+
+    // Constructor-based dependency injection
+    public PatientExportController(PatientExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Start an export of all patients to a gzip-compressed CSV file.
+     * The export runs in the background; poll the returned location for its status.
+     *
+     * @return the queued PatientExportJobDTO with 202 Accepted
+     */
+    @PostMapping
+    @Operation(summary = "Start a patient export") // Swagger summary
+    public ResponseEntity<PatientExportJobDTO> startExport() {
+        var job = exportService.startExport(); // Queueing the export
+        return ResponseEntity.accepted().location(URI.create("/patients/exports/" + job.getId()))
+                .body(job); // Returning 202 Accepted with the job
+    }
+
+    /**
+     * Get the status and progress of an export.
+     *
+     * @param jobId export job ID
+     * @return PatientExportJobDTO wrapped in ResponseEntity
+     */
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get patient export status") // Swagger summary
+    public ResponseEntity<PatientExportJobDTO> getExport(@PathVariable String jobId) {
+        var job = exportService.getJob(jobId); // Fetching job state
+        return ResponseEntity.ok().body(job); // Returning 200 OK with the job
+    }
+
+    /**
+     * Resume a failed export from its last checkpoint.
+     *
+     * @param jobId export job ID
+     * @return the queued PatientExportJobDTO with 202 Accepted
+     */
+    @PostMapping("/{jobId}/resume")
+    @Operation(summary = "Resume a failed patient export") // Swagger summary
+    public ResponseEntity<PatientExportJobDTO> resumeExport(@PathVariable String jobId) {
+        var job = exportService.resumeExport(jobId); // Re-queueing from the checkpoint
+        return ResponseEntity.accepted().body(job); // Returning 202 Accepted with the job
+    }
+
+    /**
+     * Download the file of a completed export. Range requests are supported,
+     * so an interrupted download can be continued.
+     *
+     * @param jobId export job ID
+     * @return the gzip-compressed CSV file
+     */
+    @GetMapping("/{jobId}/download")
+    @Operation(summary = "Download a completed patient export") // Swagger summary
+    public ResponseEntity<Resource> downloadExport(@PathVariable String jobId) {
+        var file = exportService.getExportFile(jobId); // Locating the finished file
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("patients-" + jobId + ".csv.gz").build().toString())
+                .body(new FileSystemResource(file)); // Returning 200 OK with the file
+    }
+}
@@ -0,0 +1,47 @@
+package com.pm.patientservice.datasource;
+
+/**
+ * Whether the current thread's read-only transactions must read the primary instead of a replica.
+ * <p>
+ * {@link ReplicaRoutingDataSource} reads it when a transaction takes its first connection, so it
+ * must be set before the first statement of the transaction and holds for the rest of it.
+ * Reads whose results are cached beyond the request set it: a replica up to {@code max-lag}
+ * behind could otherwise put a deleted or outdated patient back into the cache.
+ */
+public final class ReplicaContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    /**
+     * Restores the previous setting when closed.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private ReplicaContext() {
+    }
+
+    /**
+     * @return whether read-only transactions on this thread must read the primary
+     */
+    public static boolean isPrimaryRequired() {
+        return PRIMARY.get() != null;
+    }
+
+    /**
+     * Sends the read-only transactions begun inside the scope to the primary.
+     *
+     * @return a scope that restores the previous setting when closed
+     */
+    public static Scope primary() {
+        if (isPrimaryRequired()) {
+            return () -> {
+            };
+        }
+        PRIMARY.set(Boolean.TRUE);
+        return PRIMARY::remove;
+    }
+}
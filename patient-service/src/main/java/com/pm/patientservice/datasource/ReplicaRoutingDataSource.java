@@ -0,0 +1,273 @@
+package com.pm.patientservice.datasource;
+
+import com.pm.patientservice.config.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes connections for read-only transactions to a read replica and everything else to the
+ * primary.
+ * <p>
+ * The routing decision reads {@link TransactionSynchronizationManager#isCurrentTransactionReadOnly()},
+ * which is only set once the transaction has begun, so this data source must sit behind a
+ * {@link LazyConnectionDataSourceProxy} that defers fetching the connection to the first
+ * statement. {@code @Transactional(readOnly = true)} service methods and read-only
+ * {@code TransactionTemplate}s therefore read from replicas; writes, reads inside a
+ * read-write transaction, and reads under {@link ReplicaContext#primary()} stay on the primary.
+ * <p>
+ * {@link #checkReplicas()} runs on a background thread and takes replicas that lag by more than
+ * the configured maximum, or fail the check, out of rotation until they recover. Replicas
+ * start out of rotation, so reads go to the primary until the first check has passed.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    /**
+     * A read replica and the outcome of its last lag check.
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final String lagQuery;
+        private Counter routed;
+        /** Lag in seconds at the last check; NaN if the check failed. */
+        private volatile double lagSeconds = Double.NaN;
+
+        /**
+         * @param name pool and metric name
+         * @param dataSource the replica's connection pool
+         * @param lagQuery query returning the lag in seconds; blank only checks the connection
+         */
+        public Replica(String name, DataSource dataSource, String lagQuery) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.lagQuery = lagQuery;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return connections in use plus threads waiting for one, or 0 for pools that do not say
+         */
+        int load() {
+            if (dataSource instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null) {
+                var pool = hikari.getHikariPoolMXBean();
+                return pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+            }
+            return 0;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final ReplicaProperties.Selection selection;
+    private final double maxLagSeconds;
+    private final Duration lagCheckInterval;
+    private final AtomicInteger turn = new AtomicInteger();
+    private final Counter routedToPrimary;
+    private final Counter fallbacks;
+
+    /** Replicas that passed the last lag check. */
+    private volatile Replica[] usable = new Replica[0];
+    private Thread monitor;
+
+    /**
+     * @param primary the primary's connection pool
+     * @param replicas the read replicas
+     * @param selection how a replica is picked among the usable ones
+     * @param maxLag replication lag beyond which a replica is skipped
+     * @param lagCheckInterval time between lag checks; zero leaves checking to the caller
+     * @param meterRegistry registry for the routing and lag meters
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, ReplicaProperties.Selection selection,
+                                    Duration maxLag, Duration lagCheckInterval, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.maxLagSeconds = maxLag.toNanos() / 1e9;
+        this.lagCheckInterval = lagCheckInterval;
+        this.routedToPrimary = routedCounter(PRIMARY, meterRegistry);
+        this.fallbacks = Counter.builder("patient.datasource.replica.fallbacks")
+                .description("Read-only transactions sent to the primary because no replica was usable")
+                .register(meterRegistry);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (var replica : this.replicas) {
+            targets.put(replica.name, replica.dataSource);
+            replica.routed = routedCounter(replica.name, meterRegistry);
+            Gauge.builder("patient.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag at the last check (NaN when the check failed)")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    private static Counter routedCounter(String target, MeterRegistry meterRegistry) {
+        return Counter.builder("patient.datasource.connections.routed")
+                .description("Connections handed out, by the data source that served them")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        if (!lagCheckInterval.isZero() && !replicas.isEmpty()) {
+            monitor = new Thread(this::monitorLag, "patient-replica-lag-monitor");
+            monitor.setDaemon(true);
+            monitor.start();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReplicaContext.isPrimaryRequired()) {
+            routedToPrimary.increment();
+            return PRIMARY;
+        }
+        var candidates = usable;
+        if (candidates.length == 0) {
+            fallbacks.increment();
+            routedToPrimary.increment();
+            return PRIMARY;
+        }
+        int start = Math.floorMod(turn.getAndIncrement(), candidates.length);
+        var chosen = candidates[start];
+        if (selection == ReplicaProperties.Selection.LEAST_LOADED) {
+            // Start from the round-robin choice so idle replicas still take turns
+            int lowest = chosen.load();
+            for (int i = 1; i < candidates.length && lowest > 0; i++) {
+                var candidate = candidates[(start + i) % candidates.length];
+                int load = candidate.load();
+                if (load < lowest) {
+                    chosen = candidate;
+                    lowest = load;
+                }
+            }
+        }
+        chosen.routed.increment();
+        return chosen.name;
+    }
+
+    /**
+     * Measures the lag of every replica and updates which ones receive reads.
+     */
+    public void checkReplicas() {
+        var next = new ArrayList<Replica>(replicas.size());
+        for (var replica : replicas) {
+            boolean wasUsable = isUsable(replica);
+            double lag = measureLag(replica);
+            replica.lagSeconds = lag;
+            boolean nowUsable = lag <= maxLagSeconds;
+            if (nowUsable) {
+                next.add(replica);
+            }
+            if (nowUsable != wasUsable) {
+                if (nowUsable) {
+                    log.info("Replica '{}' is in rotation (lag {} s)", replica.name, lag);
+                } else if (Double.isNaN(lag)) {
+                    log.warn("Replica '{}' is out of rotation: lag check failed", replica.name);
+                } else {
+                    log.warn("Replica '{}' is out of rotation: lag {} s exceeds {} s", replica.name, lag, maxLagSeconds);
+                }
+            }
+        }
+        usable = next.toArray(Replica[]::new);
+    }
+
+    private boolean isUsable(Replica replica) {
+        for (var candidate : usable) {
+            if (candidate == replica) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double measureLag(Replica replica) {
+        try (var connection = replica.dataSource.getConnection()) {
+            if (replica.lagQuery == null || replica.lagQuery.isBlank()) {
+                return connection.isValid(timeoutSeconds()) ? 0 : Double.NaN;
+            }
+            try (var statement = connection.createStatement()) {
+                statement.setQueryTimeout(timeoutSeconds());
+                try (var result = statement.executeQuery(replica.lagQuery)) {
+                    return result.next() ? result.getDouble(1) : Double.NaN;
+                }
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.debug("Lag check of replica '{}' failed", replica.name, ex);
+            return Double.NaN;
+        }
+    }
+
+    private int timeoutSeconds() {
+        return (int) Math.max(1, lagCheckInterval.toSeconds());
+    }
+
+    private void monitorLag() {
+        while (!Thread.currentThread().isInterrupted()) {
+            checkReplicas();
+            try {
+                Thread.sleep(lagCheckInterval.toMillis());
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the replicas that currently receive reads
+     */
+    public List<String> usableReplicas() {
+        return Arrays.stream(usable).map(Replica::name).toList();
+    }
+
+    /**
+     * Stops the lag checks and closes the replica pools; the primary pool is a bean of its own.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (monitor != null) {
+            monitor.interrupt();
+            monitor = null;
+        }
+        usable = new Replica[0];
+        for (var replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    log.warn("Closing replica pool '{}' failed", replica.name, ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.pm.patientservice.datasource;
+
+/**
+ * The shard the current thread's next connection comes from.
+ * <p>
+ * {@link ShardRoutingDataSource} reads it when a transaction takes its first connection, so it
+ * must be set before the first statement of the transaction and holds for the rest of it.
+ * Without a shard set, connections go to the directory database.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return the index of the current shard, or null for the directory database
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Sets the current shard.
+     *
+     * @param shard the shard index, or null for the directory database
+     * @return the shard that was current before, to restore afterwards
+     */
+    public static Integer set(Integer shard) {
+        var previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+}
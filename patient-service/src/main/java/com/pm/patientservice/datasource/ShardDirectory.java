@@ -0,0 +1,419 @@
+package com.pm.patientservice.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongToIntFunction;
+
+/**
+ * The directory database: which shard owns each hash bucket of patient IDs, and which patient
+ * owns each email.
+ * <p>
+ * The bucket map is read once at startup and kept in memory; only the rebalancer changes it,
+ * through {@link #startMove}, {@link #finishMove} and {@link #finishCleanup}, which record each
+ * step so an interrupted move can be resumed. The email table maps an email to the patient ID
+ * rather than to a shard, so moving buckets never touches it. The change feed's position
+ * counter lives here too, so positions are unique across shards.
+ * <p>
+ * Every write runs in a transaction of its own on the directory pool, which shares the
+ * {@code spring.datasource.hikari.*} settings and may have auto-commit turned off.
+ */
+public class ShardDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardDirectory.class);
+
+    /**
+     * Reservations younger than this are never taken over, so an insert still in flight keeps
+     * its email even though its patient row is not visible yet.
+     */
+    private static final Duration ORPHAN_AGE = Duration.ofMinutes(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<ShardRoutingDataSource.Shard> shards;
+    private final int buckets;
+
+    /** Owning shard index per bucket; replaced, never modified, when buckets move. */
+    private volatile int[] owners;
+
+    /**
+     * @param directory the directory database's connection pool
+     * @param shards the shards, indexed as in {@link ShardContext}
+     * @param buckets number of hash buckets
+     */
+    public ShardDirectory(DataSource directory, List<ShardRoutingDataSource.Shard> shards, int buckets) {
+        this.jdbcTemplate = new JdbcTemplate(directory);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(directory));
+        this.shards = List.copyOf(shards);
+        this.buckets = buckets;
+    }
+
+    /**
+     * Reads the bucket map, first assigning every bucket if the map is empty.
+     *
+     * @param weights share of the buckets each shard gets in a new map
+     * @throws IllegalStateException if the map names a shard that is not configured
+     */
+    public void load(int[] weights) {
+        var names = new HashMap<String, Integer>();
+        for (int i = 0; i < shards.size(); i++) {
+            names.put(shards.get(i).name(), i);
+        }
+        var loaded = new int[buckets];
+        Arrays.fill(loaded, -1);
+        var unknown = new HashSet<String>();
+        jdbcTemplate.query("SELECT bucket, shard FROM patient_shard_bucket", row -> {
+            int bucket = row.getInt(1);
+            var shard = names.get(row.getString(2));
+            if (bucket < 0 || bucket >= buckets) {
+                throw new IllegalStateException("Bucket map has bucket " + bucket + " but "
+                        + buckets + " buckets are configured; the bucket count cannot change");
+            }
+            if (shard == null) {
+                unknown.add(row.getString(2));
+            } else {
+                loaded[bucket] = shard;
+            }
+        });
+        if (!unknown.isEmpty()) {
+            throw new IllegalStateException("Bucket map assigns buckets to shards that are not configured: " + unknown);
+        }
+        if (Arrays.stream(loaded).allMatch(owner -> owner < 0)) {
+            var assigned = balance(loaded, weights);
+            var rows = new ArrayList<Object[]>(buckets);
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                rows.add(new Object[]{bucket, shards.get(assigned[bucket]).name()});
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("INSERT INTO patient_shard_bucket (bucket, shard) VALUES (?, ?)", rows));
+            log.info("Assigned {} buckets over {} shards", buckets, shards.size());
+            owners = assigned;
+        } else if (Arrays.stream(loaded).anyMatch(owner -> owner < 0)) {
+            throw new IllegalStateException("Bucket map does not assign every one of the " + buckets + " buckets");
+        } else {
+            owners = loaded;
+        }
+    }
+
+    /**
+     * Hash bucket of a patient ID: a 64-bit mix of both halves of the UUID, so time-ordered IDs
+     * spread as evenly as random ones. The function is part of the data layout and must not
+     * change once patients are stored.
+     *
+     * @param id patient ID
+     * @param buckets number of buckets
+     * @return the bucket, in [0, buckets)
+     */
+    public static int bucketOf(UUID id, int buckets) {
+        long h = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) buckets);
+    }
+
+    /**
+     * @return the bucket of the patient ID
+     */
+    public int bucketOf(UUID id) {
+        return bucketOf(id, buckets);
+    }
+
+    /**
+     * @return the index of the shard that currently owns the patient ID
+     */
+    public int shardOf(UUID id) {
+        return owners[bucketOf(id, buckets)];
+    }
+
+    /**
+     * @return a copy of the bucket map: the owning shard index per bucket
+     */
+    public int[] owners() {
+        return owners.clone();
+    }
+
+    public List<ShardRoutingDataSource.Shard> shards() {
+        return shards;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+
+    /**
+     * Assigns buckets so that every shard owns a share proportional to its weight, moving as
+     * few buckets as possible: only unassigned buckets and the surplus of shards above their
+     * share change owner.
+     *
+     * @param owners current owner per bucket, -1 for none
+     * @param weights weight per shard; at least one must be positive
+     * @return the new owner per bucket
+     */
+    public static int[] balance(int[] owners, int[] weights) {
+        int bucketCount = owners.length;
+        long totalWeight = Arrays.stream(weights).asLongStream().sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("At least one shard needs a positive weight");
+        }
+        var quota = new int[weights.length];
+        int assigned = 0;
+        for (int i = 0; i < weights.length; i++) {
+            quota[i] = (int) (bucketCount * (long) weights[i] / totalWeight);
+            assigned += quota[i];
+        }
+        // Rounding leftovers go to the shards with weight, in order
+        for (int i = 0; assigned < bucketCount; i = (i + 1) % weights.length) {
+            if (weights[i] > 0) {
+                quota[i]++;
+                assigned++;
+            }
+        }
+
+        var result = owners.clone();
+        var count = new int[weights.length];
+        var spare = new ArrayList<Integer>();
+        // Keep the lowest-numbered buckets where they are; surplus and unassigned buckets are spare
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            int owner = result[bucket];
+            if (owner >= 0 && count[owner] < quota[owner]) {
+                count[owner]++;
+            } else {
+                spare.add(bucket);
+            }
+        }
+        int shard = 0;
+        for (int bucket : spare) {
+            while (count[shard] >= quota[shard]) {
+                shard++;
+            }
+            result[bucket] = shard;
+            count[shard]++;
+        }
+        return result;
+    }
+
+    /**
+     * Records that the rows of the given buckets are being copied to the target shard.
+     */
+    public void startMove(Collection<Integer> moving, int target) {
+        transactionTemplate.executeWithoutResult(status -> namedJdbcTemplate.update(
+                "UPDATE patient_shard_bucket SET moving_to = :target WHERE bucket IN (:buckets)",
+                Map.of("target", shards.get(target).name(), "buckets", moving)));
+    }
+
+    /**
+     * Hands the given buckets to the target shard, remembering their previous owner until
+     * {@link #finishCleanup} confirms its copies are gone.
+     */
+    public synchronized void finishMove(Collection<Integer> moved, int target) {
+        transactionTemplate.executeWithoutResult(status -> namedJdbcTemplate.update("""
+                UPDATE patient_shard_bucket
+                   SET moved_from = shard, shard = :target, moving_to = NULL
+                 WHERE bucket IN (:buckets)
+                """, Map.of("target", shards.get(target).name(), "buckets", moved)));
+        var next = owners.clone();
+        moved.forEach(bucket -> next[bucket] = target);
+        owners = next;
+    }
+
+    /**
+     * Records that the previous owners of the given buckets no longer hold their rows.
+     */
+    public void finishCleanup(Collection<Integer> cleaned) {
+        transactionTemplate.executeWithoutResult(status -> namedJdbcTemplate.update(
+                "UPDATE patient_shard_bucket SET moved_from = NULL WHERE bucket IN (:buckets)",
+                Map.of("buckets", cleaned)));
+    }
+
+    /**
+     * @return buckets whose copy to another shard was started but not finished, by target shard
+     */
+    public Map<Integer, List<Integer>> unfinishedMoves() {
+        return bucketsByShard("SELECT bucket, moving_to FROM patient_shard_bucket WHERE moving_to IS NOT NULL");
+    }
+
+    /**
+     * @return buckets whose rows may still be on their previous owner, by that shard
+     */
+    public Map<Integer, List<Integer>> unfinishedCleanups() {
+        return bucketsByShard("SELECT bucket, moved_from FROM patient_shard_bucket WHERE moved_from IS NOT NULL");
+    }
+
+    private Map<Integer, List<Integer>> bucketsByShard(String sql) {
+        var byShard = new HashMap<Integer, List<Integer>>();
+        jdbcTemplate.query(sql, row -> {
+            var name = row.getString(2);
+            for (int i = 0; i < shards.size(); i++) {
+                if (shards.get(i).name().equals(name)) {
+                    byShard.computeIfAbsent(i, shard -> new ArrayList<>()).add(row.getInt(1));
+                    return;
+                }
+            }
+            log.warn("Bucket {} refers to shard '{}', which is not configured", row.getInt(1), name);
+        });
+        return byShard;
+    }
+
+    /**
+     * Reserves an email for a patient. An email whose reservation is older than a few minutes
+     * and whose patient does not have that email (left behind by an interrupted write) is
+     * taken over.
+     *
+     * @return true if the patient now holds the email, false if another patient does
+     */
+    public boolean reserveEmail(String email, UUID patientId) {
+        try {
+            // A transaction of its own: on Postgres the failed insert would abort the takeover's
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO patient_email_directory (email, patient_id, reserved_at) VALUES (?, ?, ?)",
+                    email, patientId, OffsetDateTime.now(ZoneOffset.UTC)));
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return takeOverIfOrphaned(email, patientId);
+        }
+    }
+
+    private boolean takeOverIfOrphaned(String email, UUID patientId) {
+        var owners = jdbcTemplate.query("SELECT patient_id, reserved_at FROM patient_email_directory WHERE email = ?",
+                (row, n) -> new Reservation(row.getObject(1, UUID.class), row.getObject(2, OffsetDateTime.class)),
+                email);
+        if (owners.isEmpty()) {
+            // Released since the insert failed
+            return reserveEmail(email, patientId);
+        }
+        var owner = owners.get(0);
+        if (owner.patientId().equals(patientId)) {
+            return true;
+        }
+        if (owner.reservedAt().isAfter(OffsetDateTime.now(ZoneOffset.UTC).minus(ORPHAN_AGE))
+                || holdsEmail(owner.patientId(), email)) {
+            return false;
+        }
+        log.warn("Taking over email reservation of patient {}, which does not have that email", owner.patientId());
+        return transactionTemplate.execute(status -> jdbcTemplate.update("""
+                UPDATE patient_email_directory SET patient_id = ?, reserved_at = ?
+                 WHERE email = ? AND patient_id = ?
+                """, patientId, OffsetDateTime.now(ZoneOffset.UTC), email, owner.patientId())) == 1;
+    }
+
+    private boolean holdsEmail(UUID patientId, String email) {
+        var shard = shards.get(shardOf(patientId));
+        Integer count = new JdbcTemplate(shard.dataSource()).queryForObject(
+                "SELECT COUNT(*) FROM patient WHERE id = ? AND email = ?", Integer.class, patientId, email);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Reserves emails for several patients, in one batch when none of them is taken.
+     *
+     * @param reservations patient ID per email
+     * @return the emails that belong to other patients and were not reserved
+     */
+    public Set<String> reserveEmails(Map<String, UUID> reservations) {
+        if (reservations.isEmpty()) {
+            return Set.of();
+        }
+        var now = OffsetDateTime.now(ZoneOffset.UTC);
+        var rows = reservations.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey(), entry.getValue(), now})
+                .toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "INSERT INTO patient_email_directory (email, patient_id, reserved_at) VALUES (?, ?, ?)", rows));
+            return Set.of();
+        } catch (DataIntegrityViolationException ex) {
+            // Some email is taken; the batch rolled back, so reserve one by one
+            var rejected = new HashSet<String>();
+            reservations.forEach((email, patientId) -> {
+                if (!reserveEmail(email, patientId)) {
+                    rejected.add(email);
+                }
+            });
+            return rejected;
+        }
+    }
+
+    /**
+     * Releases an email if the patient still holds it.
+     */
+    public void releaseEmail(String email, UUID patientId) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "DELETE FROM patient_email_directory WHERE email = ? AND patient_id = ?", email, patientId));
+    }
+
+    /**
+     * Releases every email the patient holds.
+     */
+    public void releaseEmails(UUID patientId) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "DELETE FROM patient_email_directory WHERE patient_id = ?", patientId));
+    }
+
+    /**
+     * Runs a publishing step with the last feed position handed out, holding the lock on the
+     * feed counter until the step returns, then advances the counter by the positions it used.
+     * Publishers on other instances wait for the lock, so positions commit in the order they
+     * are handed out.
+     *
+     * @param publish assigns the positions after the given one and returns how many it used
+     * @return the number of positions used
+     */
+    public int publishFeed(LongToIntFunction publish) {
+        return transactionTemplate.execute(status -> {
+            Long last = jdbcTemplate.queryForObject(
+                    "SELECT last_position FROM patient_feed_counter WHERE id = 1 FOR UPDATE", Long.class);
+            int used = publish.applyAsInt(last);
+            if (used > 0) {
+                jdbcTemplate.update("UPDATE patient_feed_counter SET last_position = ? WHERE id = 1", last + used);
+            }
+            return used;
+        });
+    }
+
+    /**
+     * Raises the feed counter to at least the given position.
+     */
+    public void raiseFeedPosition(long position) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE patient_feed_counter SET last_position = GREATEST(last_position, ?) WHERE id = 1", position));
+    }
+
+    /**
+     * Returns which of the given emails are held by some patient, in a single IN query.
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT email FROM patient_email_directory WHERE email IN (:emails)",
+                Map.of("emails", emails), String.class));
+    }
+
+    private record Reservation(UUID patientId, OffsetDateTime reservedAt) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.pm.patientservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes connections to the shard named by {@link ShardContext}, or to the directory database
+ * when no shard is set.
+ * <p>
+ * Like {@link ReplicaRoutingDataSource} this must sit behind a
+ * {@link LazyConnectionDataSourceProxy}: a transaction's connection, and with it the shard, is
+ * only chosen at its first statement, so the service can begin a transaction, work out which
+ * shard a patient lives on, and then run its statements there. One transaction always stays on
+ * one shard; work spanning shards runs one transaction per shard.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRoutingDataSource.class);
+
+    private static final String DIRECTORY = "directory";
+
+    /**
+     * A shard database.
+     *
+     * @param name pool, metric and bucket map name
+     * @param dataSource the shard's connection pool
+     */
+    public record Shard(String name, DataSource dataSource) {
+    }
+
+    private final List<Shard> shards;
+    private final Counter[] routed;
+    private final Counter routedToDirectory;
+
+    /**
+     * @param directory the directory database's connection pool
+     * @param shards the shards, indexed as in {@link ShardContext}
+     * @param meterRegistry registry for the routing meters
+     */
+    public ShardRoutingDataSource(DataSource directory, List<Shard> shards, MeterRegistry meterRegistry) {
+        this.shards = List.copyOf(shards);
+        this.routed = new Counter[this.shards.size()];
+        this.routedToDirectory = routedCounter(DIRECTORY, meterRegistry);
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < this.shards.size(); i++) {
+            var shard = this.shards.get(i);
+            targets.put(i, shard.dataSource());
+            routed[i] = routedCounter(shard.name(), meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(directory);
+        setLenientFallback(false);
+    }
+
+    private static Counter routedCounter(String target, MeterRegistry meterRegistry) {
+        return Counter.builder("patient.datasource.connections.routed")
+                .description("Connections handed out, by the data source that served them")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        var shard = ShardContext.current();
+        if (shard == null) {
+            routedToDirectory.increment();
+        } else {
+            routed[shard].increment();
+        }
+        return shard;
+    }
+
+    /**
+     * @return the shards, indexed as in {@link ShardContext}
+     */
+    public List<Shard> shards() {
+        return shards;
+    }
+
+    /**
+     * Closes the shard pools; the directory pool is a bean of its own.
+     */
+    @PreDestroy
+    public void close() {
+        for (var shard : shards) {
+            if (shard.dataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    log.warn("Closing shard pool '{}' failed", shard.name(), ex);
+                }
+            }
+        }
+    }
+}
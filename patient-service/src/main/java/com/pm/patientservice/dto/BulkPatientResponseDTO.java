@@ -0,0 +1,65 @@
+package com.pm.patientservice.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) summarising a bulk patient import.
+ * Contains the number of created and failed rows plus the per-row outcomes in upload order.
+ */
+public class BulkPatientResponseDTO {
+
+    /**
+     * Number of rows that were inserted.
+     */
+    private final long created;
+
+    /**
+     * Number of rows that were rejected.
+     */
+    private final long failed;
+
+    /**
+     * Per-row outcomes in upload order.
+     */
+    private final List<BulkPatientResultDTO> results;
+
+    /**
+     * Constructs a bulk import summary.
+     *
+     * @param created number of rows that were inserted
+     * @param failed number of rows that were rejected
+     * @param results per-row outcomes in upload order
+     */
+    public BulkPatientResponseDTO(long created, long failed, List<BulkPatientResultDTO> results) {
+        this.created = created;
+        this.failed = failed;
+        this.results = results;
+    }
+
+    /**
+     * Gets the number of rows that were inserted.
+     *
+     * @return the created count
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Gets the number of rows that were rejected.
+     *
+     * @return the failed count
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Gets the per-row outcomes.
+     *
+     * @return the results in upload order
+     */
+    public List<BulkPatientResultDTO> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,107 @@
+package com.pm.patientservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) describing the outcome of a single row in a bulk patient import.
+ * Successful rows carry the generated patient ID; failed rows carry the field errors
+ * in the same shape as the single-create validation response.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkPatientResultDTO {
+
+    /**
+     * Outcome of importing a single row.
+     */
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    /**
+     * Zero-based position of the row in the uploaded payload.
+     */
+    private final long row;
+
+    /**
+     * Whether the row was created or rejected.
+     */
+    private final Status status;
+
+    /**
+     * The ID of the created patient; null for failed rows.
+     */
+    private final String id;
+
+    /**
+     * Field name to error message for failed rows; null for created rows.
+     */
+    private final Map<String, String> errors;
+
+    private BulkPatientResultDTO(long row, Status status, String id, Map<String, String> errors) {
+        this.row = row;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    /**
+     * Creates a result for a row that was inserted.
+     *
+     * @param row the zero-based row position
+     * @param id the generated patient ID
+     * @return the result
+     */
+    public static BulkPatientResultDTO created(long row, String id) {
+        return new BulkPatientResultDTO(row, Status.CREATED, id, null);
+    }
+
+    /**
+     * Creates a result for a row that was rejected.
+     *
+     * @param row the zero-based row position
+     * @param errors field name to error message
+     * @return the result
+     */
+    public static BulkPatientResultDTO failed(long row, Map<String, String> errors) {
+        return new BulkPatientResultDTO(row, Status.FAILED, null, errors);
+    }
+
+    /**
+     * Gets the zero-based row position.
+     *
+     * @return the row position
+     */
+    public long getRow() {
+        return row;
+    }
+
+    /**
+     * Gets the row outcome.
+     *
+     * @return the status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the created patient's ID.
+     *
+     * @return the ID, or null for failed rows
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the errors for a failed row.
+     *
+     * @return field name to error message, or null for created rows
+     */
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
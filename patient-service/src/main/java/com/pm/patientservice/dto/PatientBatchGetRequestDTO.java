@@ -0,0 +1,41 @@
+package com.pm.patientservice.dto;
+
+import com.pm.patientservice.service.PatientService;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) for {@code POST /patients/batch-get}: the patient IDs to resolve.
+ */
+public class PatientBatchGetRequestDTO {
+
+    /**
+     * The IDs to look up, in the order the results should be returned. Duplicates are resolved once.
+     */
+    @NotEmpty(message = "At least one ID is required")
+    @Size(max = PatientService.MAX_BATCH_GET_SIZE,
+            message = "At most " + PatientService.MAX_BATCH_GET_SIZE + " IDs can be requested at once")
+    private List<@NotNull(message = "IDs cannot be null") UUID> ids;
+
+    /**
+     * Gets the IDs to look up.
+     *
+     * @return the requested IDs
+     */
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    /**
+     * Sets the IDs to look up.
+     *
+     * @param ids the IDs to set
+     */
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,50 @@
+package com.pm.patientservice.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the result of {@code POST /patients/batch-get}.
+ * Found patients are listed in request order; IDs that do not exist are reported
+ * in {@code missingIds} rather than failing the whole request.
+ */
+public class PatientBatchGetResponseDTO {
+
+    /**
+     * The patients that were found, in the order their IDs were requested.
+     */
+    private final List<PatientResponseDTO> patients;
+
+    /**
+     * The requested IDs that do not exist, in request order.
+     */
+    private final List<String> missingIds;
+
+    /**
+     * Constructs a batch lookup result.
+     *
+     * @param patients the patients that were found
+     * @param missingIds the requested IDs that do not exist
+     */
+    public PatientBatchGetResponseDTO(List<PatientResponseDTO> patients, List<String> missingIds) {
+        this.patients = patients;
+        this.missingIds = missingIds;
+    }
+
+    /**
+     * Gets the patients that were found.
+     *
+     * @return the patients in request order
+     */
+    public List<PatientResponseDTO> getPatients() {
+        return patients;
+    }
+
+    /**
+     * Gets the requested IDs that do not exist.
+     *
+     * @return the missing IDs in request order
+     */
+    public List<String> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -0,0 +1,95 @@
+package com.pm.patientservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.pm.patientservice.model.PatientChangeType;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object (DTO) for one entry of the patient change feed and of published events.
+ * The patient is the JSON stored in the outbox at the time of the change and is passed
+ * through without being parsed again; it is omitted for deletions.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PatientChangeEventDTO {
+
+    /**
+     * Position in the change feed; pass the last one seen as {@code since} to continue.
+     */
+    private final Long position;
+
+    /**
+     * The ID of the patient that changed.
+     */
+    private final String patientId;
+
+    /**
+     * What happened to the patient.
+     */
+    private final PatientChangeType type;
+
+    /**
+     * When the change was made.
+     */
+    private final Instant occurredAt;
+
+    /**
+     * The patient after the change as raw JSON, or null for deletions.
+     */
+    @JsonRawValue
+    private final String patient;
+
+    /**
+     * Constructs a change event.
+     *
+     * @param position the feed position, or null if not yet assigned
+     * @param patientId the ID of the patient that changed
+     * @param type what happened to the patient
+     * @param occurredAt when the change was made
+     * @param patient the patient as JSON, or null for deletions
+     */
+    public PatientChangeEventDTO(Long position, String patientId, PatientChangeType type,
+                                 Instant occurredAt, String patient) {
+        this.position = position;
+        this.patientId = patientId;
+        this.type = type;
+        this.occurredAt = occurredAt;
+        this.patient = patient;
+    }
+
+    /**
+     * @return the feed position
+     */
+    public Long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the ID of the patient that changed
+     */
+    public String getPatientId() {
+        return patientId;
+    }
+
+    /**
+     * @return what happened to the patient
+     */
+    public PatientChangeType getType() {
+        return type;
+    }
+
+    /**
+     * @return when the change was made
+     */
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    /**
+     * @return the patient as raw JSON, or null for deletions
+     */
+    public String getPatient() {
+        return patient;
+    }
+}
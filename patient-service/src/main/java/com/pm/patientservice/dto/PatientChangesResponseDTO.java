@@ -0,0 +1,50 @@
+package com.pm.patientservice.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for one page of the patient change feed.
+ * Pass {@code next} back as the {@code since} parameter to receive the following changes;
+ * when no changes are returned it equals the {@code since} that was sent.
+ */
+public class PatientChangesResponseDTO {
+
+    /**
+     * The changes on this page, in feed order.
+     */
+    private final List<PatientChangeEventDTO> changes;
+
+    /**
+     * The position to resume from.
+     */
+    private final long next;
+
+    /**
+     * Constructs a page of the change feed.
+     *
+     * @param changes the changes on this page
+     * @param next the position to resume from
+     */
+    public PatientChangesResponseDTO(List<PatientChangeEventDTO> changes, long next) {
+        this.changes = changes;
+        this.next = next;
+    }
+
+    /**
+     * Gets the changes on this page.
+     *
+     * @return the changes in feed order
+     */
+    public List<PatientChangeEventDTO> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Gets the position to resume from.
+     *
+     * @return the last position on this page, or the requested one if the page is empty
+     */
+    public long getNext() {
+        return next;
+    }
+}
@@ -0,0 +1,178 @@
+package com.pm.patientservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object (DTO) describing a patient export job.
+ * It is returned by the export endpoints and also stored next to the export file as its
+ * checkpoint: {@code lastExportedId} and {@code fileSize} describe the last fully written
+ * part of the file, which is where a resumed export continues.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PatientExportJobDTO {
+
+    /**
+     * Lifecycle of an export job.
+     */
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String id;
+    private Status status;
+    private long rowsExported;
+    private String lastExportedId;
+    private long fileSize;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    /**
+     * Gets the job ID.
+     *
+     * @return the job ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the job ID.
+     *
+     * @param id the job ID to set
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the job status.
+     *
+     * @return the job status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the job status.
+     *
+     * @param status the status to set
+     */
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the number of rows written up to the last checkpoint.
+     *
+     * @return the rows exported
+     */
+    public long getRowsExported() {
+        return rowsExported;
+    }
+
+    /**
+     * Sets the number of rows written up to the last checkpoint.
+     *
+     * @param rowsExported the rows exported to set
+     */
+    public void setRowsExported(long rowsExported) {
+        this.rowsExported = rowsExported;
+    }
+
+    /**
+     * Gets the ID of the last patient written before the last checkpoint.
+     *
+     * @return the last exported patient ID, or null if nothing has been checkpointed
+     */
+    public String getLastExportedId() {
+        return lastExportedId;
+    }
+
+    /**
+     * Sets the ID of the last patient written before the last checkpoint.
+     *
+     * @param lastExportedId the last exported patient ID to set
+     */
+    public void setLastExportedId(String lastExportedId) {
+        this.lastExportedId = lastExportedId;
+    }
+
+    /**
+     * Gets the size in bytes of the export file at the last checkpoint.
+     *
+     * @return the checkpointed file size
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Sets the size in bytes of the export file at the last checkpoint.
+     *
+     * @param fileSize the checkpointed file size to set
+     */
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    /**
+     * Gets when the job was started.
+     *
+     * @return the start time
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Sets when the job was started.
+     *
+     * @param startedAt the start time to set
+     */
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Gets when the job completed or failed.
+     *
+     * @return the finish time, or null while the job is queued or running
+     */
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Sets when the job completed or failed.
+     *
+     * @param finishedAt the finish time to set
+     */
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * Gets the reason the job failed.
+     *
+     * @return the error message, or null if the job has not failed
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Sets the reason the job failed.
+     *
+     * @param error the error message to set
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,46 @@
+package com.pm.patientservice.dto;
+
+/**
+ * Data Transfer Object (DTO) for one result of {@code GET /patients/search/fuzzy}.
+ */
+public class PatientFuzzyMatchDTO {
+
+    /**
+     * The matching patient.
+     */
+    private final PatientResponseDTO patient;
+
+    /**
+     * Trigram similarity between the query and the patient's name or address, in (0, 1].
+     */
+    private final double score;
+
+    /**
+     * Constructs a fuzzy search result.
+     *
+     * @param patient the matching patient
+     * @param score the similarity score
+     */
+    public PatientFuzzyMatchDTO(PatientResponseDTO patient, double score) {
+        this.patient = patient;
+        this.score = score;
+    }
+
+    /**
+     * Gets the matching patient.
+     *
+     * @return the patient
+     */
+    public PatientResponseDTO getPatient() {
+        return patient;
+    }
+
+    /**
+     * Gets the similarity score.
+     *
+     * @return the score; 1 means every trigram matched
+     */
+    public double getScore() {
+        return score;
+    }
+}
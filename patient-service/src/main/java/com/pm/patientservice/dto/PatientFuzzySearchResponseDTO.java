@@ -0,0 +1,50 @@
+package com.pm.patientservice.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the result of {@code GET /patients/search/fuzzy}.
+ * Matches are ordered by descending score. While the search index is still being loaded
+ * after startup, {@code complete} is false and older patients may be missing.
+ */
+public class PatientFuzzySearchResponseDTO {
+
+    /**
+     * The best matches, highest score first.
+     */
+    private final List<PatientFuzzyMatchDTO> matches;
+
+    /**
+     * Whether every patient was searched.
+     */
+    private final boolean complete;
+
+    /**
+     * Constructs a fuzzy search result.
+     *
+     * @param matches the best matches
+     * @param complete whether the search index was fully loaded
+     */
+    public PatientFuzzySearchResponseDTO(List<PatientFuzzyMatchDTO> matches, boolean complete) {
+        this.matches = matches;
+        this.complete = complete;
+    }
+
+    /**
+     * Gets the best matches.
+     *
+     * @return the matches, highest score first
+     */
+    public List<PatientFuzzyMatchDTO> getMatches() {
+        return matches;
+    }
+
+    /**
+     * Gets whether every patient was searched.
+     *
+     * @return false while the search index is still loading
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,68 @@
+package com.pm.patientservice.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a single page of patients returned by keyset pagination.
+ * The {@code nextCursor} is an opaque token to pass back as the {@code cursor} parameter
+ * to fetch the following page; it is null when there are no more patients.
+ */
+public class PatientPageResponseDTO {
+
+    /**
+     * The patients on this page, in (registeredDate, id) order.
+     */
+    private List<PatientResponseDTO> patients;
+
+    /**
+     * The continuation token for the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Constructs a page with the given patients and continuation token.
+     *
+     * @param patients the patients on this page
+     * @param nextCursor the continuation token, or null if this is the last page
+     */
+    public PatientPageResponseDTO(List<PatientResponseDTO> patients, String nextCursor) {
+        this.patients = patients;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the patients on this page.
+     *
+     * @return the patients on this page
+     */
+    public List<PatientResponseDTO> getPatients() {
+        return patients;
+    }
+
+    /**
+     * Sets the patients on this page.
+     *
+     * @param patients the patients to set
+     */
+    public void setPatients(List<PatientResponseDTO> patients) {
+        this.patients = patients;
+    }
+
+    /**
+     * Gets the continuation token for the next page.
+     *
+     * @return the next cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sets the continuation token for the next page.
+     *
+     * @param nextCursor the next cursor to set
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
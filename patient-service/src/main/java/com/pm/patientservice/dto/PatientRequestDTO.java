@@ -30,9 +30,10 @@ public class PatientRequestDTO {
     private String email;
 
     /**
-     * The patient's residential address. Must not be blank.
+     * The patient's residential address. Must not be blank and cannot exceed 255 characters.
      */
     @NotBlank(message = "Address is required")
+    @Size(max = 255, message = "Address cannot exceed 255 characters")
     private String address;
 
     /**
@@ -1,11 +1,23 @@
 package com.pm.patientservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
 /**
  * Data Transfer Object (DTO) for sending patient data to the client in API responses.
  * This class represents a simplified view of a patient, excluding sensitive or internal
  * fields like registered date, to be used in responses to client requests.
+ * It is serializable so it can be held by out-of-process cache backends.
+ * The version and last modification time travel with the DTO (including through the cache)
+ * for the ETag and Last-Modified headers, but are not part of the JSON body.
  */
-public class PatientResponseDTO {
+public class PatientResponseDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     /**
      * The unique identifier of the patient, represented as a string (converted from UUID).
@@ -32,6 +44,18 @@ public class PatientResponseDTO {
      */
     private String dateOfBirth;
 
+    /**
+     * The optimistic-locking version, sent as the ETag header.
+     */
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * When the patient was last inserted or updated, sent as the Last-Modified header.
+     */
+    @JsonIgnore
+    private Instant lastModified;
+
     /**
      * Gets the patient's unique identifier.
      *
@@ -121,4 +145,40 @@ public class PatientResponseDTO {
     public void setDateOfBirth(String dateOfBirth) {
         this.dateOfBirth = dateOfBirth;
     }
+
+    /**
+     * Gets the optimistic-locking version.
+     *
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the optimistic-locking version.
+     *
+     * @param version the version to set
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Gets when the patient was last inserted or updated.
+     *
+     * @return the last modification time
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Sets when the patient was last inserted or updated.
+     *
+     * @param lastModified the last modification time to set
+     */
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
 }
@@ -0,0 +1,157 @@
+package com.pm.patientservice.dto;
+
+import jakarta.validation.constraints.Size;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) holding the filters for {@code GET /patients/search}.
+ * Every filter is optional; the ones supplied are combined with AND. Date ranges are inclusive
+ * and use the ISO format (e.g., "yyyy-MM-dd").
+ */
+public class PatientSearchRequestDTO {
+
+    /**
+     * Case-sensitive prefix of the patient's name, matched with an index range scan.
+     */
+    @Size(max = 100, message = "Name cannot exceed 100 characters")
+    private String name;
+
+    /**
+     * Exact email address.
+     */
+    private String email;
+
+    /**
+     * Earliest date of birth to include.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateOfBirthFrom;
+
+    /**
+     * Latest date of birth to include.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateOfBirthTo;
+
+    /**
+     * Earliest registration date to include.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate registeredDateFrom;
+
+    /**
+     * Latest registration date to include.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate registeredDateTo;
+
+    /**
+     * Gets the name prefix.
+     *
+     * @return the name prefix
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name prefix.
+     *
+     * @param name the name prefix to set
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the email address.
+     *
+     * @return the email
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Sets the email address.
+     *
+     * @param email the email to set
+     */
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    /**
+     * Gets the earliest date of birth to include.
+     *
+     * @return the lower date of birth bound
+     */
+    public LocalDate getDateOfBirthFrom() {
+        return dateOfBirthFrom;
+    }
+
+    /**
+     * Sets the earliest date of birth to include.
+     *
+     * @param dateOfBirthFrom the lower date of birth bound to set
+     */
+    public void setDateOfBirthFrom(LocalDate dateOfBirthFrom) {
+        this.dateOfBirthFrom = dateOfBirthFrom;
+    }
+
+    /**
+     * Gets the latest date of birth to include.
+     *
+     * @return the upper date of birth bound
+     */
+    public LocalDate getDateOfBirthTo() {
+        return dateOfBirthTo;
+    }
+
+    /**
+     * Sets the latest date of birth to include.
+     *
+     * @param dateOfBirthTo the upper date of birth bound to set
+     */
+    public void setDateOfBirthTo(LocalDate dateOfBirthTo) {
+        this.dateOfBirthTo = dateOfBirthTo;
+    }
+
+    /**
+     * Gets the earliest registration date to include.
+     *
+     * @return the lower registration date bound
+     */
+    public LocalDate getRegisteredDateFrom() {
+        return registeredDateFrom;
+    }
+
+    /**
+     * Sets the earliest registration date to include.
+     *
+     * @param registeredDateFrom the lower registration date bound to set
+     */
+    public void setRegisteredDateFrom(LocalDate registeredDateFrom) {
+        this.registeredDateFrom = registeredDateFrom;
+    }
+
+    /**
+     * Gets the latest registration date to include.
+     *
+     * @return the upper registration date bound
+     */
+    public LocalDate getRegisteredDateTo() {
+        return registeredDateTo;
+    }
+
+    /**
+     * Sets the latest registration date to include.
+     *
+     * @param registeredDateTo the upper registration date bound to set
+     */
+    public void setRegisteredDateTo(LocalDate registeredDateTo) {
+        this.registeredDateTo = registeredDateTo;
+    }
+}
@@ -0,0 +1,41 @@
+package com.pm.patientservice.exception;
+
+import com.pm.patientservice.model.Patient;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Helper for recognising violations of the unique constraint on patient.email.
+ * <p>
+ * Writes rely on the database constraint instead of a prior lookup, so a duplicate
+ * email surfaces as a {@link DataIntegrityViolationException} that has to be told
+ * apart from other integrity failures.
+ */
+public final class EmailConstraintViolations {
+
+    private EmailConstraintViolations() {
+    }
+
+    /**
+     * Checks whether the given exception was caused by the patient email unique constraint.
+     *
+     * @param ex the exception raised by the insert or update
+     * @return true if the email is already used by another patient
+     */
+    public static boolean isEmailConflict(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                // Older schemas may carry a driver-generated constraint name, so fall back to the column
+                var name = violation.getConstraintName() != null
+                        ? violation.getConstraintName()
+                        : String.valueOf(violation.getMessage());
+                var normalized = name.toLowerCase(Locale.ROOT);
+                return normalized.contains(Patient.EMAIL_CONSTRAINT) || normalized.contains("email");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,20 @@
+package com.pm.patientservice.exception;
+
+/**
+ * Custom exception thrown when an export cannot be started because the export
+ * executor is already running and queueing as many jobs as it allows.
+ * <p>
+ * This is an unchecked exception (extends RuntimeException),
+ * so it does not require explicit try-catch blocks.
+ */
+public class ExportCapacityException extends RuntimeException {
+
+    /**
+     * Constructs a new ExportCapacityException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public ExportCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.pm.patientservice.exception;
+
+/**
+ * Custom exception thrown when an export job with the given ID does not exist.
+ * <p>
+ * This is an unchecked exception (extends RuntimeException),
+ * so it does not require explicit try-catch blocks. It reports a client error, so it
+ * skips stack trace capture.
+ */
+public class ExportJobNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new ExportJobNotFoundException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public ExportJobNotFoundException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,20 @@
+package com.pm.patientservice.exception;
+
+/**
+ * Custom exception thrown when an export job is not in a state that allows the
+ * requested operation (e.g., downloading an unfinished export or resuming a completed one).
+ * <p>
+ * This is an unchecked exception (extends RuntimeException),
+ * so it does not require explicit try-catch blocks.
+ */
+public class ExportJobStateException extends RuntimeException {
+
+    /**
+     * Constructs a new ExportJobStateException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public ExportJobStateException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,10 @@
 package com.pm.patientservice.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -16,12 +19,33 @@ import java.util.Map;
  * <p>
  * This class uses @ControllerAdvice to intercept exceptions thrown by controllers
  * and provide meaningful HTTP responses to the client.
+ * <p>
+ * Fixed error messages are shared immutable bodies rather than a new map per response.
+ * Unknown patient IDs and malformed cursors are routine client errors that the access log
+ * already records, so they are only logged at debug level.
  */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private static final Map<String, String> EMAIL_ALREADY_EXISTS = message("Email address already exists.");
+    private static final Map<String, String> CONFLICT = message("Request conflicts with existing data.");
+    private static final Map<String, String> PATIENT_NOT_FOUND = message("Patient not found.");
+    private static final Map<String, String> INVALID_CURSOR = message("Invalid pagination cursor.");
+    private static final Map<String, String> VERSION_MISMATCH = message("Patient has been modified since it was read.");
+    private static final Map<String, String> CONCURRENT_UPDATE = message("Patient was modified concurrently, please retry.");
+    private static final Map<String, String> EXPORT_JOB_NOT_FOUND = message("Export job not found.");
+    private static final Map<String, String> EXPORT_CAPACITY = message("Too many exports in progress, please retry later.");
+    private static final Map<String, String> SHARD_MOVING = message("Patient is being moved between shards, please retry.");
+
+    private final MeterRegistry meterRegistry;
+
+    // Constructor-based dependency injection
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     /**
      * Handles validation errors thrown when @Valid or @Validated fails.
      *
@@ -30,6 +54,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        countError(ex, HttpStatus.BAD_REQUEST);
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getFieldErrors()
                 .forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
@@ -44,10 +69,29 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(EmailAlreadyExistsException.class)
     public ResponseEntity<Map<String, String>> handleEmailAlreadyExists(EmailAlreadyExistsException ex) {
+        countError(ex, HttpStatus.BAD_REQUEST);
         log.warn("Email Already Exists: {}", ex.getMessage());
-        Map<String, String> errors = new HashMap<>();
-        errors.put("message", "Email address already exists.");
-        return ResponseEntity.badRequest().body(errors);
+        return emailAlreadyExists();
+    }
+
+    /**
+     * Handles DataIntegrityViolationException raised by inserts and updates.
+     * A violation of the unique email constraint gets the same response as
+     * {@link EmailAlreadyExistsException}; anything else is a 409 (Conflict).
+     *
+     * @param ex the DataIntegrityViolationException translated by Spring Data
+     * @return a ResponseEntity with an error message and HTTP status 400 or 409
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (EmailConstraintViolations.isEmailConflict(ex)) {
+            countError(ex, HttpStatus.BAD_REQUEST);
+            log.warn("Email Already Exists: {}", ex.getMostSpecificCause().getMessage());
+            return emailAlreadyExists();
+        }
+        countError(ex, HttpStatus.CONFLICT);
+        log.error("Data integrity violation", ex);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(CONFLICT);
     }
 
     /**
@@ -58,10 +102,117 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(PatientNotFoundException.class)
     public ResponseEntity<Map<String, String>> handlePatientNotFound(PatientNotFoundException ex) {
-        log.warn("Patient not found: {}", ex.getMessage());
-        Map<String, String> errors = new HashMap<>();
-        errors.put("message", "Patient not found.");
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errors);
+        countError(ex, HttpStatus.NOT_FOUND);
+        log.debug("Patient not found: {}", ex.getPatientId());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(PATIENT_NOT_FOUND);
+    }
+
+    /**
+     * Handles InvalidCursorException when a client sends a pagination cursor that cannot be decoded.
+     *
+     * @param ex the InvalidCursorException
+     * @return a ResponseEntity with an error message and HTTP status 400 (Bad Request)
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursor(InvalidCursorException ex) {
+        countError(ex, HttpStatus.BAD_REQUEST);
+        log.debug("Invalid cursor: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(INVALID_CURSOR);
+    }
+
+    /**
+     * Handles PatientVersionMismatchException when an If-Match header names a stale version.
+     *
+     * @param ex the PatientVersionMismatchException
+     * @return a ResponseEntity with an error message and HTTP status 412 (Precondition Failed)
+     */
+    @ExceptionHandler(PatientVersionMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleVersionMismatch(PatientVersionMismatchException ex) {
+        countError(ex, HttpStatus.PRECONDITION_FAILED);
+        log.warn("Patient version mismatch: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(VERSION_MISMATCH);
+    }
+
+    /**
+     * Handles OptimisticLockingFailureException when another request updated the same
+     * patient between this request's read and write.
+     *
+     * @param ex the OptimisticLockingFailureException
+     * @return a ResponseEntity with an error message and HTTP status 409 (Conflict)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        countError(ex, HttpStatus.CONFLICT);
+        log.warn("Concurrent patient update: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(CONCURRENT_UPDATE);
     }
-}
 
+    /**
+     * Handles ExportJobNotFoundException when an export job ID is unknown.
+     *
+     * @param ex the ExportJobNotFoundException
+     * @return a ResponseEntity with an error message and HTTP status 404 (Not Found)
+     */
+    @ExceptionHandler(ExportJobNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleExportJobNotFound(ExportJobNotFoundException ex) {
+        countError(ex, HttpStatus.NOT_FOUND);
+        log.warn("Export job not found: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(EXPORT_JOB_NOT_FOUND);
+    }
+
+    /**
+     * Handles ExportJobStateException when an export job cannot be downloaded or resumed yet.
+     *
+     * @param ex the ExportJobStateException
+     * @return a ResponseEntity with an error message and HTTP status 409 (Conflict)
+     */
+    @ExceptionHandler(ExportJobStateException.class)
+    public ResponseEntity<Map<String, String>> handleExportJobState(ExportJobStateException ex) {
+        countError(ex, HttpStatus.CONFLICT);
+        log.warn("Export job state conflict: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(message(ex.getMessage()));
+    }
+
+    /**
+     * Handles ExportCapacityException when the export executor is full.
+     *
+     * @param ex the ExportCapacityException
+     * @return a ResponseEntity with an error message and HTTP status 503 (Service Unavailable)
+     */
+    @ExceptionHandler(ExportCapacityException.class)
+    public ResponseEntity<Map<String, String>> handleExportCapacity(ExportCapacityException ex) {
+        countError(ex, HttpStatus.SERVICE_UNAVAILABLE);
+        log.warn("Export rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "60").body(EXPORT_CAPACITY);
+    }
+
+    /**
+     * Handles ShardMovingException when a write hits a shard bucket that is being moved.
+     *
+     * @param ex the ShardMovingException
+     * @return a ResponseEntity with an error message and HTTP status 503 (Service Unavailable)
+     */
+    @ExceptionHandler(ShardMovingException.class)
+    public ResponseEntity<Map<String, String>> handleShardMoving(ShardMovingException ex) {
+        countError(ex, HttpStatus.SERVICE_UNAVAILABLE);
+        log.debug("Write rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(SHARD_MOVING);
+    }
+
+    /**
+     * Increments the {@code patient.errors} counter, tagged by exception type and response status.
+     */
+    private void countError(Exception ex, HttpStatus status) {
+        meterRegistry.counter("patient.errors",
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
+
+    private ResponseEntity<Map<String, String>> emailAlreadyExists() {
+        return ResponseEntity.badRequest().body(EMAIL_ALREADY_EXISTS);
+    }
+
+    private static Map<String, String> message(String message) {
+        return Map.of("message", message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.pm.patientservice.exception;
+
+/**
+ * Custom exception thrown when a pagination cursor sent by the client
+ * cannot be decoded (e.g., it was truncated or hand-crafted).
+ * <p>
+ * This is an unchecked exception (extends RuntimeException),
+ * so it does not require explicit try-catch blocks. It reports a client error, so it
+ * skips stack trace capture.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidCursorException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public InvalidCursorException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,20 +1,40 @@
 package com.pm.patientservice.exception;
 
+import java.util.UUID;
+
 /**
  * Custom exception thrown when a requested Patient entity
  * is not found in the system (e.g., by ID).
  * <p>
  * This is an unchecked exception (extends RuntimeException),
  * so it does not require explicit try-catch blocks.
+ * <p>
+ * Lookups of unknown IDs are routine (and frequent under scanner traffic), so the exception
+ * skips stack trace capture and only builds its message when it is asked for.
  */
 public class PatientNotFoundException extends RuntimeException {
 
+    private final UUID patientId;
+
     /**
-     * Constructs a new PatientNotFoundException with the specified detail message.
+     * Constructs a new PatientNotFoundException for the given patient ID.
      *
-     * @param message the detail message explaining the reason for the exception
+     * @param patientId the ID that did not match any patient
      */
-    public PatientNotFoundException(String message) {
-        super(message);
+    public PatientNotFoundException(UUID patientId) {
+        super(null, null, false, false);
+        this.patientId = patientId;
+    }
+
+    /**
+     * @return the ID that did not match any patient
+     */
+    public UUID getPatientId() {
+        return patientId;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Patient not found with ID: " + patientId;
     }
 }
@@ -0,0 +1,21 @@
+package com.pm.patientservice.exception;
+
+/**
+ * Custom exception thrown when a conditional update (If-Match) names a version
+ * of the patient that is no longer current.
+ * <p>
+ * This is an unchecked exception (extends RuntimeException),
+ * so it does not require explicit try-catch blocks. It reports a client error, so it
+ * skips stack trace capture.
+ */
+public class PatientVersionMismatchException extends RuntimeException {
+
+    /**
+     * Constructs a new PatientVersionMismatchException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public PatientVersionMismatchException(String message) {
+        super(message, null, false, false);
+    }
+}
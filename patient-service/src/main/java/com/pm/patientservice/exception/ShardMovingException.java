@@ -0,0 +1,21 @@
+package com.pm.patientservice.exception;
+
+/**
+ * Custom exception thrown when a write targets a patient whose shard bucket is being
+ * moved to another shard by the rebalancer.
+ * <p>
+ * This is an unchecked exception (extends RuntimeException),
+ * so it does not require explicit try-catch blocks. The client is asked to retry
+ * shortly, so it skips stack trace capture.
+ */
+public class ShardMovingException extends RuntimeException {
+
+    /**
+     * Constructs a new ShardMovingException with the specified detail message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public ShardMovingException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,103 @@
+package com.pm.patientservice.filter;
+
+import com.pm.patientservice.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permits for {@link ConcurrencyLimitFilter}, either fixed or adjusted with AIMD
+ * (see {@link ConcurrencyLimitProperties.Adaptive}).
+ * <p>
+ * The limit is applied by growing or shrinking a fair semaphore, so waiting requests are
+ * still served in order. Shrinking below the number of requests in flight simply stops new
+ * admissions until enough of them finish.
+ */
+final class ConcurrencyLimit {
+
+    private final ResizableSemaphore permits;
+    private final ConcurrencyLimitProperties.Adaptive adaptive;
+    private final long latencyThresholdNanos;
+    private int limit;
+
+    ConcurrencyLimit(ConcurrencyLimitProperties properties) {
+        this.adaptive = properties.adaptive();
+        this.limit = adaptive.enabled()
+                ? Math.min(Math.max(properties.maxConcurrentRequests(), adaptive.minConcurrentRequests()),
+                adaptive.maxConcurrentRequests())
+                : properties.maxConcurrentRequests();
+        this.permits = new ResizableSemaphore(limit);
+        this.latencyThresholdNanos = adaptive.latencyThreshold().toNanos();
+    }
+
+    /**
+     * @param maxWaitNanos how long to wait for a permit; zero does not wait
+     * @return true if a permit was acquired
+     */
+    boolean tryAcquire(long maxWaitNanos) throws InterruptedException {
+        return maxWaitNanos > 0
+                ? permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)
+                : permits.tryAcquire();
+    }
+
+    /**
+     * Returns a permit and, in adaptive mode, feeds the request's outcome into the limit.
+     *
+     * @param latencyNanos how long the request held the permit
+     * @param failed whether the request failed with a server error
+     * @param sample whether the request's latency should steer the limit
+     */
+    void release(long latencyNanos, boolean failed, boolean sample) {
+        // Adjust first, so the finishing request still counts as in flight
+        if (adaptive.enabled() && (sample || failed)) {
+            adjust(latencyNanos, failed);
+        }
+        permits.release();
+    }
+
+    /**
+     * @return the current limit
+     */
+    synchronized int limit() {
+        return limit;
+    }
+
+    /**
+     * @return the number of requests holding a permit
+     */
+    synchronized int inFlight() {
+        return Math.max(0, limit - permits.availablePermits());
+    }
+
+    private synchronized void adjust(long latencyNanos, boolean failed) {
+        int newLimit;
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            newLimit = Math.max(adaptive.minConcurrentRequests(), (int) (limit * adaptive.backoffRatio()));
+        } else if (inFlight() * 2 >= limit) {
+            newLimit = Math.min(adaptive.maxConcurrentRequests(), limit + 1);
+        } else {
+            return;
+        }
+        if (newLimit > limit) {
+            permits.release(newLimit - limit);
+        } else if (newLimit < limit) {
+            permits.reducePermits(limit - newLimit);
+        }
+        limit = newLimit;
+    }
+
+    /**
+     * Fair semaphore whose permit count can be lowered while permits are held.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
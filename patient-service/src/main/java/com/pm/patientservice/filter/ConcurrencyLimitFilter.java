@@ -0,0 +1,135 @@
+package com.pm.patientservice.filter;
+
+import com.pm.patientservice.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounds the number of patient requests executing at once.
+ * <p>
+ * Requests wait up to {@code maxWait} for a permit and are otherwise answered with
+ * 503 (Service Unavailable) and a Retry-After header. Streamed responses keep their
+ * permit until the asynchronous write completes, since they hold a connection throughout.
+ * With {@code adaptive.enabled} the number of permits follows observed latency
+ * (see {@link ConcurrencyLimit}); rejections are counted as {@code patient.requests.shed}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "patient-service.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private static final String BUSY_BODY = "{\"message\":\"Service is busy, please retry.\"}";
+
+    private final ConcurrencyLimit limit;
+    private final long maxWaitNanos;
+    private final MeterRegistry meterRegistry;
+
+    // Constructor-based dependency injection
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.limit = new ConcurrencyLimit(properties);
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("patient.concurrency.limit", limit, ConcurrencyLimit::limit)
+                .description("Patient requests admitted at once")
+                .register(meterRegistry);
+        Gauge.builder("patient.concurrency.in_flight", limit, ConcurrencyLimit::inFlight)
+                .description("Patient requests currently holding a permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/patients");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var endpoint = PatientEndpoint.classify(request.getMethod(), request.getRequestURI());
+        if (!acquire()) {
+            log.debug("Rejected {} {}: concurrency limit reached", request.getMethod(), request.getRequestURI());
+            meterRegistry.counter("patient.requests.shed",
+                    "reason", "concurrency_limit",
+                    "endpoint", endpoint.tag()).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(BUSY_BODY);
+            return;
+        }
+        long start = System.nanoTime();
+        var released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limit.release(System.nanoTime() - start,
+                        response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                        endpoint.latencySensitive());
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return limit.tryAcquire(maxWaitNanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the permit once an asynchronous (streamed) response finishes.
+     */
+    private record ReleasingAsyncListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // The same async context is reused; the permit is released on its completion
+        }
+    }
+}
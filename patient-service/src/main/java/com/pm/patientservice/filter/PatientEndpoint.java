@@ -0,0 +1,87 @@
+package com.pm.patientservice.filter;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.Locale;
+
+/**
+ * Groups the patient endpoints by how much work they cause, for rate limiting and
+ * load shedding.
+ * <p>
+ * Each group has a default cost in rate-limit tokens (see
+ * {@code patient-service.rate-limit.costs}); a full-table list or an export costs as much
+ * as a hundred single-patient reads.
+ */
+public enum PatientEndpoint {
+
+    /** {@code GET /patients}: the full table as JSON or NDJSON. */
+    LIST(100, false),
+    /** Starting, resuming or downloading an export. */
+    EXPORT(100, false),
+    /** {@code POST /patients/bulk}. */
+    BULK(50, false),
+    /** {@code POST /patients/batch-get}. */
+    BATCH_GET(10, true),
+    /** Paged reads and searches: {@code /patients/page}, {@code /patients/search[/fuzzy]}, {@code /patients/changes}. */
+    QUERY(5, true),
+    /** Single-patient create, update and delete. */
+    WRITE(2, true),
+    /** {@code GET /patients/{id}}, export status and anything else. */
+    READ(1, true);
+
+    private final int defaultCost;
+    private final boolean latencySensitive;
+
+    PatientEndpoint(int defaultCost, boolean latencySensitive) {
+        this.defaultCost = defaultCost;
+        this.latencySensitive = latencySensitive;
+    }
+
+    /**
+     * @return the cost in rate-limit tokens unless configured otherwise
+     */
+    public int defaultCost() {
+        return defaultCost;
+    }
+
+    /**
+     * Whether the request's latency reflects how loaded the service is. Lists, exports and
+     * bulk imports take long by design, so they do not steer the adaptive concurrency limit.
+     *
+     * @return true if latency samples of this endpoint are meaningful
+     */
+    public boolean latencySensitive() {
+        return latencySensitive;
+    }
+
+    /**
+     * @return the lower-case name used as a metric tag
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Classifies a request below {@code /patients}.
+     *
+     * @param method the HTTP method
+     * @param uri the request URI, starting with {@code /patients}
+     * @return the endpoint group
+     */
+    public static PatientEndpoint classify(String method, String uri) {
+        boolean read = HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+        String path = uri.substring(Math.min(uri.length(), "/patients".length()));
+        if (path.isEmpty() || path.equals("/")) {
+            return read ? LIST : WRITE;
+        }
+        if (path.startsWith("/exports")) {
+            return read && !path.endsWith("/download") ? READ : EXPORT;
+        }
+        return switch (path) {
+            case "/bulk" -> BULK;
+            case "/batch-get" -> BATCH_GET;
+            case "/page", "/search", "/search/fuzzy", "/changes" -> QUERY;
+            default -> read ? READ : WRITE;
+        };
+    }
+}
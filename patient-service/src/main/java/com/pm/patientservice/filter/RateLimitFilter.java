@@ -0,0 +1,110 @@
+package com.pm.patientservice.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pm.patientservice.config.RateLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token-bucket rate limiting for the patient endpoints.
+ * <p>
+ * Runs before {@link ConcurrencyLimitFilter}, so a client over its budget is answered with
+ * 429 (Too Many Requests) and a Retry-After header without taking a concurrency permit or
+ * touching the database. Requests are weighted by {@link PatientEndpoint} cost.
+ * <p>
+ * Buckets live in a bounded Caffeine cache and are dropped once idle for as long as a full
+ * refill takes; by then they would be full anyway, so eviction never grants extra tokens.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(prefix = "patient-service.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String LIMITED_BODY = "{\"message\":\"Too many requests, please retry later.\"}";
+
+    /**
+     * Longest client ID kept as a bucket key, so a client cannot grow the cache keys at will.
+     */
+    private static final int MAX_CLIENT_ID_LENGTH = 128;
+
+    private final RateLimitProperties properties;
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    // Constructor-based dependency injection
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        var fullRefill = Duration.ofNanos((long) Math.ceil(
+                properties.capacity() * 1_000_000_000d / properties.refillPerSecond()));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(fullRefill.compareTo(Duration.ofSeconds(1)) > 0 ? fullRefill : Duration.ofSeconds(1))
+                .build();
+        Gauge.builder("patient.rate_limit.clients", buckets, Cache::estimatedSize)
+                .description("Clients with a rate-limit bucket in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/patients");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var endpoint = PatientEndpoint.classify(request.getMethod(), request.getRequestURI());
+        var clientId = clientId(request);
+        long now = System.nanoTime();
+        var bucket = buckets.get(clientId,
+                id -> new TokenBucket(properties.capacity(), properties.refillPerSecond(), now));
+        long waitNanos = bucket.tryConsume(properties.cost(endpoint), now);
+        if (waitNanos > 0) {
+            log.debug("Rate limited {} {} for client {}", request.getMethod(), request.getRequestURI(), clientId);
+            meterRegistry.counter("patient.requests.shed",
+                    "reason", "rate_limit",
+                    "endpoint", endpoint.tag()).increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(LIMITED_BODY);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String clientId(HttpServletRequest request) {
+        var header = properties.clientHeader();
+        if (header != null && !header.isBlank()) {
+            var value = request.getHeader(header);
+            if (value != null && !value.isBlank()) {
+                value = value.strip();
+                return "id:" + (value.length() > MAX_CLIENT_ID_LENGTH ? value.substring(0, MAX_CLIENT_ID_LENGTH) : value);
+            }
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+}
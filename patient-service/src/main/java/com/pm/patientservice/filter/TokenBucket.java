@@ -0,0 +1,40 @@
+package com.pm.patientservice.filter;
+
+/**
+ * Token bucket refilled continuously at a fixed rate, used by {@link RateLimitFilter}.
+ * Time is passed in by the caller so the arithmetic can be tested without sleeping.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(int capacity, int refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Takes {@code cost} tokens if the bucket holds that many.
+     *
+     * @param cost tokens to take
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they would be available
+     */
+    synchronized long tryConsume(int cost, long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+        if (tokens >= cost) {
+            tokens -= cost;
+            return 0;
+        }
+        return (long) Math.ceil((cost - tokens) / tokensPerNano);
+    }
+}
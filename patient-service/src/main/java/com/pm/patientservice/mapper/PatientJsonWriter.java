@@ -0,0 +1,294 @@
+package com.pm.patientservice.mapper;
+
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.model.PatientSummary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Writes {@link PatientSummary} rows as {@link PatientResponseDTO} JSON straight to an output stream.
+ * <p>
+ * Used by the list endpoints in place of {@link PatientMapper} + Jackson: field names are
+ * pre-encoded, IDs and dates are formatted digit by digit into one reused buffer, and no
+ * intermediate DTO or String is created per row. The output is byte-for-byte what Jackson
+ * writes for the mapped DTO with the default ObjectMapper settings.
+ * <p>
+ * Instances are not thread-safe; use one per response.
+ */
+public final class PatientJsonWriter implements Closeable {
+
+    static final int BUFFER_SIZE = 8192;
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] NAME = ascii(",\"name\":");
+    private static final byte[] EMAIL = ascii(",\"email\":");
+    private static final byte[] ADDRESS = ascii(",\"address\":");
+    private static final byte[] DATE_OF_BIRTH = ascii(",\"dateOfBirth\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+    private static final byte[] HEX_UPPER = ascii("0123456789ABCDEF");
+
+    /**
+     * Short escapes Jackson uses for control characters; 0 means a six-character unicode escape.
+     */
+    private static final byte[] CONTROL_ESCAPES = new byte[0x20];
+
+    static {
+        CONTROL_ESCAPES['\b'] = 'b';
+        CONTROL_ESCAPES['\t'] = 't';
+        CONTROL_ESCAPES['\n'] = 'n';
+        CONTROL_ESCAPES['\f'] = 'f';
+        CONTROL_ESCAPES['\r'] = 'r';
+    }
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private boolean firstElement = true;
+
+    /**
+     * @param out the stream to write to; closed by {@link #close()}
+     */
+    public PatientJsonWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Opens a JSON array; follow with {@link #writeArrayElement} and {@link #writeEndArray}.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeStartArray() throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = '[';
+        firstElement = true;
+    }
+
+    /**
+     * Writes one patient as the next element of the open array.
+     *
+     * @param patient the patient row
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeArrayElement(PatientSummary patient) throws IOException {
+        if (!firstElement) {
+            ensureCapacity(1);
+            buffer[position++] = ',';
+        }
+        firstElement = false;
+        writePatient(patient);
+    }
+
+    /**
+     * Closes the JSON array.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeEndArray() throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = ']';
+    }
+
+    /**
+     * Writes one patient followed by a newline, for newline-delimited JSON.
+     *
+     * @param patient the patient row
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeLine(PatientSummary patient) throws IOException {
+        writePatient(patient);
+        ensureCapacity(1);
+        buffer[position++] = '\n';
+    }
+
+    /**
+     * Writes one patient as a JSON object.
+     *
+     * @param patient the patient row
+     * @throws IOException if the stream cannot be written
+     */
+    public void writePatient(PatientSummary patient) throws IOException {
+        writeRaw(ID);
+        writeUuid(patient.id());
+        writeRaw(NAME);
+        writeString(patient.name());
+        writeRaw(EMAIL);
+        writeString(patient.email());
+        writeRaw(ADDRESS);
+        writeString(patient.address());
+        writeRaw(DATE_OF_BIRTH);
+        writeDate(patient.dateOfBirth());
+        ensureCapacity(1);
+        buffer[position++] = '}';
+    }
+
+    /**
+     * Writes buffered bytes to the stream and flushes it.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (out) {
+            flushBuffer();
+        }
+    }
+
+    private void writeUuid(UUID id) throws IOException {
+        if (id == null) {
+            writeRaw(NULL);
+            return;
+        }
+        ensureCapacity(38);
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        buffer[position++] = '"';
+        writeHex(msb >>> 32, 8);
+        buffer[position++] = '-';
+        writeHex(msb >>> 16, 4);
+        buffer[position++] = '-';
+        writeHex(msb, 4);
+        buffer[position++] = '-';
+        writeHex(lsb >>> 48, 4);
+        buffer[position++] = '-';
+        writeHex(lsb, 12);
+        buffer[position++] = '"';
+    }
+
+    private void writeHex(long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[position + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        position += digits;
+    }
+
+    private void writeDate(LocalDate date) throws IOException {
+        if (date == null) {
+            writeRaw(NULL);
+            return;
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            // LocalDate.toString() adds a sign outside 0000-9999; rare enough to allocate
+            writeString(date.toString());
+            return;
+        }
+        ensureCapacity(12);
+        buffer[position++] = '"';
+        writeDigits(year, 4);
+        buffer[position++] = '-';
+        writeDigits(date.getMonthValue(), 2);
+        buffer[position++] = '-';
+        writeDigits(date.getDayOfMonth(), 2);
+        buffer[position++] = '"';
+    }
+
+    private void writeDigits(int value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[position + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    /**
+     * Writes a quoted, escaped JSON string encoded as UTF-8, escaping exactly what
+     * Jackson escapes: quote, backslash, control characters and surrogates.
+     */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeRaw(NULL);
+            return;
+        }
+        ensureCapacity(1);
+        buffer[position++] = '"';
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            // Each char takes at most 6 bytes (an escape), so this many always fit
+            int end = Math.min(length, i + (BUFFER_SIZE - position) / 6);
+            if (end == i) {
+                flushBuffer();
+                continue;
+            }
+            for (; i < end; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c < 0x20) {
+                        writeControlEscape(c);
+                    } else if (c == '"' || c == '\\') {
+                        buffer[position++] = '\\';
+                        buffer[position++] = (byte) c;
+                    } else {
+                        buffer[position++] = (byte) c;
+                    }
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // Jackson escapes surrogates (paired or not) unless COMBINE_UNICODE_SURROGATES_IN_UTF8 is on
+                    writeUnicodeEscape(c);
+                } else {
+                    buffer[position++] = (byte) (0xE0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+        ensureCapacity(1);
+        buffer[position++] = '"';
+    }
+
+    private void writeControlEscape(char c) {
+        byte shortEscape = CONTROL_ESCAPES[c];
+        if (shortEscape != 0) {
+            buffer[position++] = '\\';
+            buffer[position++] = shortEscape;
+        } else {
+            writeUnicodeEscape(c);
+        }
+    }
+
+    private void writeUnicodeEscape(char c) {
+        buffer[position++] = '\\';
+        buffer[position++] = 'u';
+        buffer[position++] = HEX_UPPER[c >> 12];
+        buffer[position++] = HEX_UPPER[(c >> 8) & 0xF];
+        buffer[position++] = HEX_UPPER[(c >> 4) & 0xF];
+        buffer[position++] = HEX_UPPER[c & 0xF];
+    }
+
+    private void writeRaw(byte[] bytes) throws IOException {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (position + length > BUFFER_SIZE) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
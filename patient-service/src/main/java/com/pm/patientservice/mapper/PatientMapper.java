@@ -1,8 +1,11 @@
 package com.pm.patientservice.mapper;
 
+import com.pm.patientservice.dto.PatientChangeEventDTO;
 import com.pm.patientservice.dto.PatientRequestDTO;
 import com.pm.patientservice.dto.PatientResponseDTO;
 import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.model.PatientOutboxEvent;
+import com.pm.patientservice.model.PatientSummary;
 
 import java.time.LocalDate;
 
@@ -29,6 +32,27 @@ public class PatientMapper {
         responseDTO.setEmail(patient.getEmail());
         responseDTO.setAddress(patient.getAddress());
         responseDTO.setDateOfBirth(patient.getDateOfBirth().toString());
+        responseDTO.setVersion(patient.getVersion());
+        responseDTO.setLastModified(patient.getUpdatedAt());
+        return responseDTO;
+    }
+
+    /**
+     * Converts a {@link PatientSummary} projection to a {@link PatientResponseDTO}.
+     * Used by the read paths, which select projections instead of managed entities.
+     *
+     * @param patient the PatientSummary projection to convert
+     * @return a PatientResponseDTO containing the mapped patient data
+     */
+    public static PatientResponseDTO toPatientResponseDTO(PatientSummary patient) {
+        var responseDTO = new PatientResponseDTO();
+        responseDTO.setId(patient.id().toString());
+        responseDTO.setName(patient.name());
+        responseDTO.setEmail(patient.email());
+        responseDTO.setAddress(patient.address());
+        responseDTO.setDateOfBirth(patient.dateOfBirth().toString());
+        responseDTO.setVersion(patient.version());
+        responseDTO.setLastModified(patient.updatedAt());
         return responseDTO;
     }
 
@@ -50,4 +74,20 @@ public class PatientMapper {
         patient.setRegisteredDate(LocalDate.parse(requestDTO.getRegisteredDate()));
         return patient;
     }
+
+    /**
+     * Converts a {@link PatientOutboxEvent} to a {@link PatientChangeEventDTO}.
+     * The stored patient JSON is passed through as-is.
+     *
+     * @param event the outbox event to convert
+     * @return a PatientChangeEventDTO for the change feed and event sinks
+     */
+    public static PatientChangeEventDTO toPatientChangeEventDTO(PatientOutboxEvent event) {
+        return new PatientChangeEventDTO(
+                event.getFeedPosition(),
+                event.getPatientId().toString(),
+                event.getType(),
+                event.getOccurredAt(),
+                event.getPayload());
+    }
 }
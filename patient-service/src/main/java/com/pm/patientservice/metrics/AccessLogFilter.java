@@ -0,0 +1,70 @@
+package com.pm.patientservice.metrics;
+
+import com.pm.patientservice.config.AccessLogProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traces every patient request and hands slow and sampled ones to the {@link AccessLogWriter}.
+ * <p>
+ * Runs first, so requests rejected by the rate or concurrency limiter are logged too. A
+ * request's duration ends when its first dispatch returns: for streamed responses that is
+ * when streaming starts.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "patient-service.access-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLogWriter writer;
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+
+    // Constructor-based dependency injection
+    public AccessLogFilter(AccessLogWriter writer, AccessLogProperties properties) {
+        this.writer = writer;
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+        this.sampleRate = properties.sampleRate();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/patients");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        var trace = RequestTrace.current();
+        trace.start(start);
+        StatementCountingInspector.reset();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            long end = System.nanoTime();
+            trace.finish();
+            boolean slow = end - start >= slowThresholdNanos;
+            if (slow || sampled()) {
+                // An exception escaping the chain becomes a 500 once the container handles it
+                writer.record(request, completed ? response.getStatus() : 500, trace, end, slow);
+            }
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1 || sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
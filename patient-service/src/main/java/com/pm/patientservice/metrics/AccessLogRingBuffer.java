@@ -0,0 +1,122 @@
+package com.pm.patientservice.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer queue of preallocated access log entries.
+ * <p>
+ * Request threads {@link #claim} a sequence number, fill in the entry for it and
+ * {@link #publish} it; the writer thread {@link #drain}s published entries in sequence
+ * order. Entries are reused, so a request costs no allocation. When the writer falls a whole
+ * buffer behind, claims fail instead of blocking and the caller drops the entry.
+ */
+final class AccessLogRingBuffer {
+
+    /**
+     * One access log line, overwritten each time its slot comes round again.
+     */
+    static final class Entry {
+        String method;
+        String uri;
+        String client;
+        int status;
+        int statements;
+        boolean slow;
+        long totalNanos;
+        long controllerNanos;
+        long serviceNanos;
+        long repositoryNanos;
+        long writeNanos;
+
+        /** Sequence number of the request that last published this entry. */
+        private volatile long published = -1;
+    }
+
+    private final Entry[] entries;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    /** Next sequence to drain; written by the consumer only. */
+    private volatile long consumed;
+
+    /**
+     * @param capacity number of entries, rounded up to a power of two
+     */
+    AccessLogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.entries = new Entry[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            entries[i] = new Entry();
+        }
+    }
+
+    /**
+     * Reserves the next entry.
+     *
+     * @return its sequence number, or -1 if every entry is still waiting to be drained
+     */
+    long claim() {
+        while (true) {
+            long next = claimed.get();
+            if (next - consumed >= entries.length) {
+                return -1;
+            }
+            if (claimed.compareAndSet(next, next + 1)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * @param sequence a claimed sequence number
+     * @return the entry to fill in for it
+     */
+    Entry entry(long sequence) {
+        return entries[(int) sequence & mask];
+    }
+
+    /**
+     * Hands a filled-in entry to the consumer.
+     *
+     * @param sequence the claimed sequence number
+     */
+    void publish(long sequence) {
+        entry(sequence).published = sequence;
+    }
+
+    /**
+     * Passes the published entries to the consumer in sequence order, stopping at the first
+     * entry that is claimed but not yet published. Only one thread may drain.
+     *
+     * @param consumer receives each entry; it must not keep a reference to it
+     * @return the number of entries drained
+     */
+    int drain(Consumer<Entry> consumer) {
+        long next = consumed;
+        int drained = 0;
+        while (true) {
+            var entry = entry(next);
+            if (entry.published != next) {
+                return drained;
+            }
+            consumer.accept(entry);
+            consumed = ++next;
+            drained++;
+        }
+    }
+
+    /**
+     * @return entries claimed but not yet drained
+     */
+    long backlog() {
+        return claimed.get() - consumed;
+    }
+
+    /**
+     * @return the number of entries
+     */
+    int capacity() {
+        return entries.length;
+    }
+}
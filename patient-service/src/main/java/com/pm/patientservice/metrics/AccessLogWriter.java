@@ -0,0 +1,175 @@
+package com.pm.patientservice.metrics;
+
+import com.pm.patientservice.config.AccessLogProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Writes the access log asynchronously: request threads copy their request's outcome into an
+ * {@link AccessLogRingBuffer} entry, and a background thread formats and logs the entries.
+ * <p>
+ * Lines go to the {@code com.pm.patientservice.access} logger in logfmt ({@code key=value})
+ * form, e.g. {@code method=GET uri=/patients/... status=404 duration_ms=0.412 controller_ms=0.215
+ * service_ms=0.198 repository_ms=0.161 write_ms=0.090 statements=1 client=10.0.0.7 slow=false};
+ * slow requests at WARN level, the rest at INFO. Query strings are left out, as they can carry
+ * patient names and emails.
+ */
+@Component
+@ConditionalOnProperty(prefix = "patient-service.access-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger("com.pm.patientservice.access");
+
+    /** How long the writer sleeps when the buffer is empty. */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /** Longest URI written; scanners send very long ones. */
+    private static final int MAX_URI_LENGTH = 512;
+
+    private final AccessLogRingBuffer buffer;
+    private final Counter dropped;
+    /** Reused by the writer thread for every line. */
+    private final StringBuilder line = new StringBuilder(256);
+    private final Consumer<AccessLogRingBuffer.Entry> writeEntry = this::write;
+
+    private volatile boolean running = true;
+    private Thread writer;
+
+    // Constructor-based dependency injection
+    public AccessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry) {
+        this.buffer = new AccessLogRingBuffer(properties.bufferSize());
+        this.dropped = Counter.builder("patient.access_log.dropped")
+                .description("Access log lines dropped because the writer fell a whole buffer behind")
+                .register(meterRegistry);
+        Gauge.builder("patient.access_log.backlog", buffer, AccessLogRingBuffer::backlog)
+                .description("Access log lines waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(this::run, "patient-access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer thread and writes what is left in the buffer.
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+            if (writer.isAlive()) {
+                return; // still busy; draining here too would break the single-consumer contract
+            }
+        }
+        buffer.drain(writeEntry);
+    }
+
+    /**
+     * Queues a line for a finished request, or drops it if the buffer is full.
+     *
+     * @param request the request
+     * @param status the response status
+     * @param trace the request's finished trace
+     * @param endNanos {@link System#nanoTime()} when the request finished
+     * @param slow whether the request exceeded the slow threshold
+     */
+    void record(HttpServletRequest request, int status, RequestTrace trace, long endNanos, boolean slow) {
+        long sequence = buffer.claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+        var entry = buffer.entry(sequence);
+        entry.method = request.getMethod();
+        entry.uri = request.getRequestURI();
+        entry.client = request.getRemoteAddr();
+        entry.status = status;
+        entry.statements = StatementCountingInspector.current();
+        entry.slow = slow;
+        entry.totalNanos = endNanos - trace.startNanos();
+        entry.controllerNanos = trace.phaseNanos(RequestTrace.Phase.CONTROLLER);
+        entry.serviceNanos = trace.phaseNanos(RequestTrace.Phase.SERVICE);
+        entry.repositoryNanos = trace.phaseNanos(RequestTrace.Phase.REPOSITORY);
+        entry.writeNanos = trace.writeNanos(endNanos);
+        buffer.publish(sequence);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (buffer.drain(writeEntry) == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException ex) {
+                log.error("Writing the access log failed", ex);
+            }
+        }
+    }
+
+    private void write(AccessLogRingBuffer.Entry entry) {
+        if (entry.slow ? !log.isWarnEnabled() : !log.isInfoEnabled()) {
+            return;
+        }
+        line.setLength(0);
+        line.append("method=").append(entry.method).append(" uri=");
+        if (entry.uri.length() > MAX_URI_LENGTH) {
+            line.append(entry.uri, 0, MAX_URI_LENGTH).append("...");
+        } else {
+            line.append(entry.uri);
+        }
+        line.append(" status=").append(entry.status);
+        appendMillis(" duration_ms=", entry.totalNanos);
+        appendMillis(" controller_ms=", entry.controllerNanos);
+        appendMillis(" service_ms=", entry.serviceNanos);
+        appendMillis(" repository_ms=", entry.repositoryNanos);
+        appendMillis(" write_ms=", entry.writeNanos);
+        line.append(" statements=").append(entry.statements)
+                .append(" client=").append(entry.client)
+                .append(" slow=").append(entry.slow);
+        if (entry.slow) {
+            log.warn("{}", line);
+        } else {
+            log.info("{}", line);
+        }
+    }
+
+    /**
+     * Appends nanoseconds as milliseconds with three decimals, without going through String.format.
+     */
+    private void appendMillis(String key, long nanos) {
+        long micros = Math.max(nanos, 0) / 1_000;
+        long fraction = micros % 1_000;
+        line.append(key).append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            line.append('0');
+        }
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+}
@@ -0,0 +1,95 @@
+package com.pm.patientservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@code PatientService} method and every {@code PatientRepository} query.
+ * <p>
+ * Publishes {@code patient.service} and {@code patient.repository} timers tagged with the
+ * method name and the exception thrown ("none" on success). Comparing the two with
+ * {@code http.server.requests} separates database time from mapping and serialization.
+ * Repository methods returning a {@code Stream} are timed until the cursor is opened only.
+ * <p>
+ * The same calls, and every controller method, also add to the current {@link RequestTrace}
+ * for the access log's per-phase timings.
+ * <p>
+ * The success timer of each method is registered once and kept, so a call costs no builder or
+ * registry lookup; timers for calls that throw are looked up per call.
+ */
+@Aspect
+@Component
+public class PatientMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> serviceTimers = new ConcurrentHashMap<>();
+    private final Map<Method, Timer> repositoryTimers = new ConcurrentHashMap<>();
+
+    // Constructor-based dependency injection
+    public PatientMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.pm.patientservice.controller..*(..))")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        var trace = RequestTrace.current();
+        long enteredAt = trace.enter(RequestTrace.Phase.CONTROLLER);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            trace.exit(RequestTrace.Phase.CONTROLLER, enteredAt);
+        }
+    }
+
+    @Around("execution(public * com.pm.patientservice.service.PatientService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("patient.service", serviceTimers, RequestTrace.Phase.SERVICE, joinPoint);
+    }
+
+    @Around("execution(public * *(..)) && target(com.pm.patientservice.repository.PatientRepository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("patient.repository", repositoryTimers, RequestTrace.Phase.REPOSITORY, joinPoint);
+    }
+
+    private Object time(String name, Map<Method, Timer> timers, RequestTrace.Phase phase,
+                        ProceedingJoinPoint joinPoint) throws Throwable {
+        var clock = meterRegistry.config().clock();
+        long start = clock.monotonicTime();
+        var trace = RequestTrace.current();
+        long enteredAt = trace.enter(phase);
+        try {
+            var result = joinPoint.proceed();
+            var method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            var timer = timers.get(method);
+            if (timer == null) {
+                // Only the first call registers; computeIfAbsent's capturing lambda would allocate every time
+                timer = timers.computeIfAbsent(method, m -> timer(name, m.getName(), "none"));
+            }
+            timer.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            timer(name, joinPoint.getSignature().getName(), ex.getClass().getSimpleName())
+                    .record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        } finally {
+            trace.exit(phase, enteredAt);
+        }
+    }
+
+    private Timer timer(String name, String method, String exception) {
+        return Timer.builder(name)
+                .tag("method", method)
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,118 @@
+package com.pm.patientservice.metrics;
+
+/**
+ * Per-thread timing of the phases of the request being handled: controller, service,
+ * repository and response body writing.
+ * <p>
+ * {@link AccessLogFilter} starts and finishes the trace around each patient request;
+ * {@link PatientMetricsAspect} and {@link ResponseWriteTimingAdvice} add to it. Each thread
+ * reuses one instance, so tracing allocates nothing per request. Phase times are inclusive
+ * (controller time contains service time, which contains repository time), and calls nested
+ * within the same phase are counted once. Work done on other threads, e.g. streamed responses,
+ * is not traced.
+ */
+public final class RequestTrace {
+
+    /**
+     * A layer of request handling timed by the trace.
+     */
+    public enum Phase {
+        CONTROLLER, SERVICE, REPOSITORY
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTrace> CURRENT = ThreadLocal.withInitial(RequestTrace::new);
+
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final int[] depth = new int[PHASES.length];
+    private boolean active;
+    private long startNanos;
+    private long writeStartNanos;
+
+    private RequestTrace() {
+    }
+
+    /**
+     * @return the trace of the current thread, active only while a request is being traced
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts tracing a request on this thread, discarding the previous request's timings.
+     *
+     * @param startNanos {@link System#nanoTime()} when the request arrived
+     */
+    void start(long startNanos) {
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseNanos[i] = 0;
+            depth[i] = 0;
+        }
+        this.startNanos = startNanos;
+        this.writeStartNanos = 0;
+        this.active = true;
+    }
+
+    /**
+     * Stops tracing; the timings stay readable until the next {@link #start}.
+     */
+    void finish() {
+        active = false;
+    }
+
+    /**
+     * Marks entry into a phase.
+     *
+     * @param phase the phase entered
+     * @return the entry time, to pass to {@link #exit}
+     */
+    long enter(Phase phase) {
+        depth[phase.ordinal()]++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks exit from a phase, adding the time spent to the trace unless the call was nested
+     * in another call of the same phase.
+     *
+     * @param phase the phase left
+     * @param enteredAt the value {@link #enter} returned
+     */
+    void exit(Phase phase, long enteredAt) {
+        int i = phase.ordinal();
+        if (--depth[i] == 0 && active) {
+            phaseNanos[i] += System.nanoTime() - enteredAt;
+        }
+    }
+
+    /**
+     * Marks the start of response body serialization; later marks (e.g. an error body
+     * written after a failed attempt) replace earlier ones.
+     */
+    void markWriteStart() {
+        if (active) {
+            writeStartNanos = System.nanoTime();
+        }
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    long phaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * @param endNanos {@link System#nanoTime()} when the request finished
+     * @return nanoseconds spent writing the response body, or 0 if no body was written by a controller
+     */
+    long writeNanos(long endNanos) {
+        return writeStartNanos != 0 ? endNanos - writeStartNanos : 0;
+    }
+}
@@ -0,0 +1,71 @@
+package com.pm.patientservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the number of Hibernate statements each request executed as the
+ * {@code hibernate.statements.per.request} distribution, tagged by method and URI pattern.
+ * Statements run by streamed responses on the async thread are not included.
+ * <p>
+ * Each method and URI pattern's summary is registered once and kept, as in
+ * {@link PatientMetricsAspect}, so a request costs no builder or registry lookup.
+ */
+@Component
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    // By method, then URI pattern, so a lookup needs no composite key
+    private final Map<String, Map<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    // Constructor-based dependency injection
+    public StatementCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/patients");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCountingInspector.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            summary(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN")
+                    .record(StatementCountingInspector.current());
+        }
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        var byUri = summaries.get(method);
+        if (byUri == null) {
+            byUri = summaries.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+        }
+        var summary = byUri.get(uri);
+        if (summary == null) {
+            // Only the first request registers; computeIfAbsent's capturing lambda would allocate every time
+            summary = byUri.computeIfAbsent(uri, u -> DistributionSummary.builder("hibernate.statements.per.request")
+                    .baseUnit("statements")
+                    .tag("method", method)
+                    .tag("uri", u)
+                    .register(meterRegistry));
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,34 @@
+package com.pm.patientservice.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that counts the SQL statements prepared on the current thread.
+ * {@link StatementCountFilter} resets the count at the start of each request and records it at the end.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Resets the count for the current thread.
+     */
+    static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * Gets the number of statements prepared on the current thread since the last reset.
+     *
+     * @return the statement count
+     */
+    static int current() {
+        return COUNT.get()[0];
+    }
+}
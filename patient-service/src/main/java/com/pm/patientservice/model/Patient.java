@@ -3,7 +3,9 @@ package com.pm.patientservice.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -12,15 +14,36 @@ import java.util.UUID;
  * This class is used to persist patient data using JPA (Java Persistence API).
  * It includes fields for the patient's unique ID, name, email, address, date of birth,
  * and registration date, with validation constraints to ensure data integrity.
+ * Instances are kept in the Hibernate second-level cache, so lookups by ID (e.g. the read
+ * before an update) are usually answered without a query.
  */
 @Entity
+@Cacheable
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = Patient.EMAIL_CONSTRAINT, columnNames = "email")
+}, indexes = {
+        // Keyset pagination and streaming order
+        @Index(name = "idx_patient_registered_date_id", columnList = "registered_date, id"),
+        // Name prefix and date of birth filters of GET /patients/search; on Postgres the name
+        // index needs varchar_pattern_ops to serve LIKE 'prefix%' (see data.sql)
+        @Index(name = "idx_patient_name", columnList = "name"),
+        @Index(name = "idx_patient_date_of_birth", columnList = "date_of_birth")
+})
 public class Patient {
 
     /**
-     * The unique identifier for the patient, automatically generated as a UUID.
+     * Name of the unique constraint on the email column.
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_patient_email";
+
+    /**
+     * The unique identifier for the patient, generated in memory as a time-ordered UUID when
+     * the entity is persisted, so inserts (including batched ones) need no extra round trip
+     * and append to the primary key index rather than landing on random pages. An ID set
+     * beforehand is kept, which is how sharded inserts know their shard up front.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedId
     private UUID id;
 
     /**
@@ -34,7 +57,6 @@ public class Patient {
      */
     @NotNull
     @Email
-    @Column(unique = true)
     private String email;
 
     /**
@@ -55,6 +77,18 @@ public class Patient {
     @NotNull
     private LocalDate registeredDate;
 
+    /**
+     * Optimistic-locking version, incremented on every update. Exposed to clients as the ETag.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * When the patient was last inserted or updated. Exposed to clients as Last-Modified.
+     */
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     /**
      * Gets the patient's unique identifier.
      *
@@ -162,4 +196,40 @@ public class Patient {
     public void setRegisteredDate(LocalDate registeredDate) {
         this.registeredDate = registeredDate;
     }
+
+    /**
+     * Gets the optimistic-locking version.
+     *
+     * @return the version, or null before the patient is first persisted
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the optimistic-locking version.
+     *
+     * @param version the version to set
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Gets when the patient was last inserted or updated.
+     *
+     * @return the last modification time
+     */
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Sets when the patient was last inserted or updated.
+     *
+     * @param updatedAt the last modification time to set
+     */
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
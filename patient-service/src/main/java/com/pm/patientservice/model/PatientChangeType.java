@@ -0,0 +1,10 @@
+package com.pm.patientservice.model;
+
+/**
+ * Kind of change recorded in the patient outbox.
+ */
+public enum PatientChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,14 @@
+package com.pm.patientservice.model;
+
+import java.time.Instant;
+
+/**
+ * Aggregate validators of the full patient list. Any insert, update or delete changes at
+ * least one component, so together they identify the current list contents.
+ *
+ * @param count number of patients
+ * @param lastModified latest modification time across all patients, or null if there are none
+ * @param versionSum sum of all patient versions
+ */
+public record PatientListVersion(Long count, Instant lastModified, Long versionSum) {
+}
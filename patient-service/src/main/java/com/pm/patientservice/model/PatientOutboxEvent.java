@@ -0,0 +1,146 @@
+package com.pm.patientservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entity class representing one patient change waiting to be (or already) published.
+ * Rows are inserted in the same transaction as the change itself, so an event exists
+ * exactly when the change was committed. The publisher later delivers unpublished rows
+ * and stamps them with a feed position, which is what {@code GET /patients/changes} pages over.
+ */
+@Entity
+@Table(name = "patient_outbox", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_patient_outbox_feed_position", columnNames = "feed_position")
+}, indexes = {
+        // Publisher scan: unpublished rows in insertion order
+        @Index(name = "idx_patient_outbox_unpublished", columnList = "published_at, id")
+})
+public class PatientOutboxEvent {
+
+    /**
+     * Insertion order. Drawn from a pooled sequence so batched inserts need no extra round trips.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_outbox_seq")
+    @SequenceGenerator(name = "patient_outbox_seq", sequenceName = "patient_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The patient that changed.
+     */
+    @Column(nullable = false)
+    private UUID patientId;
+
+    /**
+     * What happened to the patient.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private PatientChangeType type;
+
+    /**
+     * The patient as JSON after the change; null for deletions.
+     */
+    @Column(length = 4000)
+    private String payload;
+
+    /**
+     * When the change was made.
+     */
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    /**
+     * Position in the change feed, assigned in publication order; null until published.
+     */
+    private Long feedPosition;
+
+    /**
+     * When the event was handed to the sink; null until published.
+     */
+    private Instant publishedAt;
+
+    /**
+     * Required by JPA.
+     */
+    protected PatientOutboxEvent() {
+    }
+
+    /**
+     * Creates an unpublished event.
+     *
+     * @param patientId the patient that changed
+     * @param type what happened to the patient
+     * @param payload the patient as JSON, or null for deletions
+     * @param occurredAt when the change was made
+     */
+    public PatientOutboxEvent(UUID patientId, PatientChangeType type, String payload, Instant occurredAt) {
+        this.patientId = patientId;
+        this.type = type;
+        this.payload = payload;
+        this.occurredAt = occurredAt;
+    }
+
+    /**
+     * @return the insertion-order ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return the patient that changed
+     */
+    public UUID getPatientId() {
+        return patientId;
+    }
+
+    /**
+     * @return what happened to the patient
+     */
+    public PatientChangeType getType() {
+        return type;
+    }
+
+    /**
+     * @return the patient as JSON, or null for deletions
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * @return when the change was made
+     */
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    /**
+     * @return the feed position, or null if not yet published
+     */
+    public Long getFeedPosition() {
+        return feedPosition;
+    }
+
+    /**
+     * @return when the event was published, or null if not yet published
+     */
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
+    /**
+     * Marks the event as delivered at the given feed position.
+     *
+     * @param feedPosition the event's position in the change feed
+     * @param publishedAt when the sink accepted the event
+     */
+    public void markPublished(long feedPosition, Instant publishedAt) {
+        this.feedPosition = feedPosition;
+        this.publishedAt = publishedAt;
+    }
+}
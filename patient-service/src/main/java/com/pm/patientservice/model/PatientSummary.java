@@ -0,0 +1,30 @@
+package com.pm.patientservice.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a patient row.
+ * <p>
+ * Queries select straight into this record through a JPQL constructor expression,
+ * so reads skip entity hydration, persistence-context registration and dirty checking.
+ *
+ * @param id the patient's unique identifier
+ * @param name the patient's full name
+ * @param email the patient's email address
+ * @param address the patient's residential address
+ * @param dateOfBirth the patient's date of birth
+ * @param registeredDate the date the patient was registered
+ * @param version the optimistic-locking version
+ * @param updatedAt when the patient was last inserted or updated
+ */
+public record PatientSummary(UUID id,
+                             String name,
+                             String email,
+                             String address,
+                             LocalDate dateOfBirth,
+                             LocalDate registeredDate,
+                             Long version,
+                             Instant updatedAt) {
+}
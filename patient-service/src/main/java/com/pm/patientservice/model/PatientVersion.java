@@ -0,0 +1,13 @@
+package com.pm.patientservice.model;
+
+import java.time.Instant;
+
+/**
+ * The validators of a patient representation: its version and last modification time.
+ * Enough to answer conditional requests without loading or serializing the patient.
+ *
+ * @param version the optimistic-locking version, used as the ETag
+ * @param updatedAt when the patient was last inserted or updated, used as Last-Modified
+ */
+public record PatientVersion(long version, Instant updatedAt) {
+}
@@ -0,0 +1,19 @@
+package com.pm.patientservice.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a UUID identifier generated by {@link TimeOrderedUuidGenerator} when the entity is
+ * persisted. Unlike {@link org.hibernate.annotations.UuidGenerator}, an ID assigned before
+ * persisting is kept, so the caller can route the insert by its ID.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
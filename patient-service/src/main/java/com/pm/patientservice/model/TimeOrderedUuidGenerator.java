@@ -0,0 +1,64 @@
+package com.pm.patientservice.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562) for new patients.
+ * <p>
+ * The first 48 bits are the Unix time in milliseconds, followed by a 12-bit counter that keeps
+ * IDs from one JVM strictly increasing within a millisecond, and 62 random bits. New IDs
+ * therefore land at the right-hand edge of the primary key B-tree instead of on a random page,
+ * which keeps inserts sequential and the index compact as the table grows. Because the ID
+ * encodes its creation time, it should not be treated as a secret.
+ * <p>
+ * Existing random (version 4) IDs stay valid; both share the {@code uuid} column type.
+ * An ID assigned before the entity is persisted (see {@link TimeOrderedId}) is kept.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Last issued timestamp and counter, as {@code millis << 12 | counter}.
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return currentValue != null ? currentValue : next();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * Returns a new version 7 UUID, greater than any previously returned by this JVM
+     * (unless the clock steps back by more than the counter can absorb).
+     *
+     * @return the new UUID
+     */
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        // A counter overflow carries into the timestamp, running it briefly ahead of the clock
+        long state = LAST.updateAndGet(last -> Math.max(last + 1, now));
+        long msb = (state >>> 12) << 16 | 0x7000L | (state & 0xFFFL);
+        long lsb = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
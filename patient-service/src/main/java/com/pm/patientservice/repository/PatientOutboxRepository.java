@@ -0,0 +1,77 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.model.PatientOutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PatientOutboxRepository extends JpaRepository<PatientOutboxEvent, Long> {
+
+    /**
+     * Lock timeout that Hibernate renders as {@code SKIP LOCKED} on a pessimistic lock: rows
+     * another transaction holds are left out of the result instead of being waited for.
+     */
+    String SKIP_LOCKED = "-2";
+
+    /**
+     * Claims the oldest events not yet handed to the sink, in insertion order. The rows stay
+     * locked until the transaction ends; rows locked by another publisher are skipped.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    List<PatientOutboxEvent> findByPublishedAtIsNullOrderByIdAsc(Limit limit);
+
+    /**
+     * The highest feed position stored in this database, or 0 if nothing has been published.
+     */
+    @Query("SELECT COALESCE(MAX(e.feedPosition), 0) FROM PatientOutboxEvent e")
+    long findMaxFeedPosition();
+
+    /**
+     * The last feed position handed out, locking the counter until the transaction ends.
+     */
+    @Query(value = "SELECT last_position FROM patient_feed_counter WHERE id = 1 FOR UPDATE", nativeQuery = true)
+    long lockLastFeedPosition();
+
+    /**
+     * Advances the feed counter by the positions a batch used.
+     */
+    @Modifying
+    @Query(value = "UPDATE patient_feed_counter SET last_position = last_position + :used WHERE id = 1",
+            nativeQuery = true)
+    void advanceFeedPosition(@Param("used") int used);
+
+    /**
+     * Raises the feed counter to at least the given position.
+     */
+    @Modifying
+    @Query(value = "UPDATE patient_feed_counter SET last_position = GREATEST(last_position, :position) WHERE id = 1",
+            nativeQuery = true)
+    void raiseFeedPosition(@Param("position") long position);
+
+    /**
+     * Published events after the given feed position, in feed order.
+     */
+    List<PatientOutboxEvent> findByFeedPositionGreaterThanOrderByFeedPositionAsc(long feedPosition, Limit limit);
+
+    /**
+     * Removes published events older than the cutoff; unpublished events are always kept.
+     *
+     * @return the number of events removed
+     */
+    @Modifying
+    @Query("DELETE FROM PatientOutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,13 +1,137 @@
 package com.pm.patientservice.repository;
 
 import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.model.PatientListVersion;
+import com.pm.patientservice.model.PatientSummary;
+import com.pm.patientservice.model.PatientVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, UUID> {
-    boolean existsByEmail(String email);
-    boolean existsByEmailAndIdNot(String email, UUID id);
+public interface PatientRepository extends JpaRepository<Patient, UUID>, PatientSearchRepository {
+
+    /**
+     * Deletes a patient in one statement, reporting whether it existed.
+     *
+     * @return the number of patients removed (0 or 1)
+     */
+    @Modifying
+    @Query("DELETE FROM Patient p WHERE p.id = :id")
+    int removeById(@Param("id") UUID id);
+
+    /**
+     * Returns which of the given emails are already registered, in a single IN query.
+     */
+    @Query("SELECT p.email FROM Patient p WHERE p.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Streams every registered email, for building the email filter. Must be consumed inside
+     * a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.email FROM Patient p")
+    Stream<String> streamAllEmails();
+
+    /**
+     * JPQL constructor expression selecting a {@link PatientSummary} from alias {@code p}.
+     */
+    String SUMMARY = "new com.pm.patientservice.model.PatientSummary("
+            + "p.id, p.name, p.email, p.address, p.dateOfBirth, p.registeredDate, p.version, p.updatedAt)";
+
+    /**
+     * Single patient as a projection, without loading a managed entity.
+     */
+    @Query("SELECT " + SUMMARY + " FROM Patient p WHERE p.id = :id")
+    Optional<PatientSummary> findSummaryById(@Param("id") UUID id);
+
+    /**
+     * Patients with any of the given IDs, in no particular order, in a single IN query.
+     */
+    @Query("SELECT " + SUMMARY + " FROM Patient p WHERE p.id IN :ids")
+    List<PatientSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Only the version and last modification time of a patient, for conditional requests.
+     */
+    @Query("SELECT new com.pm.patientservice.model.PatientVersion(p.version, p.updatedAt) "
+            + "FROM Patient p WHERE p.id = :id")
+    Optional<PatientVersion> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Aggregate validators for the whole patient list, for conditional list requests.
+     */
+    @Query("SELECT new com.pm.patientservice.model.PatientListVersion("
+            + "COUNT(p), MAX(p.updatedAt), COALESCE(SUM(p.version), 0)) FROM Patient p")
+    PatientListVersion findListVersion();
+
+    /**
+     * First page of the keyset ordering on (registeredDate, id).
+     */
+    @Query("SELECT " + SUMMARY + " FROM Patient p ORDER BY p.registeredDate ASC, p.id ASC")
+    List<PatientSummary> findFirstPage(Limit limit);
+
+    /**
+     * Next page of the keyset ordering, strictly after the given (registeredDate, id) position.
+     * Served by the (registered_date, id) index, so the cost does not grow with the page number.
+     */
+    @Query("SELECT " + SUMMARY + """
+             FROM Patient p
+            WHERE p.registeredDate > :registeredDate
+               OR (p.registeredDate = :registeredDate AND p.id > :id)
+            ORDER BY p.registeredDate ASC, p.id ASC
+            """)
+    List<PatientSummary> findPageAfter(@Param("registeredDate") LocalDate registeredDate,
+                                       @Param("id") UUID id,
+                                       Limit limit);
+
+    /**
+     * Streams every patient in keyset order using a JDBC cursor with a bounded fetch size.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + SUMMARY + " FROM Patient p ORDER BY p.registeredDate ASC, p.id ASC")
+    Stream<PatientSummary> streamAll();
+
+    /**
+     * Streams every patient in ID order, for exports. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT " + SUMMARY + " FROM Patient p ORDER BY p.id ASC")
+    Stream<PatientSummary> streamAllOrderById();
+
+    /**
+     * Streams the patients after the given ID in ID order, for resuming an export.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT " + SUMMARY + " FROM Patient p WHERE p.id > :after ORDER BY p.id ASC")
+    Stream<PatientSummary> streamAfterIdOrderById(@Param("after") UUID after);
+
+    /**
+     * First page in ID order, for exports read a page at a time from several shards.
+     */
+    @Query("SELECT " + SUMMARY + " FROM Patient p ORDER BY p.id ASC")
+    List<PatientSummary> findFirstPageOrderById(Limit limit);
+
+    /**
+     * Next page in ID order, strictly after the given ID.
+     */
+    @Query("SELECT " + SUMMARY + " FROM Patient p WHERE p.id > :after ORDER BY p.id ASC")
+    List<PatientSummary> findPageAfterIdOrderById(@Param("after") UUID after, Limit limit);
 }
@@ -0,0 +1,23 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.dto.PatientSearchRequestDTO;
+import com.pm.patientservice.model.PatientSummary;
+import com.pm.patientservice.service.PatientCursor;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for filtered, keyset-paginated patient searches.
+ */
+public interface PatientSearchRepository {
+
+    /**
+     * Finds patients matching all supplied filters in (registeredDate, id) order.
+     *
+     * @param criteria the filters; null fields are ignored
+     * @param after position to continue after, or null for the first page
+     * @param limit maximum number of rows to return
+     * @return the matching patients
+     */
+    List<PatientSummary> search(PatientSearchRequestDTO criteria, PatientCursor after, int limit);
+}
@@ -0,0 +1,80 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.dto.PatientSearchRequestDTO;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.model.PatientSummary;
+import com.pm.patientservice.service.PatientCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria API implementation of {@link PatientSearchRepository}.
+ * <p>
+ * Every filter translates to an index-friendly predicate: the name filter is a
+ * {@code LIKE 'prefix%'} range scan on idx_patient_name (on Postgres only when that index
+ * uses {@code varchar_pattern_ops} or the "C" collation), email uses the unique index,
+ * and the date ranges use idx_patient_date_of_birth and idx_patient_registered_date_id.
+ * Rows are selected straight into {@link PatientSummary} projections.
+ */
+public class PatientSearchRepositoryImpl implements PatientSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    // Constructor-based dependency injection
+    public PatientSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<PatientSummary> search(PatientSearchRequestDTO criteria, PatientCursor after, int limit) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(PatientSummary.class);
+        var patient = query.from(Patient.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getName() != null && !criteria.getName().isBlank()) {
+            predicates.add(cb.like(patient.get("name"), escapeLike(criteria.getName()) + "%", LIKE_ESCAPE));
+        }
+        if (criteria.getEmail() != null && !criteria.getEmail().isBlank()) {
+            predicates.add(cb.equal(patient.get("email"), criteria.getEmail()));
+        }
+        if (criteria.getDateOfBirthFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(patient.get("dateOfBirth"), criteria.getDateOfBirthFrom()));
+        }
+        if (criteria.getDateOfBirthTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(patient.get("dateOfBirth"), criteria.getDateOfBirthTo()));
+        }
+        if (criteria.getRegisteredDateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(patient.get("registeredDate"), criteria.getRegisteredDateFrom()));
+        }
+        if (criteria.getRegisteredDateTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(patient.get("registeredDate"), criteria.getRegisteredDateTo()));
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(patient.get("registeredDate"), after.registeredDate()),
+                    cb.and(
+                            cb.equal(patient.get("registeredDate"), after.registeredDate()),
+                            cb.greaterThan(patient.get("id"), after.id()))));
+        }
+
+        query.select(cb.construct(PatientSummary.class,
+                        patient.get("id"), patient.get("name"), patient.get("email"),
+                        patient.get("address"), patient.get("dateOfBirth"), patient.get("registeredDate"),
+                        patient.get("version"), patient.get("updatedAt")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(patient.get("registeredDate")), cb.asc(patient.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,150 @@
+package com.pm.patientservice.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size Bloom filter over email addresses.
+ * <p>
+ * {@link #mightContain} never answers false for an email that was {@link #put}; it answers
+ * true for an email that was not put with a probability that grows as the filter fills up
+ * (see {@link #expectedFalsePositiveRate()}). Entries cannot be removed, so emails of deleted
+ * or renamed patients stay in until the filter is rebuilt.
+ * <p>
+ * Thread-safe without locks: bits are set with compare-and-set on an {@link AtomicLongArray}.
+ */
+public final class EmailBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final LongAdder insertions = new LongAdder();
+    private final LongAdder bitsSet = new LongAdder();
+
+    /**
+     * Sizes a filter so that holding {@code capacity} emails gives the target false-positive rate.
+     *
+     * @param capacity the number of emails the filter is sized for
+     * @param falsePositiveRate the target false-positive rate at capacity, in (0, 1)
+     */
+    public EmailBloomFilter(long capacity, double falsePositiveRate) {
+        this.capacity = Math.max(capacity, 1);
+        // Optimal size m = -n ln p / (ln 2)^2 and hash count k = m / n ln 2
+        long bits = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = (int) Math.max(1, Math.min(16, Math.round((double) bitCount / this.capacity * Math.log(2))));
+    }
+
+    /**
+     * Adds an email.
+     *
+     * @param email the email; null is ignored
+     */
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+        long hash = hash(email);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1; // odd, so the probe sequence does not cycle early
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if (setBit(bit)) {
+                bitsSet.increment();
+            }
+        }
+        insertions.increment();
+    }
+
+    /**
+     * @param email the email to test
+     * @return false if the email was definitely never added; true if it probably was
+     */
+    public boolean mightContain(String email) {
+        if (email == null) {
+            return false;
+        }
+        long hash = hash(email);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The false-positive rate implied by the share of bits set, {@code (set / size)^k}.
+     *
+     * @return the expected probability that an absent email tests positive
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.sum() / bitCount, hashCount);
+    }
+
+    /**
+     * @return the number of {@link #put} calls, including repeated emails
+     */
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    /**
+     * @return the number of emails the filter was sized for
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the size of the filter in bits
+     */
+    public long bitCount() {
+        return bitCount;
+    }
+
+    /**
+     * @return the number of bit positions probed per email
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Sets a bit, reporting whether it was clear before.
+     */
+    private boolean setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, word, word | mask));
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters, finished with the SplitMix64 mixer so both halves are well spread.
+     */
+    static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < email.length(); i++) {
+            hash ^= email.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 30;
+        hash *= 0xbf58476d1ce4e5b9L;
+        hash ^= hash >>> 27;
+        hash *= 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
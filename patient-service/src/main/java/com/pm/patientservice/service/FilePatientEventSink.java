@@ -0,0 +1,50 @@
+package com.pm.patientservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pm.patientservice.dto.PatientChangeEventDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a newline-delimited JSON file, one event per line.
+ * Each batch is written with a single append and forced to disk before it is acknowledged.
+ */
+public class FilePatientEventSink implements PatientEventSink {
+
+    private final Path file;
+    private final ObjectWriter writer;
+
+    public FilePatientEventSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.writer = objectMapper.writerFor(PatientChangeEventDTO.class);
+    }
+
+    @Override
+    public void publish(List<PatientChangeEventDTO> events) throws IOException {
+        var buffer = new ByteArrayOutputStream(events.size() * 256);
+        for (var event : events) {
+            writer.writeValue(buffer, event);
+            buffer.write('\n');
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            var bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.pm.patientservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.pm.patientservice.dto.BulkPatientResponseDTO;
+import com.pm.patientservice.dto.BulkPatientResultDTO;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.validators.CreatePatientValidationGroup;
+import com.pm.patientservice.exception.EmailConstraintViolations;
+import com.pm.patientservice.exception.ShardMovingException;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.model.TimeOrderedUuidGenerator;
+import com.pm.patientservice.repository.PatientRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Creates patients in bulk from a streamed upload.
+ * <p>
+ * Rows are read one at a time, validated with the same constraints as {@code POST /patients},
+ * and inserted in chunks: one set-based email lookup and one JDBC batch per chunk,
+ * each chunk in its own transaction so a bad chunk does not undo earlier ones.
+ * The email lookup covers only the emails {@link PatientEmailFilter} cannot rule out, and is
+ * skipped when every email in the chunk is definitely new.
+ * The chunk's CREATED outbox events are batched into the same transaction.
+ * <p>
+ * With sharding, the lookup goes to the shard directory, the chunk's emails are reserved there
+ * up front, and each shard's rows are inserted in one batch in that shard's transaction.
+ */
+@Service
+public class PatientBulkImportService {
+
+    /**
+     * Rows per chunk; matches {@code hibernate.jdbc.batch_size} so each chunk is one batch.
+     */
+    public static final int CHUNK_SIZE = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(PatientBulkImportService.class);
+
+    private static final String EMAIL_EXISTS = "Email address already exists.";
+
+    private static final String SHARD_MOVING = "Patient is being moved between shards, please retry.";
+
+    private static final String ROW_CONFLICTS = "Row conflicts with existing data.";
+
+    private final PatientRepository patientRepository;
+    private final PatientOutbox patientOutbox;
+    private final PatientEmailFilter emailFilter;
+    private final PatientShards patientShards;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+
+    // Constructor-based dependency injection
+    public PatientBulkImportService(PatientRepository patientRepository,
+                                    PatientOutbox patientOutbox,
+                                    PatientEmailFilter emailFilter,
+                                    PatientShards patientShards,
+                                    EntityManager entityManager,
+                                    TransactionTemplate transactionTemplate,
+                                    Validator validator,
+                                    ObjectMapper objectMapper) {
+        this.patientRepository = patientRepository;
+        this.patientOutbox = patientOutbox;
+        this.emailFilter = emailFilter;
+        this.patientShards = patientShards;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.jsonReader = objectMapper.readerFor(PatientRequestDTO.class);
+        this.csvReader = new CsvMapper()
+                .readerFor(PatientRequestDTO.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Import patients from a JSON array or from newline-delimited JSON objects.
+     *
+     * @param body the request body
+     * @return per-row outcomes
+     * @throws IOException if the body cannot be read
+     */
+    public BulkPatientResponseDTO importJson(InputStream body) throws IOException {
+        return importRows(jsonReader.readValues(body));
+    }
+
+    /**
+     * Import patients from CSV with a header row naming the PatientRequestDTO fields.
+     *
+     * @param body the request body
+     * @return per-row outcomes
+     * @throws IOException if the body cannot be read
+     */
+    public BulkPatientResponseDTO importCsv(InputStream body) throws IOException {
+        return importRows(csvReader.readValues(body));
+    }
+
+    private BulkPatientResponseDTO importRows(MappingIterator<PatientRequestDTO> rows) throws IOException {
+        var results = new ArrayList<BulkPatientResultDTO>();
+        var seenEmails = new HashSet<String>();
+        var chunk = new ArrayList<PendingRow>(CHUNK_SIZE);
+        long row = 0;
+        try (rows) {
+            while (rows.hasNextValue()) {
+                var requestDTO = rows.nextValue();
+                var pending = prepare(row, requestDTO, seenEmails, results);
+                if (pending != null) {
+                    chunk.add(pending);
+                    if (chunk.size() == CHUNK_SIZE) {
+                        insertChunk(chunk, results);
+                    }
+                }
+                row++;
+            }
+        } catch (JsonProcessingException ex) {
+            // The stream cannot be resynchronised after a syntax error, so stop at this row
+            log.warn("Bulk import stopped at row {}: {}", row, ex.getOriginalMessage());
+            results.add(BulkPatientResultDTO.failed(row, Map.of("message", "Malformed row; import stopped.")));
+        }
+        insertChunk(chunk, results);
+
+        results.sort(Comparator.comparingLong(BulkPatientResultDTO::getRow));
+        long created = results.stream()
+                .filter(result -> result.getStatus() == BulkPatientResultDTO.Status.CREATED)
+                .count();
+        return new BulkPatientResponseDTO(created, results.size() - created, results);
+    }
+
+    /**
+     * Validates a row and converts it to an entity, recording a failure if it is rejected.
+     *
+     * @return the row ready for insertion, or null if it was rejected
+     */
+    private PendingRow prepare(long row, PatientRequestDTO requestDTO, Set<String> seenEmails,
+                               List<BulkPatientResultDTO> results) {
+        Map<String, String> errors = new HashMap<>();
+        validator.validate(requestDTO, Default.class, CreatePatientValidationGroup.class)
+                .forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        if (!errors.isEmpty()) {
+            results.add(BulkPatientResultDTO.failed(row, errors));
+            return null;
+        }
+        if (!seenEmails.add(requestDTO.getEmail())) {
+            results.add(BulkPatientResultDTO.failed(row, Map.of("email", EMAIL_EXISTS)));
+            return null;
+        }
+        try {
+            return new PendingRow(row, PatientMapper.toModel(requestDTO));
+        } catch (DateTimeParseException ex) {
+            results.add(BulkPatientResultDTO.failed(row, Map.of("message", "Dates must use the yyyy-MM-dd format.")));
+            return null;
+        }
+    }
+
+    /**
+     * Inserts a chunk after dropping rows whose email is already taken, then clears it.
+     */
+    private void insertChunk(List<PendingRow> chunk, List<BulkPatientResultDTO> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // Only emails the filter cannot rule out are looked up; a chunk of new emails needs no query
+        var candidates = emailFilter.mightExist(chunk.stream().map(pending -> pending.patient().getEmail()).toList());
+        Set<String> existingEmails = Set.of();
+        if (!candidates.isEmpty()) {
+            existingEmails = patientShards.isSharded()
+                    ? patientShards.findExistingEmails(candidates)
+                    : patientRepository.findExistingEmails(candidates);
+            emailFilter.recordLookup(candidates.size(), existingEmails.size());
+        }
+
+        var toInsert = new ArrayList<PendingRow>(chunk.size());
+        for (var pending : chunk) {
+            if (existingEmails.contains(pending.patient().getEmail())) {
+                results.add(BulkPatientResultDTO.failed(pending.row(), Map.of("email", EMAIL_EXISTS)));
+            } else {
+                toInsert.add(pending);
+            }
+        }
+        chunk.clear();
+
+        if (patientShards.isSharded()) {
+            insertSharded(toInsert, results);
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(toInsert));
+            toInsert.forEach(pending -> results.add(
+                    BulkPatientResultDTO.created(pending.row(), pending.patient().getId().toString())));
+        } catch (DataIntegrityViolationException ex) {
+            // Another writer took one of the emails after the lookup; retry row by row
+            // so only the conflicting rows are reported as failed.
+            log.warn("Batch insert conflicted, retrying {} rows individually", toInsert.size());
+            toInsert.forEach(pending -> insertSingle(pending, results));
+        }
+    }
+
+    /**
+     * Reserves the rows' emails in the shard directory, then inserts each shard's rows in one
+     * batch. A shard whose bucket is being moved fails its rows with a retryable message and
+     * releases their reservations; a conflicting batch is retried row by row.
+     */
+    private void insertSharded(List<PendingRow> rows, List<BulkPatientResultDTO> results) {
+        var reservations = new HashMap<String, UUID>();
+        for (var pending : rows) {
+            // IDs are assigned up front so rows can be grouped by shard
+            pending.patient().setId(TimeOrderedUuidGenerator.next());
+            reservations.put(pending.patient().getEmail(), pending.patient().getId());
+        }
+        var taken = patientShards.reserveEmails(reservations);
+
+        var rowsByShard = new HashMap<Integer, List<PendingRow>>();
+        for (var pending : rows) {
+            if (taken.contains(pending.patient().getEmail())) {
+                results.add(BulkPatientResultDTO.failed(pending.row(), Map.of("email", EMAIL_EXISTS)));
+            } else {
+                rowsByShard.computeIfAbsent(patientShards.shardOf(pending.patient().getId()), shard -> new ArrayList<>())
+                        .add(pending);
+            }
+        }
+        for (var group : rowsByShard.values()) {
+            var ids = group.stream().map(pending -> pending.patient().getId()).toList();
+            try (var scope = patientShards.forWriteAll(ids)) {
+                transactionTemplate.executeWithoutResult(status -> insertBatch(group));
+                group.forEach(pending -> results.add(
+                        BulkPatientResultDTO.created(pending.row(), pending.patient().getId().toString())));
+            } catch (ShardMovingException ex) {
+                log.warn("Sharded batch insert of {} rows rejected: {}", group.size(), ex.getMessage());
+                group.forEach(this::releaseReservation);
+                group.forEach(pending -> results.add(
+                        BulkPatientResultDTO.failed(pending.row(), Map.of("message", SHARD_MOVING))));
+            } catch (DataIntegrityViolationException ex) {
+                log.warn("Sharded batch insert conflicted, retrying {} rows individually", group.size());
+                group.forEach(pending -> insertSingle(pending, results));
+            }
+        }
+    }
+
+    private void insertBatch(List<PendingRow> rows) {
+        var patients = patientRepository.saveAll(rows.stream().map(PendingRow::patient).toList());
+        patientOutbox.recordCreated(patients.stream().map(PatientMapper::toPatientResponseDTO).toList());
+        // Flush through the repository so a constraint violation arrives as a DataIntegrityViolationException
+        patientRepository.flush();
+        entityManager.clear();
+    }
+
+    private void insertSingle(PendingRow pending, List<BulkPatientResultDTO> results) {
+        if (!patientShards.isSharded()) {
+            // The rolled-back batch already assigned an ID; let the generator assign a fresh one
+            pending.patient().setId(null);
+        }
+        // ...and a version, which would make the repository merge the row instead of persisting it
+        pending.patient().setVersion(null);
+        try (var scope = patientShards.forWrite(pending.patient().getId())) {
+            var patient = transactionTemplate.execute(status -> {
+                var saved = patientRepository.saveAndFlush(pending.patient());
+                patientOutbox.recordCreated(List.of(PatientMapper.toPatientResponseDTO(saved)));
+                return saved;
+            });
+            results.add(BulkPatientResultDTO.created(pending.row(), patient.getId().toString()));
+        } catch (DataIntegrityViolationException ex) {
+            releaseReservation(pending);
+            if (EmailConstraintViolations.isEmailConflict(ex)) {
+                results.add(BulkPatientResultDTO.failed(pending.row(), Map.of("email", EMAIL_EXISTS)));
+            } else {
+                // Rows before this one are already committed, so fail the row rather than the import
+                log.warn("Row {} rejected by the database: {}", pending.row(), ex.getMostSpecificCause().getMessage());
+                results.add(BulkPatientResultDTO.failed(pending.row(), Map.of("message", ROW_CONFLICTS)));
+            }
+        } catch (ShardMovingException ex) {
+            releaseReservation(pending);
+            results.add(BulkPatientResultDTO.failed(pending.row(), Map.of("message", SHARD_MOVING)));
+        }
+    }
+
+    /**
+     * Releases the email a sharded row reserved when it is not inserted; no-op without sharding.
+     */
+    private void releaseReservation(PendingRow pending) {
+        if (patientShards.isSharded()) {
+            patientShards.releaseEmails(Map.of(pending.patient().getEmail(), pending.patient().getId()));
+        }
+    }
+
+    /**
+     * A validated row waiting for its chunk to be inserted.
+     */
+    private record PendingRow(long row, Patient patient) {
+    }
+}
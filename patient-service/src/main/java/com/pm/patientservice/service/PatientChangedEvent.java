@@ -0,0 +1,20 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.model.PatientChangeType;
+
+import java.util.UUID;
+
+/**
+ * Application event published for every patient change recorded in the outbox.
+ * <p>
+ * Published inside the changing transaction; listen with
+ * {@link org.springframework.transaction.event.TransactionalEventListener} to see only
+ * changes that committed.
+ *
+ * @param type what happened to the patient
+ * @param patientId the patient that changed
+ * @param patient the patient after the change, or null for deletions
+ */
+public record PatientChangedEvent(PatientChangeType type, UUID patientId, PatientResponseDTO patient) {
+}
@@ -0,0 +1,73 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.exception.InvalidCursorException;
+import com.pm.patientservice.model.PatientSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Continuation token for keyset pagination over the (registeredDate, id) ordering.
+ * The token is the base64url encoding of the last returned position, so clients
+ * treat it as opaque and the server never has to keep pagination state.
+ *
+ * @param registeredDate the registered date of the last patient on the previous page
+ * @param id the ID of the last patient on the previous page
+ */
+public record PatientCursor(LocalDate registeredDate, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * UUID order of the databases (unsigned, i.e. string order), which differs from
+     * {@link UUID#compareTo} for IDs with the top bit set. Used to merge rows read from several shards.
+     */
+    public static final Comparator<UUID> ID_ORDER = (a, b) -> {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
+    /**
+     * The (registeredDate, id) keyset order of pages, searches and the streamed list.
+     */
+    public static final Comparator<PatientSummary> KEYSET_ORDER = Comparator
+            .comparing(PatientSummary::registeredDate)
+            .thenComparing(PatientSummary::id, ID_ORDER);
+
+    /**
+     * Encodes this position as an opaque URL-safe token.
+     *
+     * @return the continuation token
+     */
+    public String encode() {
+        var raw = registeredDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the continuation token sent by the client
+     * @return the decoded cursor
+     * @throws InvalidCursorException if the token is malformed
+     */
+    public static PatientCursor decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Malformed cursor: " + token);
+            }
+            return new PatientCursor(
+                    LocalDate.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Malformed cursor: " + token);
+        }
+    }
+}
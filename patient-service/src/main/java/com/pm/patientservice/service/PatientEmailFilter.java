@@ -0,0 +1,222 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.config.EmailFilterProperties;
+import com.pm.patientservice.repository.PatientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps an {@link EmailBloomFilter} of every registered email so that checks for emails that
+ * are definitely new need no database query.
+ * <p>
+ * The filter is built by a background thread once the application is ready, by streaming
+ * the email column, and kept current from committed {@link PatientChangedEvent}s. Until the
+ * first build finishes every email is reported as possibly registered. The filter only ever
+ * saves queries: the unique constraint on {@code patient.email} stays the authority, so an
+ * email missed by the filter (e.g. committed while it was being swapped) surfaces as a
+ * constraint violation that callers already handle.
+ * <p>
+ * Deleted and changed emails cannot be removed from a Bloom filter, so it slowly fills up;
+ * {@link #rebuild()} (also exposed as {@code POST /actuator/emailfilter}) replaces it with
+ * a freshly sized one.
+ */
+@Service
+public class PatientEmailFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientEmailFilter.class);
+
+    private final PatientRepository patientRepository;
+    private final PatientShards patientShards;
+    private final TransactionTemplate readOnlyTransaction;
+    private final EmailFilterProperties properties;
+    private final Counter absent;
+    private final Counter maybePresent;
+    private final Counter falsePositives;
+
+    private volatile EmailBloomFilter filter;
+    /** The filter being built by {@link #rebuild()}, which must also receive concurrent changes. */
+    private volatile EmailBloomFilter building;
+    private volatile boolean saturationLogged;
+
+    /**
+     * State of the filter, as reported by the actuator endpoint.
+     *
+     * @param ready whether a filter has been built
+     * @param capacity emails the filter is sized for
+     * @param insertions emails added since the last build, including repeats
+     * @param bits size of the filter in bits
+     * @param hashes bit positions probed per email
+     * @param expectedFalsePositiveRate false-positive rate implied by the bits set
+     * @param targetFalsePositiveRate the configured false-positive rate at capacity
+     * @param saturated whether the expected rate exceeds the target, i.e. a rebuild is due
+     */
+    public record Stats(boolean ready, long capacity, long insertions, long bits, int hashes,
+                        double expectedFalsePositiveRate, double targetFalsePositiveRate, boolean saturated) {
+    }
+
+    // Constructor-based dependency injection
+    public PatientEmailFilter(PatientRepository patientRepository,
+                              PatientShards patientShards,
+                              PlatformTransactionManager transactionManager,
+                              EmailFilterProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.patientRepository = patientRepository;
+        this.patientShards = patientShards;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.absent = Counter.builder("patient.email_filter.checks")
+                .description("Emails checked against the email filter")
+                .tag("result", "absent")
+                .register(meterRegistry);
+        this.maybePresent = Counter.builder("patient.email_filter.checks")
+                .description("Emails checked against the email filter")
+                .tag("result", "maybe_present")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("patient.email_filter.false_positives")
+                .description("Emails the filter reported as possibly registered that were not")
+                .register(meterRegistry);
+        Gauge.builder("patient.email_filter.expected_fpp", this,
+                        emailFilter -> emailFilter.filter != null ? emailFilter.filter.expectedFalsePositiveRate() : 1)
+                .description("False-positive rate implied by the bits set in the email filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the first build without holding up startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        var loader = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException ex) {
+                log.error("Building the email filter failed; every email is checked against the database", ex);
+            }
+        }, "patient-email-filter-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Builds a new filter sized for the current row count from a streamed scan of the email
+     * column (of every shard, one after the other) and swaps it in. Changes committed during
+     * the scan are added to both filters.
+     *
+     * @return the state of the new filter
+     */
+    public synchronized Stats rebuild() {
+        long start = System.nanoTime();
+        long rows = patientShards.fanOut(shard -> patientRepository.count()).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        var next = new EmailBloomFilter(
+                Math.max(properties.capacity(), (long) Math.ceil(rows * properties.headroom())),
+                properties.falsePositiveRate());
+        building = next;
+        try {
+            patientShards.forEachShard(shard -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (var emails = patientRepository.streamAllEmails()) {
+                    emails.forEach(next::put);
+                }
+            }));
+            filter = next;
+        } finally {
+            building = null;
+        }
+        saturationLogged = false;
+        log.info("Built email filter with {} emails in {} ms ({} bits, {} hashes, expected false-positive rate {})",
+                next.insertions(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                next.bitCount(), next.hashCount(), String.format("%.4f", next.expectedFalsePositiveRate()));
+        return stats();
+    }
+
+    /**
+     * Adds the email of a created or updated patient once its transaction has committed.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (event.patient() == null) {
+            return; // deletions cannot be removed from the filter
+        }
+        var email = event.patient().getEmail();
+        // Read the filter being built first: rebuild() publishes the new filter before clearing it
+        var next = building;
+        var current = filter;
+        if (next != null) {
+            next.put(email);
+        }
+        if (current != null && current != next) {
+            current.put(email);
+            if (!saturationLogged && current.expectedFalsePositiveRate() > properties.falsePositiveRate()) {
+                saturationLogged = true;
+                log.warn("Email filter is saturated (expected false-positive rate {}); rebuild it with POST /actuator/emailfilter",
+                        String.format("%.4f", current.expectedFalsePositiveRate()));
+            }
+        }
+    }
+
+    /**
+     * Drops the emails that are definitely not registered.
+     *
+     * @param emails emails to check
+     * @return the emails that may be registered and still need a database check
+     */
+    public List<String> mightExist(Collection<String> emails) {
+        var current = filter;
+        if (current == null) {
+            return List.copyOf(emails);
+        }
+        var candidates = new ArrayList<String>();
+        for (var email : emails) {
+            if (current.mightContain(email)) {
+                candidates.add(email);
+            }
+        }
+        maybePresent.increment(candidates.size());
+        absent.increment(emails.size() - candidates.size());
+        return candidates;
+    }
+
+    /**
+     * Records the outcome of the database check for emails returned by {@link #mightExist},
+     * so the observed false-positive rate can be monitored.
+     *
+     * @param candidates emails that were checked
+     * @param registered how many of them were actually registered
+     */
+    public void recordLookup(int candidates, int registered) {
+        if (filter != null) {
+            falsePositives.increment(candidates - registered);
+        }
+    }
+
+    /**
+     * @return the state of the current filter
+     */
+    public Stats stats() {
+        var current = filter;
+        if (current == null) {
+            return new Stats(false, 0, 0, 0, 0, 1, properties.falsePositiveRate(), false);
+        }
+        double expected = current.expectedFalsePositiveRate();
+        return new Stats(true, current.capacity(), current.insertions(), current.bitCount(), current.hashCount(),
+                expected, properties.falsePositiveRate(), expected > properties.falsePositiveRate());
+    }
+}
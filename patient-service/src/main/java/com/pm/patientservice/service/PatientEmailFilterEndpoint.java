@@ -0,0 +1,32 @@
+package com.pm.patientservice.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint for the email filter: {@code GET /actuator/emailfilter} reports its size
+ * and expected false-positive rate, {@code POST /actuator/emailfilter} rebuilds it.
+ */
+@Component
+@Endpoint(id = "emailfilter")
+public class PatientEmailFilterEndpoint {
+
+    private final PatientEmailFilter emailFilter;
+
+    // Constructor-based dependency injection
+    public PatientEmailFilterEndpoint(PatientEmailFilter emailFilter) {
+        this.emailFilter = emailFilter;
+    }
+
+    @ReadOperation
+    public PatientEmailFilter.Stats stats() {
+        return emailFilter.stats();
+    }
+
+    @WriteOperation
+    public PatientEmailFilter.Stats rebuild() {
+        return emailFilter.rebuild();
+    }
+}
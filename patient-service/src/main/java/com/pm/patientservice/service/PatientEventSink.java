@@ -0,0 +1,24 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.dto.PatientChangeEventDTO;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for published patient change events.
+ * <p>
+ * Delivery is at-least-once: a batch is marked as published only after {@link #publish}
+ * returns, so an implementation must not return before the events are durably accepted,
+ * and consumers must tolerate seeing an event again after a failure.
+ */
+public interface PatientEventSink {
+
+    /**
+     * Delivers a batch of events in feed order.
+     *
+     * @param events the events to deliver
+     * @throws IOException if the batch could not be delivered; it is retried as a whole
+     */
+    void publish(List<PatientChangeEventDTO> events) throws IOException;
+}
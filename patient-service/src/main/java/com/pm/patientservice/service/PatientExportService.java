@@ -0,0 +1,351 @@
+package com.pm.patientservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.pm.patientservice.config.ExportProperties;
+import com.pm.patientservice.dto.PatientExportJobDTO;
+import com.pm.patientservice.dto.PatientExportJobDTO.Status;
+import com.pm.patientservice.exception.ExportCapacityException;
+import com.pm.patientservice.exception.ExportJobNotFoundException;
+import com.pm.patientservice.exception.ExportJobStateException;
+import com.pm.patientservice.model.PatientSummary;
+import com.pm.patientservice.repository.PatientRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the full patient table to gzip-compressed CSV files in the background.
+ * <p>
+ * Rows are streamed in ID order through a server-side cursor and written through a
+ * buffered {@link FileChannel}. Every {@code checkpointRows} rows the current gzip member
+ * is finished, the file is forced to disk and the job's checkpoint (last ID, file size)
+ * is saved. A failed or interrupted export is resumed by truncating the file to the
+ * checkpoint and continuing after the last exported ID; the file is then a sequence of
+ * gzip members, which standard gzip tools read as one stream.
+ * <p>
+ * Jobs run on a dedicated bounded pool, so exports hold at most that many database
+ * connections and never occupy request threads.
+ * <p>
+ * With sharding, every shard is read a page at a time in ID order and the pages are merged,
+ * so the file and its checkpoints look the same as without.
+ */
+@Service
+public class PatientExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientExportService.class);
+
+    private static final String EXPORT_SUFFIX = ".csv.gz";
+    private static final String JOB_SUFFIX = ".json";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PatientRepository patientRepository;
+    private final PatientShards patientShards;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExportProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter csvWriter;
+    private final CsvSchema csvSchema;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<String, PatientExportJobDTO> jobs = new ConcurrentHashMap<>();
+
+    // Constructor-based dependency injection
+    public PatientExportService(PatientRepository patientRepository,
+                                PatientShards patientShards,
+                                PlatformTransactionManager transactionManager,
+                                ExportProperties properties,
+                                ObjectMapper objectMapper) {
+        this.patientRepository = patientRepository;
+        this.patientShards = patientShards;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+
+        var csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(CsvGenerator.Feature.STRICT_CHECK_FOR_QUOTING)
+                .build();
+        // Header names match PatientRequestDTO, so an export can be fed back to POST /patients/bulk
+        this.csvSchema = csvMapper.schemaFor(PatientSummary.class)
+                .sortedBy("id", "name", "email", "address", "dateOfBirth", "registeredDate", "version", "updatedAt");
+        // Each gzip member gets its own SequenceWriter; closing it must not close the file
+        this.csvWriter = csvMapper.writerFor(PatientSummary.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(properties.threads());
+        this.executor.setMaxPoolSize(properties.threads());
+        this.executor.setQueueCapacity(properties.queueCapacity());
+        this.executor.setThreadNamePrefix("patient-export-");
+        this.executor.initialize();
+    }
+
+    /**
+     * Loads the jobs of earlier runs. Jobs that were queued or running when the service
+     * stopped are marked as failed so they can be resumed.
+     *
+     * @throws IOException if the export directory cannot be read
+     */
+    @PostConstruct
+    void loadJobs() throws IOException {
+        Files.createDirectories(properties.directory());
+        try (Stream<Path> files = Files.list(properties.directory())) {
+            for (var file : (Iterable<Path>) files.filter(path -> path.toString().endsWith(JOB_SUFFIX))::iterator) {
+                var job = objectMapper.readValue(file.toFile(), PatientExportJobDTO.class);
+                if (job.getStatus() == Status.QUEUED || job.getStatus() == Status.RUNNING) {
+                    fail(job, "Interrupted by a restart; resume to continue.");
+                }
+                jobs.put(job.getId(), job);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Start a new export of the full patient table.
+     *
+     * @return the queued job
+     * @throws ExportCapacityException if the export queue is full
+     */
+    public PatientExportJobDTO startExport() {
+        var job = new PatientExportJobDTO();
+        job.setId(UUID.randomUUID().toString());
+        job.setStatus(Status.QUEUED);
+        job.setStartedAt(Instant.now());
+        save(job);
+        jobs.put(job.getId(), job);
+        submit(job);
+        return getJob(job.getId());
+    }
+
+    /**
+     * Resume a failed export from its last checkpoint.
+     *
+     * @param jobId the export job ID
+     * @return the queued job
+     * @throws ExportJobNotFoundException if the job does not exist
+     * @throws ExportJobStateException if the job has not failed
+     * @throws ExportCapacityException if the export queue is full
+     */
+    public PatientExportJobDTO resumeExport(String jobId) {
+        var job = findJob(jobId);
+        synchronized (job) {
+            if (job.getStatus() != Status.FAILED) {
+                throw new ExportJobStateException("Only failed exports can be resumed; export is " + job.getStatus());
+            }
+            job.setStatus(Status.QUEUED);
+            job.setError(null);
+            job.setFinishedAt(null);
+            save(job);
+        }
+        submit(job);
+        return getJob(jobId);
+    }
+
+    /**
+     * Get the current state of an export.
+     *
+     * @param jobId the export job ID
+     * @return a snapshot of the job
+     * @throws ExportJobNotFoundException if the job does not exist
+     */
+    public PatientExportJobDTO getJob(String jobId) {
+        var job = findJob(jobId);
+        synchronized (job) {
+            return objectMapper.convertValue(job, PatientExportJobDTO.class);
+        }
+    }
+
+    /**
+     * Get the file of a completed export.
+     *
+     * @param jobId the export job ID
+     * @return path of the gzip-compressed CSV file
+     * @throws ExportJobNotFoundException if the job does not exist
+     * @throws ExportJobStateException if the export has not completed
+     */
+    public Path getExportFile(String jobId) {
+        var job = findJob(jobId);
+        synchronized (job) {
+            if (job.getStatus() != Status.COMPLETED) {
+                throw new ExportJobStateException("Export is " + job.getStatus() + ", not COMPLETED");
+            }
+        }
+        return exportFile(jobId);
+    }
+
+    private PatientExportJobDTO findJob(String jobId) {
+        var job = jobs.get(jobId);
+        if (job == null) {
+            throw new ExportJobNotFoundException("Export job not found with ID: " + jobId);
+        }
+        return job;
+    }
+
+    private void submit(PatientExportJobDTO job) {
+        try {
+            executor.execute(() -> run(job));
+        } catch (TaskRejectedException ex) {
+            fail(job, "Rejected because the export queue was full; resume to retry.");
+            throw new ExportCapacityException("Export queue is full");
+        }
+    }
+
+    private void run(PatientExportJobDTO job) {
+        long resumeAt;
+        String after;
+        synchronized (job) {
+            job.setStatus(Status.RUNNING);
+            save(job);
+            resumeAt = job.getFileSize();
+            after = job.getLastExportedId();
+        }
+        log.info("Export {} started at byte {}", job.getId(), resumeAt);
+        try (var channel = FileChannel.open(exportFile(job.getId()),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drop whatever was written after the last checkpoint
+            channel.truncate(resumeAt);
+            channel.position(resumeAt);
+            if (patientShards.isSharded()) {
+                writeRows(mergedShards(after == null ? null : UUID.fromString(after)), channel, job, resumeAt == 0);
+            } else {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (var rows = after == null
+                            ? patientRepository.streamAllOrderById()
+                            : patientRepository.streamAfterIdOrderById(UUID.fromString(after))) {
+                        writeRows(rows.iterator(), channel, job, resumeAt == 0);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+            synchronized (job) {
+                job.setStatus(Status.COMPLETED);
+                job.setFinishedAt(Instant.now());
+                save(job);
+            }
+            log.info("Export {} completed with {} rows", job.getId(), job.getRowsExported());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Export {} failed after {} rows", job.getId(), job.getRowsExported(), ex);
+            fail(job, ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Every shard's patients after the given ID (all of them if null), merged in ID order.
+     */
+    private Iterator<PatientSummary> mergedShards(UUID after) {
+        return patientShards.mergedStream(Comparator.comparing(PatientSummary::id, PatientCursor.ID_ORDER),
+                (last, limit) -> {
+                    var from = last != null ? last.id() : after;
+                    return from == null
+                            ? patientRepository.findFirstPageOrderById(Limit.of(limit))
+                            : patientRepository.findPageAfterIdOrderById(from, Limit.of(limit));
+                });
+    }
+
+    /**
+     * Writes the rows as a sequence of gzip members of {@code checkpointRows} rows each,
+     * checkpointing the job after every member.
+     */
+    private void writeRows(Iterator<PatientSummary> rows, FileChannel channel,
+                           PatientExportJobDTO job, boolean withHeader) throws IOException {
+        // Not closed here: closing it would close the channel, which the caller owns
+        OutputStream file = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        var schema = withHeader ? csvSchema.withHeader() : csvSchema.withoutHeader();
+        do {
+            long written = 0;
+            UUID lastId = null;
+            var member = new GZIPOutputStream(file, BUFFER_SIZE);
+            try (var csv = csvWriter.with(schema).writeValues(member)) {
+                while (written < properties.checkpointRows() && rows.hasNext()) {
+                    var patient = rows.next();
+                    csv.write(patient);
+                    lastId = patient.id();
+                    written++;
+                }
+            }
+            member.finish();
+            file.flush();
+            channel.force(false);
+            checkpoint(job, written, lastId, channel.position());
+            schema = csvSchema.withoutHeader();
+        } while (rows.hasNext());
+    }
+
+    private void checkpoint(PatientExportJobDTO job, long written, UUID lastId, long fileSize) {
+        synchronized (job) {
+            job.setRowsExported(job.getRowsExported() + written);
+            if (lastId != null) {
+                job.setLastExportedId(lastId.toString());
+            }
+            job.setFileSize(fileSize);
+            save(job);
+        }
+    }
+
+    private void fail(PatientExportJobDTO job, String error) {
+        synchronized (job) {
+            job.setStatus(Status.FAILED);
+            job.setError(error);
+            job.setFinishedAt(Instant.now());
+            save(job);
+        }
+    }
+
+    /**
+     * Writes the job's checkpoint file atomically, so a crash never leaves a torn checkpoint.
+     */
+    private void save(PatientExportJobDTO job) {
+        var target = properties.directory().resolve(job.getId() + JOB_SUFFIX);
+        var temp = properties.directory().resolve(job.getId() + JOB_SUFFIX + ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), job);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Path exportFile(String jobId) {
+        return properties.directory().resolve(jobId + EXPORT_SUFFIX);
+    }
+}
@@ -0,0 +1,145 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.config.FuzzySearchProperties;
+import com.pm.patientservice.dto.PatientFuzzyMatchDTO;
+import com.pm.patientservice.dto.PatientFuzzySearchResponseDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.model.PatientChangeType;
+import com.pm.patientservice.repository.PatientRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typo-tolerant search over patient names and addresses, answered from a
+ * {@link PatientTrigramIndex} held in memory instead of {@code LIKE '%...%'} scans.
+ * <p>
+ * The index is loaded by a background thread once the application is ready, streaming every
+ * patient through a JDBC cursor; searches during the load see the patients read so far. It is
+ * kept current from {@link PatientChangedEvent}s after their transaction commits, so rolled-back
+ * changes never reach it. Matching patients are then resolved by ID through
+ * {@link PatientService#getPatientsByIds}, i.e. from the patient cache or one primary key lookup.
+ */
+@Service
+public class PatientFuzzySearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientFuzzySearchService.class);
+
+    private final PatientTrigramIndex index = new PatientTrigramIndex();
+    private final PatientRepository patientRepository;
+    private final PatientService patientService;
+    private final PatientShards patientShards;
+    private final TransactionTemplate readOnlyTransaction;
+    private final FuzzySearchProperties properties;
+
+    // Constructor-based dependency injection
+    public PatientFuzzySearchService(PatientRepository patientRepository,
+                                     PatientService patientService,
+                                     PatientShards patientShards,
+                                     PlatformTransactionManager transactionManager,
+                                     FuzzySearchProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.patientRepository = patientRepository;
+        this.patientService = patientService;
+        this.patientShards = patientShards;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        Gauge.builder("patient.search.index.patients", index, PatientTrigramIndex::size)
+                .description("Patients in the fuzzy search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts loading the index without holding up startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        var loader = new Thread(this::loadIndex, "patient-search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Streams every patient into the index, one shard after the other. Changes committed
+     * meanwhile are applied by {@link #onPatientChanged} and win over the rows read here.
+     */
+    void loadIndex() {
+        long start = System.nanoTime();
+        try {
+            patientShards.forEachShard(shard -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (var patients = patientRepository.streamAllOrderById()) {
+                    patients.filter(patient -> patientShards.owns(shard, patient.id()))
+                            .forEach(patient -> index.load(patient.id(),
+                                    patient.version() != null ? patient.version() : 0L,
+                                    patient.name(), patient.address()));
+                }
+            }));
+            index.finishLoading();
+            log.info("Loaded {} patients into the fuzzy search index in {} ms",
+                    index.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException ex) {
+            log.error("Loading the fuzzy search index failed; fuzzy search stays incomplete", ex);
+        }
+    }
+
+    /**
+     * Applies a committed patient change to the index.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (event.type() == PatientChangeType.DELETED) {
+            index.remove(event.patientId());
+            return;
+        }
+        var patient = event.patient();
+        index.put(event.patientId(), patient.getVersion() != null ? patient.getVersion() : 0L,
+                patient.getName(), patient.getAddress());
+    }
+
+    /**
+     * Finds the patients whose name or address best matches the query, tolerating typos,
+     * missing accents and word order.
+     *
+     * @param query free text
+     * @param limit requested number of matches, clamped to [1, maxLimit]; null for the default
+     * @return the matches by descending score
+     */
+    public PatientFuzzySearchResponseDTO search(String query, Integer limit) {
+        int size = Math.min(Math.max(limit != null ? limit : properties.defaultLimit(), 1), properties.maxLimit());
+        boolean complete = index.isLoaded();
+        var matches = index.search(query, properties.minSimilarity(), size);
+        if (matches.isEmpty()) {
+            return new PatientFuzzySearchResponseDTO(List.of(), complete);
+        }
+
+        var found = new HashMap<String, PatientResponseDTO>();
+        for (var patient : patientService.getPatientsByIds(
+                matches.stream().map(PatientTrigramIndex.Match::id).toList()).getPatients()) {
+            found.put(patient.getId(), patient);
+        }
+        var results = new ArrayList<PatientFuzzyMatchDTO>(matches.size());
+        for (var match : matches) {
+            // Absent if deleted between the index lookup and the fetch
+            var patient = found.get(match.id().toString());
+            if (patient != null) {
+                results.add(new PatientFuzzyMatchDTO(patient, match.score()));
+            }
+        }
+        return new PatientFuzzySearchResponseDTO(results, complete);
+    }
+}
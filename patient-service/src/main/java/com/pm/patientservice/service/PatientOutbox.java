@@ -0,0 +1,83 @@
+package com.pm.patientservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.model.PatientChangeType;
+import com.pm.patientservice.model.PatientOutboxEvent;
+import com.pm.patientservice.repository.PatientOutboxRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Records patient changes in the outbox table.
+ * <p>
+ * Every method requires the caller's transaction, so the event is committed or rolled back
+ * together with the change it describes; {@link PatientOutboxPublisher} delivers it afterwards.
+ * Each change is also published in-process as a {@link PatientChangedEvent}.
+ */
+@Service
+public class PatientOutbox {
+
+    private final PatientOutboxRepository outboxRepository;
+    private final ObjectWriter patientWriter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Constructor-based dependency injection
+    public PatientOutbox(PatientOutboxRepository outboxRepository,
+                         ObjectMapper objectMapper,
+                         ApplicationEventPublisher eventPublisher) {
+        this.outboxRepository = outboxRepository;
+        this.patientWriter = objectMapper.writerFor(PatientResponseDTO.class);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Records a single change.
+     *
+     * @param type what happened to the patient
+     * @param patientId the patient that changed
+     * @param patient the patient after the change, or null for deletions
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(PatientChangeType type, UUID patientId, PatientResponseDTO patient) {
+        outboxRepository.save(toEvent(type, patientId, patient, Instant.now()));
+        eventPublisher.publishEvent(new PatientChangedEvent(type, patientId, patient));
+    }
+
+    /**
+     * Records the creation of several patients; inserted in the same JDBC batch as the patients.
+     *
+     * @param patients the created patients
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<PatientResponseDTO> patients) {
+        var now = Instant.now();
+        outboxRepository.saveAll(patients.stream()
+                .map(patient -> toEvent(PatientChangeType.CREATED, UUID.fromString(patient.getId()), patient, now))
+                .toList());
+        patients.forEach(patient -> eventPublisher.publishEvent(
+                new PatientChangedEvent(PatientChangeType.CREATED, UUID.fromString(patient.getId()), patient)));
+    }
+
+    private PatientOutboxEvent toEvent(PatientChangeType type, UUID patientId,
+                                       PatientResponseDTO patient, Instant occurredAt) {
+        return new PatientOutboxEvent(patientId, type, patient != null ? toJson(patient) : null, occurredAt);
+    }
+
+    private String toJson(PatientResponseDTO patient) {
+        try {
+            return patientWriter.writeValueAsString(patient);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.config.OutboxProperties;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.repository.PatientOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Drains the patient outbox into the configured {@link PatientEventSink}.
+ * <p>
+ * Each batch is claimed, delivered and marked as published in one transaction. If the sink
+ * fails, or the transaction fails after the sink accepted the batch, the events stay
+ * unpublished and are delivered again (at-least-once). Feed positions are assigned here,
+ * in delivery order, from a counter row that stays locked until the batch commits: with
+ * several instances the publishers take turns, so the change feed never skips an event that
+ * committed late. Claimed rows are locked too, and rows locked by another publisher are skipped.
+ * <p>
+ * Back-pressure: delivery is synchronous and bounded per run, so a slow sink slows the
+ * publisher and the backlog waits in the outbox table; a failing sink pauses publication
+ * with exponential backoff.
+ * <p>
+ * With sharding each shard keeps the outbox of its own patients; the shards are drained one
+ * after the other and the feed counter lives in the shard directory, so positions are unique
+ * and in delivery order across shards. Should the directory fail to commit after a shard did,
+ * the counter is raised to the highest stored position before the next batch.
+ */
+@Component
+@ConditionalOnProperty(prefix = "patient-service.outbox", name = "publisher-enabled", matchIfMissing = true)
+public class PatientOutboxPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientOutboxPublisher.class);
+
+    private final PatientOutboxRepository outboxRepository;
+    private final PatientEventSink sink;
+    private final PatientShards patientShards;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer batchTimer;
+
+    private int consecutiveFailures;
+    private Instant pausedUntil = Instant.MIN;
+    /** Whether the feed counter is known to be at or above every stored position. */
+    private boolean counterChecked;
+
+    // Constructor-based dependency injection
+    public PatientOutboxPublisher(PatientOutboxRepository outboxRepository,
+                                  PatientEventSink sink,
+                                  PatientShards patientShards,
+                                  TransactionTemplate transactionTemplate,
+                                  OutboxProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.patientShards = patientShards;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.published = meterRegistry.counter("patient.outbox.published");
+        this.failures = meterRegistry.counter("patient.outbox.failures");
+        this.batchTimer = meterRegistry.timer("patient.outbox.batch");
+    }
+
+    /**
+     * Delivers up to {@code maxBatchesPerRun} batches per shard, stopping early once the
+     * shard's outbox is drained.
+     */
+    @Scheduled(fixedDelayString = "${patient-service.outbox.poll-interval:1s}")
+    public void publishPending() {
+        if (Instant.now().isBefore(pausedUntil)) {
+            return;
+        }
+        try {
+            if (!counterChecked) {
+                raiseCounterToStoredPositions();
+                counterChecked = true;
+            }
+            patientShards.forEachShard(shard -> {
+                for (int batch = 0; batch < properties.maxBatchesPerRun(); batch++) {
+                    int count = batchTimer.record((IntSupplier) this::publishBatch);
+                    if (count < properties.batchSize()) {
+                        break;
+                    }
+                }
+            });
+            consecutiveFailures = 0;
+        } catch (RuntimeException ex) {
+            failures.increment();
+            consecutiveFailures++;
+            counterChecked = false;
+            Duration backoff = backoff();
+            pausedUntil = Instant.now().plus(backoff);
+            log.warn("Publishing patient events failed ({} in a row), retrying in {}: {}",
+                    consecutiveFailures, backoff, ex.getMessage());
+        }
+    }
+
+    /**
+     * Removes published events that are older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1M")
+    public void purgePublished() {
+        var removed = new AtomicInteger();
+        var cutoff = Instant.now().minus(properties.retention());
+        patientShards.forEachShard(shard -> removed.addAndGet(
+                transactionTemplate.execute(status -> outboxRepository.deletePublishedBefore(cutoff))));
+        if (removed.get() > 0) {
+            log.info("Purged {} published patient events", removed.get());
+        }
+    }
+
+    /**
+     * Publishes one batch of the current shard while holding the feed counter: in the same
+     * transaction without sharding, in a directory transaction around the shard's otherwise.
+     */
+    private int publishBatch() {
+        if (patientShards.isSharded()) {
+            return patientShards.publishFeed(last -> transactionTemplate.execute(status -> publishBatch(last)));
+        }
+        return transactionTemplate.execute(status -> {
+            int used = publishBatch(outboxRepository.lockLastFeedPosition());
+            if (used > 0) {
+                outboxRepository.advanceFeedPosition(used);
+            }
+            return used;
+        });
+    }
+
+    private int publishBatch(long lastPosition) {
+        var events = outboxRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(properties.batchSize()));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        long position = lastPosition;
+        var now = Instant.now();
+        for (var event : events) {
+            event.markPublished(++position, now);
+        }
+        try {
+            sink.publish(events.stream().map(PatientMapper::toPatientChangeEventDTO).toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        published.increment(events.size());
+        return events.size();
+    }
+
+    /**
+     * Covers positions stored before the counter existed, or by a batch whose directory
+     * transaction failed after the shard committed.
+     */
+    private void raiseCounterToStoredPositions() {
+        long stored = patientShards.fanOut(shard -> outboxRepository.findMaxFeedPosition()).stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0);
+        if (patientShards.isSharded()) {
+            patientShards.raiseFeedPosition(stored);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.raiseFeedPosition(stored));
+        }
+    }
+
+    private Duration backoff() {
+        Duration backoff = properties.pollInterval().multipliedBy(1L << Math.min(consecutiveFailures, 16));
+        return backoff.compareTo(properties.maxBackoff()) > 0 ? properties.maxBackoff() : backoff;
+    }
+}
@@ -1,111 +1,406 @@
 package com.pm.patientservice.service;
 
+import com.pm.patientservice.config.CacheConfig;
+import com.pm.patientservice.datasource.ReplicaContext;
+import com.pm.patientservice.dto.PatientBatchGetResponseDTO;
+import com.pm.patientservice.dto.PatientChangeEventDTO;
+import com.pm.patientservice.dto.PatientChangesResponseDTO;
+import com.pm.patientservice.dto.PatientPageResponseDTO;
 import com.pm.patientservice.dto.PatientRequestDTO;
 import com.pm.patientservice.dto.PatientResponseDTO;
-import com.pm.patientservice.exception.EmailAlreadyExistsException;
+import com.pm.patientservice.dto.PatientSearchRequestDTO;
 import com.pm.patientservice.exception.PatientNotFoundException;
+import com.pm.patientservice.exception.PatientVersionMismatchException;
 import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.PatientChangeType;
+import com.pm.patientservice.model.PatientListVersion;
+import com.pm.patientservice.model.PatientSummary;
+import com.pm.patientservice.model.PatientVersion;
+import com.pm.patientservice.model.TimeOrderedUuidGenerator;
+import com.pm.patientservice.repository.PatientOutboxRepository;
 import com.pm.patientservice.repository.PatientRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service // Marks this class as a Spring service so it can be injected into controllers
 public class PatientService {
 
+    /**
+     * Page size used when the client does not ask for one.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * Upper bound on the page size so a single page can never turn into a full-table read.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Upper bound on the number of IDs accepted by one batch lookup.
+     */
+    public static final int MAX_BATCH_GET_SIZE = 1000;
+
+    /**
+     * IDs per IN query in a batch lookup, keeping the bind-parameter list bounded.
+     */
+    private static final int BATCH_GET_CHUNK_SIZE = 500;
+
     private final PatientRepository patientRepository;
+    private final PatientOutbox patientOutbox;
+    private final PatientOutboxRepository outboxRepository;
+    private final CacheManager cacheManager;
+    private final PatientShards patientShards;
 
     // Constructor-based dependency injection
-    public PatientService(PatientRepository patientRepository) {
+    public PatientService(PatientRepository patientRepository,
+                          PatientOutbox patientOutbox,
+                          PatientOutboxRepository outboxRepository,
+                          CacheManager cacheManager,
+                          PatientShards patientShards) {
         this.patientRepository = patientRepository;
+        this.patientOutbox = patientOutbox;
+        this.outboxRepository = outboxRepository;
+        this.cacheManager = cacheManager;
+        this.patientShards = patientShards;
     }
 
-
     /**
+     * Fetch a single patient by ID.
+     * Results are served from the patient cache when present and cached on a miss.
+     * A miss reads the primary, so a lagging replica cannot cache a deleted or outdated patient.
      *
-     * @param id
-     * @return
+     * @param id Patient ID
+     * @return PatientResponseDTO of the patient
+     * @throws PatientNotFoundException if patient not found
      */
+    @Cacheable(cacheNames = CacheConfig.PATIENTS, key = "#id")
+    @Transactional(readOnly = true)
     public PatientResponseDTO getPatientById(UUID id) {
-        var patient = patientRepository.findById(id)
-                .orElseThrow(() -> new PatientNotFoundException(
-                        "Patient not found with ID: " + id));
-        return PatientMapper.toPatientResponseDTO(patient);
+        try (var primary = ReplicaContext.primary(); var scope = patientShards.forPatient(id)) {
+            var patient = patientRepository.findSummaryById(id)
+                    .orElseThrow(() -> new PatientNotFoundException(id));
+            return PatientMapper.toPatientResponseDTO(patient);
+        }
+    }
+
+    /**
+     * Fetch several patients by ID.
+     * Cached patients are taken from the patient cache; the rest are loaded with chunked
+     * IN queries, on each shard in parallel, and added to the cache. Like a single-patient miss,
+     * they are read from the primary. IDs that do not exist are reported, not thrown.
+     *
+     * @param ids Patient IDs, at most {@value #MAX_BATCH_GET_SIZE}; duplicates are resolved once
+     * @return the found patients in request order and the missing IDs
+     */
+    @Transactional(readOnly = true)
+    public PatientBatchGetResponseDTO getPatientsByIds(List<UUID> ids) {
+        var requested = new LinkedHashSet<>(ids);
+        var cache = patientCache();
+        Map<UUID, PatientResponseDTO> found = new HashMap<>(requested.size() * 2);
+        var uncached = new ArrayList<UUID>();
+        for (var id : requested) {
+            var cached = cache != null ? cache.get(id, PatientResponseDTO.class) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                uncached.add(id);
+            }
+        }
+
+        var uncachedByShard = new ArrayList<List<UUID>>(patientShards.count());
+        for (int shard = 0; shard < patientShards.count(); shard++) {
+            uncachedByShard.add(new ArrayList<>());
+        }
+        for (var id : uncached) {
+            uncachedByShard.get(patientShards.shardOf(id)).add(id);
+        }
+        try (var primary = ReplicaContext.primary()) {
+            for (var summaries : patientShards.fanOut(shard -> findSummaries(uncachedByShard.get(shard)))) {
+                for (var summary : summaries) {
+                    var patient = PatientMapper.toPatientResponseDTO(summary);
+                    found.put(summary.id(), patient);
+                    if (cache != null) {
+                        cache.put(summary.id(), patient);
+                    }
+                }
+            }
+        }
+
+        var patients = new ArrayList<PatientResponseDTO>(found.size());
+        var missingIds = new ArrayList<String>();
+        for (var id : requested) {
+            var patient = found.get(id);
+            if (patient != null) {
+                patients.add(patient);
+            } else {
+                missingIds.add(id.toString());
+            }
+        }
+        return new PatientBatchGetResponseDTO(patients, missingIds);
+    }
+
+    private List<PatientSummary> findSummaries(List<UUID> ids) {
+        var summaries = new ArrayList<PatientSummary>(ids.size());
+        for (int from = 0; from < ids.size(); from += BATCH_GET_CHUNK_SIZE) {
+            var chunk = ids.subList(from, Math.min(from + BATCH_GET_CHUNK_SIZE, ids.size()));
+            summaries.addAll(patientRepository.findSummariesByIdIn(chunk));
+        }
+        return summaries;
+    }
+
+    /**
+     * Fetch only the version and last modification time of a patient, for conditional GETs.
+     * Answered from the patient cache when present, otherwise by a query for those two columns.
+     *
+     * @param id Patient ID
+     * @return the patient's validators
+     * @throws PatientNotFoundException if patient not found
+     */
+    @Transactional(readOnly = true)
+    public PatientVersion getPatientVersion(UUID id) {
+        var cache = patientCache();
+        var cached = cache != null ? cache.get(id, PatientResponseDTO.class) : null;
+        if (cached != null) {
+            return new PatientVersion(cached.getVersion(), cached.getLastModified());
+        }
+        try (var scope = patientShards.forPatient(id)) {
+            return patientRepository.findVersionById(id)
+                    .orElseThrow(() -> new PatientNotFoundException(id));
+        }
+    }
+
+    /**
+     * Fetch the aggregate validators of the full patient list, for conditional list GETs.
+     * With sharding, the validators of all shards are combined.
+     *
+     * @return the list validators
+     */
+    @Transactional(readOnly = true)
+    public PatientListVersion getPatientListVersion() {
+        var versions = patientShards.fanOut(shard -> patientRepository.findListVersion());
+        if (versions.size() == 1) {
+            return versions.get(0);
+        }
+        long count = 0;
+        long versionSum = 0;
+        Instant lastModified = null;
+        for (var version : versions) {
+            count += version.count();
+            versionSum += version.versionSum();
+            if (version.lastModified() != null
+                    && (lastModified == null || version.lastModified().isAfter(lastModified))) {
+                lastModified = version.lastModified();
+            }
+        }
+        return new PatientListVersion(count, lastModified, versionSum);
     }
 
     /**
-     * Fetch all patients from the database.
-     * Maps each Patient entity to a PatientResponseDTO.
+     * Fetch one page of patients using keyset pagination on (registeredDate, id).
+     * Only {@code limit + 1} rows are read regardless of how deep the client has paged
+     * (per shard, merged in keyset order, when sharded).
      *
-     * @return List of PatientResponseDTO
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param limit requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @return the page of patients with the token for the next page
      */
-    public List<PatientResponseDTO> getPatients() {
-        var patients = patientRepository.findAll();
-        return patients.stream()
+    @Transactional(readOnly = true)
+    public PatientPageResponseDTO getPatientPage(String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        var position = cursor == null || cursor.isBlank() ? null : PatientCursor.decode(cursor);
+        // Read one extra row to know whether another page exists
+        var rows = patientShards.fanOut(shard -> position == null
+                ? patientRepository.findFirstPage(Limit.of(pageSize + 1))
+                : patientRepository.findPageAfter(position.registeredDate(), position.id(), Limit.of(pageSize + 1)));
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * Search patients by name prefix, email and date-of-birth / registration date ranges.
+     * Results are keyset-paginated on (registeredDate, id) like {@link #getPatientPage}.
+     *
+     * @param criteria the filters; absent filters are ignored
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param limit requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @return the page of matching patients with the token for the next page
+     */
+    @Transactional(readOnly = true)
+    public PatientPageResponseDTO searchPatients(PatientSearchRequestDTO criteria, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        var after = cursor == null || cursor.isBlank() ? null : PatientCursor.decode(cursor);
+        // Read one extra row to know whether another page exists
+        var rows = patientShards.fanOut(shard -> patientRepository.search(criteria, after, pageSize + 1));
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * Stream every patient to the given consumer in (registeredDate, id) order.
+     * Rows are read through a JDBC cursor as projections that never enter the
+     * persistence context, so memory use stays flat regardless of the table size.
+     * The projections are handed over as-is so the list endpoints can serialize them
+     * with {@link com.pm.patientservice.mapper.PatientJsonWriter} without building DTOs.
+     * With sharding, the shards are read a page at a time and merged in the same order.
+     *
+     * @param consumer receives each patient as it is read
+     */
+    @Transactional(readOnly = true)
+    public void streamPatients(Consumer<PatientSummary> consumer) {
+        if (patientShards.isSharded()) {
+            patientShards.mergedStream(PatientCursor.KEYSET_ORDER, (after, limit) -> after == null
+                            ? patientRepository.findFirstPage(Limit.of(limit))
+                            : patientRepository.findPageAfter(after.registeredDate(), after.id(), Limit.of(limit)))
+                    .forEachRemaining(consumer);
+            return;
+        }
+        try (var patients = patientRepository.streamAll()) {
+            patients.forEach(consumer);
+        }
+    }
+
+    /**
+     * Merges the shards' rows, trims the extra look-ahead row and builds the continuation
+     * token from the last row kept.
+     */
+    private PatientPageResponseDTO toPage(List<List<PatientSummary>> rowsPerShard, int pageSize) {
+        var page = patientShards.mergePage(rowsPerShard, PatientCursor.KEYSET_ORDER, pageSize);
+        var last = page.continueAfter();
+        String nextCursor = last != null ? new PatientCursor(last.registeredDate(), last.id()).encode() : null;
+        var patients = page.rows().stream()
                 .map(PatientMapper::toPatientResponseDTO)
                 .toList();
+        return new PatientPageResponseDTO(patients, nextCursor);
     }
 
     /**
      * Create a new patient.
-     * Checks if a patient with the same email already exists.
+     * Email uniqueness is enforced by the unique constraint on patient.email in the
+     * same INSERT, so there is no separate lookup and no race between check and write.
+     * With sharding, the email is first reserved in the shard directory instead.
+     * A CREATED event is written to the outbox in the same transaction.
      *
      * @param patientRequestDTO Patient data from client
      * @return PatientResponseDTO of the newly created patient
-     * @throws EmailAlreadyExistsException if email already exists
+     * @throws DataIntegrityViolationException if email already exists
+     *         (answered as "email already exists" by GlobalExceptionHandler)
      */
+    @Transactional
     public PatientResponseDTO createPatient(PatientRequestDTO patientRequestDTO) {
-        // Check if email already exists
-        if (!patientRepository.existsByEmail(patientRequestDTO.getEmail())) {
-            throw new EmailAlreadyExistsException(
-                    "A patient with this email already exists " + patientRequestDTO.getEmail()
-            );
-        }
-        // Convert DTO to entity, save it, and return response DTO
-        var patient = patientRepository.save(PatientMapper.toModel(patientRequestDTO));
-        return PatientMapper.toPatientResponseDTO(patient);
+        var patient = PatientMapper.toModel(patientRequestDTO);
+        // Assign the ID up front so the insert can go to the patient's shard
+        patient.setId(TimeOrderedUuidGenerator.next());
+        try (var scope = patientShards.forWrite(patient.getId())) {
+            patientShards.reserveEmail(patient.getEmail(), patient.getId());
+            // Insert the entity; flushing surfaces a duplicate email here
+            patient = patientRepository.saveAndFlush(patient);
+            var responseDTO = PatientMapper.toPatientResponseDTO(patient);
+            patientOutbox.record(PatientChangeType.CREATED, patient.getId(), responseDTO);
+            return responseDTO;
+        }
     }
 
     /**
      * Update an existing patient.
-     * Checks if patient exists and ensures email uniqueness.
+     * Checks if patient exists; email uniqueness is enforced by the UPDATE itself.
+     * The UPDATE is guarded by the patient's version, so a concurrent change fails
+     * this call instead of being silently overwritten.
+     * An UPDATED event is written to the outbox in the same transaction.
      *
      * @param id Patient ID to update
      * @param patientRequestDTO New patient data
+     * @param expectedVersion version the client last saw (from If-Match), or null to skip the check
      * @return Updated PatientResponseDTO
      * @throws PatientNotFoundException if patient not found
-     * @throws EmailAlreadyExistsException if new email is already used by another patient
-     */
-    public PatientResponseDTO updatePatient(UUID id, PatientRequestDTO patientRequestDTO) {
-        var patient = patientRepository.findById(id)
-                .orElseThrow(() -> new PatientNotFoundException(
-                        "Patient not found with ID: " + id
-                ));
-        // Check if email is already used by another patient
-        if (patientRepository.existsByEmailAndIdNot(patientRequestDTO.getEmail(), id)) {
-            throw new EmailAlreadyExistsException(
-                    "A patient with this email already exists " + patientRequestDTO.getEmail()
-            );
-        }
-        // Update patient fields
-        patient.setName(patientRequestDTO.getName());
-        patient.setAddress(patientRequestDTO.getAddress());
-        patient.setEmail(patientRequestDTO.getEmail());
-        patient.setDateOfBirth(LocalDate.parse(patientRequestDTO.getDateOfBirth()));
-
-        var updatedPatient = patientRepository.save(patient);
-        return PatientMapper.toPatientResponseDTO(updatedPatient);
+     * @throws PatientVersionMismatchException if expectedVersion is not the current version
+     * @throws DataIntegrityViolationException if new email is already used by another patient
+     *         (answered as "email already exists" by GlobalExceptionHandler)
+     */
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.PATIENTS, key = "#id")
+    public PatientResponseDTO updatePatient(UUID id, PatientRequestDTO patientRequestDTO, Long expectedVersion) {
+        try (var scope = patientShards.forWrite(id)) {
+            var patient = patientRepository.findById(id)
+                    .orElseThrow(() -> new PatientNotFoundException(id));
+            if (expectedVersion != null && !expectedVersion.equals(patient.getVersion())) {
+                throw new PatientVersionMismatchException(
+                        "Patient " + id + " is at version " + patient.getVersion() + ", not " + expectedVersion);
+            }
+            if (!patient.getEmail().equals(patientRequestDTO.getEmail())) {
+                patientShards.reserveEmail(patientRequestDTO.getEmail(), id);
+                patientShards.releaseEmailAfterCommit(patient.getEmail(), id);
+            }
+            // Update patient fields
+            patient.setName(patientRequestDTO.getName());
+            patient.setAddress(patientRequestDTO.getAddress());
+            patient.setEmail(patientRequestDTO.getEmail());
+            patient.setDateOfBirth(LocalDate.parse(patientRequestDTO.getDateOfBirth()));
+
+            // Flush inside the transaction so a duplicate email fails this call, not the commit
+            var updatedPatient = patientRepository.saveAndFlush(patient);
+            var responseDTO = PatientMapper.toPatientResponseDTO(updatedPatient);
+            patientOutbox.record(PatientChangeType.UPDATED, id, responseDTO);
+            return responseDTO;
+        }
     }
 
     /**
      * Delete a patient by ID.
+     * A DELETED event is written to the outbox in the same transaction if a patient was removed.
      *
      * @param id Patient ID to delete
      */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#id")
     public void deletePatient(UUID id) {
-        patientRepository.deleteById(id);
+        try (var scope = patientShards.forWrite(id)) {
+            if (patientRepository.removeById(id) > 0) {
+                patientOutbox.record(PatientChangeType.DELETED, id, null);
+                patientShards.releaseEmailsAfterCommit(id);
+            }
+        }
     }
-}
 
+    /**
+     * Fetch published patient changes after a feed position, for incremental sync.
+     * Events appear here once the outbox publisher has delivered them. With sharding, each
+     * shard keeps the events of its own patients and the pages are merged by feed position.
+     *
+     * @param since the last feed position the consumer has processed (0 to start from the beginning)
+     * @param limit requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @return the changes and the position to continue from
+     */
+    @Transactional(readOnly = true)
+    public PatientChangesResponseDTO getChanges(long since, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        var changesPerShard = patientShards.fanOut(shard -> outboxRepository
+                .findByFeedPositionGreaterThanOrderByFeedPositionAsc(since, Limit.of(pageSize))
+                .stream()
+                .map(PatientMapper::toPatientChangeEventDTO)
+                .toList());
+        var changes = PatientShards.merge(changesPerShard,
+                Comparator.comparing(PatientChangeEventDTO::getPosition), pageSize);
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getPosition();
+        return new PatientChangesResponseDTO(changes, next);
+    }
+
+    private Cache patientCache() {
+        return cacheManager.getCache(CacheConfig.PATIENTS);
+    }
+}
@@ -0,0 +1,34 @@
+package com.pm.patientservice.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint for sharding: {@code GET /actuator/shards} reports how the buckets are
+ * spread over the shards, {@code POST /actuator/shards} moves buckets to match the weights.
+ */
+@Component
+@Endpoint(id = "shards")
+@ConditionalOnProperty(prefix = "patient-service.sharding", name = "enabled", havingValue = "true")
+public class PatientShardEndpoint {
+
+    private final PatientShardRebalancer rebalancer;
+
+    // Constructor-based dependency injection
+    public PatientShardEndpoint(PatientShardRebalancer rebalancer) {
+        this.rebalancer = rebalancer;
+    }
+
+    @ReadOperation
+    public PatientShardRebalancer.Status status() {
+        return rebalancer.status();
+    }
+
+    @WriteOperation
+    public PatientShardRebalancer.Status rebalance() {
+        return rebalancer.rebalance();
+    }
+}
@@ -0,0 +1,299 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.config.ShardingProperties;
+import com.pm.patientservice.datasource.ShardDirectory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Moves hash buckets between shards until every shard owns a share of the buckets
+ * proportional to its configured weight.
+ * <p>
+ * Buckets are moved in passes of {@code moveBuckets}. A pass records the move in the bucket
+ * map, holds the buckets (waiting for writes in flight, then rejecting new ones with a
+ * retryable error), copies their rows to the target shard, switches the owner and lets writes
+ * through again; the old copies are deleted afterwards. Reads never stop: until the switch they are
+ * served by the old shard, after it by the new one, and copies on a shard that no longer owns
+ * the bucket are skipped. A pass interrupted by a failure or restart is finished by the next
+ * {@link #rebalance()}, which also runs in the background at startup.
+ * <p>
+ * The bucket map is read at startup, so other instances must be restarted after a rebalance.
+ */
+@Service
+@ConditionalOnProperty(prefix = "patient-service.sharding", name = "enabled", havingValue = "true")
+public class PatientShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientShardRebalancer.class);
+
+    private static final String COLUMNS = "id, name, email, address, date_of_birth, registered_date, version, updated_at";
+
+    private final ShardDirectory directory;
+    private final PatientShards patientShards;
+    private final ShardingProperties properties;
+    private final Counter rowsMoved;
+
+    /**
+     * One shard's share of the buckets.
+     *
+     * @param name the shard's name
+     * @param weight its configured weight
+     * @param buckets the buckets it owns now
+     */
+    public record ShardStatus(String name, int weight, int buckets) {
+    }
+
+    /**
+     * State of the bucket map.
+     *
+     * @param buckets total number of buckets
+     * @param shards each shard's share
+     * @param bucketsToMove buckets a rebalance would move to match the weights
+     * @param unfinishedMoves buckets whose move was interrupted
+     * @param unfinishedCleanups moved buckets whose old copies are not deleted yet
+     */
+    public record Status(int buckets, List<ShardStatus> shards, int bucketsToMove,
+                         int unfinishedMoves, int unfinishedCleanups) {
+    }
+
+    // Constructor-based dependency injection
+    public PatientShardRebalancer(ShardDirectory directory,
+                                  PatientShards patientShards,
+                                  ShardingProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.patientShards = patientShards;
+        this.properties = properties;
+        this.rowsMoved = Counter.builder("patient.shard.rows.moved")
+                .description("Patient rows copied to another shard by the rebalancer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finishes interrupted moves without holding up startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRecovery() {
+        var recovery = new Thread(() -> {
+            try {
+                recover();
+            } catch (RuntimeException ex) {
+                log.error("Finishing interrupted bucket moves failed; retry with POST /actuator/shards", ex);
+            }
+        }, "patient-shard-recovery");
+        recovery.setDaemon(true);
+        recovery.start();
+    }
+
+    /**
+     * Finishes interrupted moves, then moves buckets until the shares match the weights.
+     *
+     * @return the state after the rebalance
+     */
+    public synchronized Status rebalance() {
+        long start = System.nanoTime();
+        recover();
+        var owners = directory.owners();
+        var planned = ShardDirectory.balance(owners, weights());
+        var moves = new HashMap<List<Integer>, List<Integer>>();
+        for (int bucket = 0; bucket < owners.length; bucket++) {
+            if (owners[bucket] != planned[bucket]) {
+                moves.computeIfAbsent(List.of(owners[bucket], planned[bucket]), route -> new ArrayList<>()).add(bucket);
+            }
+        }
+        long rows = 0;
+        int buckets = 0;
+        for (var move : moves.entrySet()) {
+            rows += moveAll(move.getValue(), move.getKey().get(0), move.getKey().get(1));
+            buckets += move.getValue().size();
+        }
+        log.info("Rebalanced shards: moved {} buckets with {} patients in {} ms",
+                buckets, rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return status();
+    }
+
+    /**
+     * @return the current state of the bucket map
+     */
+    public Status status() {
+        var owners = directory.owners();
+        var weights = weights();
+        var counts = new int[weights.length];
+        for (int owner : owners) {
+            counts[owner]++;
+        }
+        var shards = new ArrayList<ShardStatus>(weights.length);
+        for (int shard = 0; shard < weights.length; shard++) {
+            shards.add(new ShardStatus(directory.shards().get(shard).name(), weights[shard], counts[shard]));
+        }
+        var planned = ShardDirectory.balance(owners, weights);
+        int toMove = 0;
+        for (int bucket = 0; bucket < owners.length; bucket++) {
+            if (owners[bucket] != planned[bucket]) {
+                toMove++;
+            }
+        }
+        return new Status(owners.length, shards, toMove,
+                directory.unfinishedMoves().values().stream().mapToInt(List::size).sum(),
+                directory.unfinishedCleanups().values().stream().mapToInt(List::size).sum());
+    }
+
+    private int[] weights() {
+        return properties.shards().stream().mapToInt(ShardingProperties.Shard::weight).toArray();
+    }
+
+    /**
+     * Repeats interrupted moves from the shard that still owns the bucket, then deletes the
+     * copies left on shards that gave buckets away.
+     */
+    private synchronized void recover() {
+        var owners = directory.owners();
+        directory.unfinishedMoves().forEach((target, buckets) -> {
+            var bySource = new HashMap<Integer, List<Integer>>();
+            buckets.forEach(bucket -> bySource.computeIfAbsent(owners[bucket], source -> new ArrayList<>()).add(bucket));
+            bySource.forEach((source, moving) -> {
+                log.info("Resuming the move of {} buckets from shard {} to shard {}", moving.size(), source, target);
+                moveAll(moving, source, target);
+            });
+        });
+        directory.unfinishedCleanups().forEach((source, buckets) -> {
+            log.info("Deleting the copies of {} moved buckets from shard {}", buckets.size(), source);
+            deleteCopies(buckets, source);
+            directory.finishCleanup(buckets);
+        });
+    }
+
+    private long moveAll(List<Integer> buckets, int source, int target) {
+        long rows = 0;
+        for (int from = 0; from < buckets.size(); from += properties.moveBuckets()) {
+            rows += move(buckets.subList(from, Math.min(from + properties.moveBuckets(), buckets.size())), source, target);
+        }
+        return rows;
+    }
+
+    private long move(List<Integer> buckets, int source, int target) {
+        if (source == target) {
+            directory.finishMove(buckets, target);
+            return 0;
+        }
+        directory.startMove(buckets, target);
+        long copied;
+        patientShards.holdBuckets(buckets);
+        try {
+            copied = copy(new HashSet<>(buckets), source, target);
+            directory.finishMove(buckets, target);
+        } finally {
+            patientShards.releaseBuckets(buckets);
+        }
+        deleteCopies(buckets, source);
+        directory.finishCleanup(buckets);
+        rowsMoved.increment(copied);
+        return copied;
+    }
+
+    /**
+     * Copies the rows of the buckets to the target, replacing any copies left there by an
+     * earlier attempt, one batch per transaction.
+     */
+    private long copy(Set<Integer> buckets, int source, int target) {
+        var targetDataSource = dataSource(target);
+        var targetJdbc = new NamedParameterJdbcTemplate(targetDataSource);
+        var targetTransaction = new TransactionTemplate(new DataSourceTransactionManager(targetDataSource));
+        var insert = "INSERT INTO patient (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        long copied = 0;
+        var batch = new ArrayList<Object[]>(properties.copyBatchSize());
+        for (UUID after = null; ; ) {
+            batch.clear();
+            after = scan(source, after, buckets, row -> batch.add(row));
+            if (!batch.isEmpty()) {
+                var ids = batch.stream().map(row -> row[0]).toList();
+                targetTransaction.executeWithoutResult(status -> {
+                    targetJdbc.update("DELETE FROM patient WHERE id IN (:ids)", Map.of("ids", ids));
+                    targetJdbc.getJdbcTemplate().batchUpdate(insert, batch);
+                });
+                copied += batch.size();
+            }
+            if (after == null) {
+                return copied;
+            }
+        }
+    }
+
+    /**
+     * Deletes the rows of the buckets from a shard that no longer owns them.
+     */
+    private void deleteCopies(List<Integer> buckets, int source) {
+        var sourceJdbc = new NamedParameterJdbcTemplate(dataSource(source));
+        var sourceTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource(source)));
+        var inBuckets = new HashSet<>(buckets);
+        var ids = new ArrayList<Object>();
+        for (UUID after = null; ; ) {
+            ids.clear();
+            after = scan(source, after, inBuckets, row -> ids.add(row[0]));
+            if (!ids.isEmpty()) {
+                sourceTransaction.executeWithoutResult(status ->
+                        sourceJdbc.update("DELETE FROM patient WHERE id IN (:ids)", Map.of("ids", ids)));
+            }
+            if (after == null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the next {@code copyBatchSize} rows of a shard in ID order and passes on those in
+     * the given buckets.
+     *
+     * @return the last ID read, or null once the shard has been read to the end
+     */
+    private UUID scan(int shard, UUID after, Set<Integer> buckets, Consumer<Object[]> rows) {
+        var jdbc = new JdbcTemplate(dataSource(shard));
+        var lastId = new UUID[1];
+        var read = new int[1];
+        RowCallbackHandler handler = row -> {
+            var values = new Object[8];
+            for (int column = 0; column < values.length; column++) {
+                values[column] = row.getObject(column + 1);
+            }
+            var id = row.getObject(1, UUID.class);
+            lastId[0] = id;
+            read[0]++;
+            if (buckets.contains(directory.bucketOf(id))) {
+                rows.accept(values);
+            }
+        };
+        if (after == null) {
+            jdbc.query("SELECT " + COLUMNS + " FROM patient ORDER BY id FETCH FIRST ? ROWS ONLY",
+                    handler, properties.copyBatchSize());
+        } else {
+            jdbc.query("SELECT " + COLUMNS + " FROM patient WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY",
+                    handler, after, properties.copyBatchSize());
+        }
+        return read[0] < properties.copyBatchSize() ? null : lastId[0];
+    }
+
+    private DataSource dataSource(int shard) {
+        return directory.shards().get(shard).dataSource();
+    }
+}
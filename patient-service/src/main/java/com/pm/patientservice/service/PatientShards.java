@@ -0,0 +1,513 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.config.ShardingProperties;
+import com.pm.patientservice.datasource.ShardContext;
+import com.pm.patientservice.datasource.ShardDirectory;
+import com.pm.patientservice.exception.EmailAlreadyExistsException;
+import com.pm.patientservice.exception.ShardMovingException;
+import com.pm.patientservice.model.PatientSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Tells the service which shard a patient lives on and runs work there.
+ * <p>
+ * Without sharding there is a single shard, index 0: scopes do nothing, fan-outs run the
+ * query once in the caller's transaction, and email reservations are left to the unique
+ * constraint, so the service code is the same either way.
+ * <p>
+ * With sharding ({@link ShardingProperties}):
+ * <ul>
+ *   <li>{@link #forPatient} and {@link #forWrite} set the shard for the caller's transaction,
+ *       which must not have run a statement yet. Writes also hold off the rebalancer until the
+ *       transaction completes, and are rejected while their bucket is being moved.</li>
+ *   <li>{@link #fanOut} runs a query on every shard in parallel, each in its own read-only
+ *       transaction; the caller merges the results. Rows found on a shard that does not own
+ *       them (copies left by a move in progress) are for the caller to skip with {@link #owns}.</li>
+ *   <li>Emails are reserved in the directory before the insert or update and released again
+ *       if the transaction rolls back, which keeps them unique across shards.</li>
+ * </ul>
+ */
+@Component
+public class PatientShards {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientShards.class);
+
+    /**
+     * Rows per shard and round trip when streaming merged shards.
+     */
+    private static final int STREAM_PAGE_SIZE = 500;
+
+    /**
+     * Restores the previous shard when closed.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Scope NONE = () -> {
+    };
+
+    private final ShardDirectory directory;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolTaskExecutor fanOutExecutor;
+    private final Duration fanOutTimeout;
+    private final Timer fanOutTimer;
+    private final ReentrantReadWriteLock moveLock = new ReentrantReadWriteLock();
+
+    /** Buckets being moved, indexed by bucket; replaced, never modified, under the write lock. */
+    private volatile boolean[] moving;
+
+    // Constructor-based dependency injection
+    public PatientShards(ShardingProperties properties,
+                         ObjectProvider<ShardDirectory> directory,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.directory = properties.enabled() ? directory.getObject() : null;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fanOutTimeout = properties.fanOutTimeout();
+        this.fanOutTimer = meterRegistry.timer("patient.shard.fanout");
+        if (this.directory != null) {
+            this.moving = new boolean[this.directory.buckets()];
+            int threads = properties.fanOutThreads() > 0 ? properties.fanOutThreads() : count();
+            this.fanOutExecutor = new ThreadPoolTaskExecutor();
+            this.fanOutExecutor.setCorePoolSize(threads);
+            this.fanOutExecutor.setMaxPoolSize(threads);
+            this.fanOutExecutor.setThreadNamePrefix("patient-shard-fanout-");
+            this.fanOutExecutor.setDaemon(true);
+            this.fanOutExecutor.initialize();
+        } else {
+            this.fanOutExecutor = null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdown();
+        }
+    }
+
+    /**
+     * @return whether patients are spread over several databases
+     */
+    public boolean isSharded() {
+        return directory != null;
+    }
+
+    /**
+     * @return the number of shards; 1 without sharding
+     */
+    public int count() {
+        return directory != null ? directory.shards().size() : 1;
+    }
+
+    /**
+     * @return the index of the shard that owns the patient ID
+     */
+    public int shardOf(UUID id) {
+        return directory != null ? directory.shardOf(id) : 0;
+    }
+
+    /**
+     * @return whether the shard owns the patient ID, i.e. a row read there is not a stale copy
+     */
+    public boolean owns(int shard, UUID id) {
+        return directory == null || directory.shardOf(id) == shard;
+    }
+
+    /**
+     * Sends the statements of the current transaction, or of transactions begun inside the
+     * scope, to the given shard.
+     */
+    public Scope on(int shard) {
+        if (directory == null) {
+            return NONE;
+        }
+        var previous = ShardContext.set(shard);
+        return () -> ShardContext.set(previous);
+    }
+
+    /**
+     * Scope for reading a patient: its shard.
+     */
+    public Scope forPatient(UUID id) {
+        return on(shardOf(id));
+    }
+
+    /**
+     * Scope for writing a patient: its shard, with the bucket held in place until the current
+     * transaction completes.
+     *
+     * @throws ShardMovingException if the patient's bucket is being moved
+     */
+    public Scope forWrite(UUID id) {
+        return directory != null ? hold(List.of(id)) : NONE;
+    }
+
+    /**
+     * Scope for writing patients that the caller grouped by {@link #shardOf}; see
+     * {@link #forWrite(UUID)}.
+     *
+     * @throws ShardMovingException if a patient's bucket is being moved, or moved after grouping
+     */
+    public Scope forWriteAll(Collection<UUID> ids) {
+        return directory != null && !ids.isEmpty() ? hold(ids) : NONE;
+    }
+
+    private Scope hold(Collection<UUID> ids) {
+        var lock = moveLock.readLock();
+        lock.lock();
+        try {
+            var movingNow = moving;
+            int shard = -1;
+            for (var id : ids) {
+                int bucket = directory.bucketOf(id);
+                int owner = directory.shardOf(id);
+                if (movingNow[bucket] || (shard >= 0 && owner != shard)) {
+                    throw new ShardMovingException("Bucket " + bucket + " is being moved to another shard");
+                }
+                shard = owner;
+            }
+            // Read inside the lock: a move switches owners only while its buckets are held
+            boolean releasedAfterCompletion = TransactionSynchronizationManager.isSynchronizationActive();
+            if (releasedAfterCompletion) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.unlock();
+                    }
+                });
+            }
+            var previous = ShardContext.set(shard);
+            return () -> {
+                ShardContext.set(previous);
+                if (!releasedAfterCompletion) {
+                    lock.unlock();
+                }
+            };
+        } catch (RuntimeException ex) {
+            lock.unlock();
+            throw ex;
+        }
+    }
+
+    /**
+     * Runs a query on every shard, in parallel, each in its own read-only transaction.
+     * Without sharding the query runs once, in the caller's transaction.
+     *
+     * @param query receives the shard index
+     * @return the results, indexed by shard
+     * @throws QueryTimeoutException if a shard does not answer within the fan-out timeout
+     */
+    public <T> List<T> fanOut(IntFunction<T> query) {
+        if (directory == null) {
+            return Collections.singletonList(query.apply(0));
+        }
+        long start = System.nanoTime();
+        var futures = new ArrayList<CompletableFuture<T>>(count());
+        for (int shard = 0; shard < count(); shard++) {
+            int index = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> read(index, () -> query.apply(index)), fanOutExecutor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(fanOutTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (TimeoutException ex) {
+            futures.forEach(future -> future.cancel(true));
+            throw new QueryTimeoutException("Shards did not answer within " + fanOutTimeout);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shard query failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", ex);
+        } finally {
+            fanOutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Runs an action once per shard, one after the other, inside that shard's scope.
+     * The action begins its own transactions.
+     */
+    public void forEachShard(IntConsumer action) {
+        for (int shard = 0; shard < count(); shard++) {
+            try (var scope = on(shard)) {
+                action.accept(shard);
+            }
+        }
+    }
+
+    /**
+     * Runs a query on one shard in a read-only transaction.
+     */
+    public <T> T read(int shard, Supplier<T> query) {
+        try (var scope = on(shard)) {
+            return readOnlyTransaction.execute(status -> query.get());
+        }
+    }
+
+    /**
+     * Streams rows from every shard merged into one order, reading each shard a page at a
+     * time in short transactions. Unlike a single cursor there is no snapshot across pages.
+     *
+     * @param order the order the pages are sorted in
+     * @param pageAfter reads the page following the given row (null for the first page)
+     */
+    public Iterator<PatientSummary> mergedStream(Comparator<PatientSummary> order,
+                                                 BiFunction<PatientSummary, Integer, List<PatientSummary>> pageAfter) {
+        return new ShardMergeIterator(this, order, pageAfter, STREAM_PAGE_SIZE);
+    }
+
+    /**
+     * Merges per-shard results that are each sorted in the given order.
+     *
+     * @param perShard results indexed by shard
+     * @param order the sort order of each list
+     * @param limit maximum number of rows to return
+     * @return the first {@code limit} rows across all shards
+     */
+    public static <T> List<T> merge(List<List<T>> perShard, Comparator<? super T> order, int limit) {
+        if (perShard.size() == 1) {
+            var only = perShard.get(0);
+            return only.size() > limit ? only.subList(0, limit) : only;
+        }
+        var merged = new ArrayList<T>();
+        perShard.forEach(merged::addAll);
+        merged.sort(order);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    /**
+     * One page of a keyset-paginated list merged from every shard.
+     *
+     * @param rows the patients on the page, in keyset order
+     * @param continueAfter the position the next page starts after, or null on the last page
+     */
+    public record KeysetPage(List<PatientSummary> rows, PatientSummary continueAfter) {
+    }
+
+    /**
+     * Merges the pages read from every shard for one keyset page. Each shard is asked for
+     * {@code pageSize + 1} rows so a full result shows that more may follow.
+     * <p>
+     * Rows a shard does not own are dropped. Since that can leave a full shard with fewer rows
+     * than it read, the page stops at the lowest last row among full shards: beyond it, that
+     * shard may hold rows it has not returned yet.
+     *
+     * @param perShard rows read from each shard, each in keyset order, indexed by shard
+     * @param order the keyset order
+     * @param pageSize rows per page
+     */
+    public KeysetPage mergePage(List<List<PatientSummary>> perShard, Comparator<PatientSummary> order, int pageSize) {
+        if (perShard.size() == 1) {
+            var rows = perShard.get(0);
+            return rows.size() > pageSize
+                    ? new KeysetPage(rows.subList(0, pageSize), rows.get(pageSize - 1))
+                    : new KeysetPage(rows, null);
+        }
+        PatientSummary bound = null;
+        var merged = new ArrayList<PatientSummary>();
+        for (int shard = 0; shard < perShard.size(); shard++) {
+            var rows = perShard.get(shard);
+            if (rows.size() > pageSize) {
+                var lastRead = rows.get(rows.size() - 1);
+                if (bound == null || order.compare(lastRead, bound) < 0) {
+                    bound = lastRead;
+                }
+            }
+            for (var row : rows) {
+                if (owns(shard, row.id())) {
+                    merged.add(row);
+                }
+            }
+        }
+        merged.sort(order);
+        int end = merged.size();
+        if (bound != null) {
+            while (end > 0 && order.compare(merged.get(end - 1), bound) > 0) {
+                end--;
+            }
+        }
+        if (end > pageSize) {
+            end = pageSize;
+        } else if (bound == null) {
+            return new KeysetPage(merged, null);
+        }
+        var rows = merged.subList(0, end);
+        return new KeysetPage(rows, rows.isEmpty() ? bound : rows.get(end - 1));
+    }
+
+    /**
+     * Reserves an email for a patient in the current transaction, releasing it again if the
+     * transaction does not commit. Without sharding the unique constraint does this.
+     *
+     * @throws EmailAlreadyExistsException if another patient holds the email
+     */
+    public void reserveEmail(String email, UUID patientId) {
+        if (directory == null) {
+            return;
+        }
+        if (!directory.reserveEmail(email, patientId)) {
+            throw new EmailAlreadyExistsException("Email is held by another patient");
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(() -> directory.releaseEmail(email, patientId), patientId);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Releases an email the patient no longer uses once the current transaction commits.
+     */
+    public void releaseEmailAfterCommit(String email, UUID patientId) {
+        if (directory != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(() -> directory.releaseEmail(email, patientId), patientId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Releases the emails of a deleted patient once the current transaction commits.
+     */
+    public void releaseEmailsAfterCommit(UUID patientId) {
+        if (directory != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(() -> directory.releaseEmails(patientId), patientId);
+                }
+            });
+        }
+    }
+
+    private static void release(Runnable release, UUID patientId) {
+        try {
+            release.run();
+        } catch (RuntimeException ex) {
+            // The reservation is taken over once it is old enough, see ShardDirectory
+            log.warn("Releasing the email reservation of patient {} failed", patientId, ex);
+        }
+    }
+
+    /**
+     * Reserves emails for new patients outside any transaction, for bulk imports.
+     *
+     * @return the emails held by other patients, which were not reserved
+     */
+    public Set<String> reserveEmails(Map<String, UUID> reservations) {
+        return directory != null ? directory.reserveEmails(reservations) : Set.of();
+    }
+
+    /**
+     * Releases emails reserved with {@link #reserveEmails} whose patients were not inserted.
+     */
+    public void releaseEmails(Map<String, UUID> reservations) {
+        if (directory != null) {
+            reservations.forEach((email, patientId) -> release(() -> directory.releaseEmail(email, patientId), patientId));
+        }
+    }
+
+    /**
+     * Runs a publishing step under the directory's feed counter lock; only with sharding.
+     *
+     * @see ShardDirectory#publishFeed
+     */
+    public int publishFeed(LongToIntFunction publish) {
+        return directory.publishFeed(publish);
+    }
+
+    /**
+     * Raises the directory's feed counter to at least the given position; only with sharding.
+     */
+    public void raiseFeedPosition(long position) {
+        directory.raiseFeedPosition(position);
+    }
+
+    /**
+     * Returns which of the given emails are held by some patient, from the directory.
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return directory.findExistingEmails(emails);
+    }
+
+    /**
+     * Marks buckets as moving. Returns once no write transaction on them is in flight; later
+     * writes are rejected until {@link #releaseBuckets} is called.
+     */
+    void holdBuckets(Collection<Integer> buckets) {
+        var lock = moveLock.writeLock();
+        lock.lock();
+        try {
+            var next = moving.clone();
+            buckets.forEach(bucket -> next[bucket] = true);
+            moving = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Accepts writes to buckets again after {@link #holdBuckets}.
+     */
+    void releaseBuckets(Collection<Integer> buckets) {
+        var lock = moveLock.writeLock();
+        lock.lock();
+        try {
+            var next = moving.clone();
+            buckets.forEach(bucket -> next[bucket] = false);
+            moving = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package com.pm.patientservice.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of patient name and address trigrams, for typo-tolerant search.
+ * <p>
+ * Text is folded to lower-case ASCII where possible (accents dropped, a few letters such as
+ * {@code ß} transliterated) and split into words; each word is padded like PostgreSQL's
+ * pg_trgm does ({@code "  word "}) and cut into trigrams. A query is scored against each field
+ * with the trigram similarity {@code shared / (query + field - shared)}; a patient's score is
+ * the better of its name and address scores.
+ * <p>
+ * Postings are append-only lists of patient ordinals. Updates and deletes retire the old
+ * ordinal; retired ordinals are skipped by searches and dropped from the postings once they
+ * outnumber live ones. Readers share a read lock and writers take the write lock.
+ * <p>
+ * While the initial load is running ({@link #load}), deletes are remembered so a row read by
+ * the load before it was deleted is not added back; {@link #finishLoading()} ends that phase.
+ */
+public final class PatientTrigramIndex {
+
+    /**
+     * Longest query, in characters, that is indexed; the rest is ignored.
+     */
+    public static final int MAX_QUERY_LENGTH = 100;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Retired ordinals tolerated before the postings are compacted.
+     */
+    private static final int MIN_RETIRED_BEFORE_COMPACTION = 1024;
+
+    /**
+     * Address trigram counts live in the upper half of a packed per-patient counter.
+     */
+    private static final int ADDRESS_SHIFT = 16;
+    private static final int FIELD_MASK = 0xFFFF;
+
+    /**
+     * Address trigrams are keyed apart from name trigrams by a bit above the three packed characters.
+     */
+    private static final long ADDRESS_FIELD = 1L << 48;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Set<UUID> deletedWhileLoading = new HashSet<>();
+
+    /**
+     * Per-query hit counters indexed by ordinal, reused so a search does not allocate one per patient.
+     */
+    private final ConcurrentLinkedQueue<int[]> scratch = new ConcurrentLinkedQueue<>();
+
+    private UUID[] ids = new UUID[1024];
+    private long[] versions = new long[1024];
+    /** Distinct name trigrams in the low half, address trigrams in the high half. */
+    private int[] trigramCounts = new int[1024];
+    private int size;
+    private int retired;
+    private boolean loading = true;
+
+    /**
+     * A ranked search result.
+     *
+     * @param id the patient ID
+     * @param score trigram similarity in (0, 1]
+     */
+    public record Match(UUID id, double score) {
+    }
+
+    /**
+     * Adds or replaces a patient after a committed change.
+     * Ignored if the index already holds this or a newer version.
+     *
+     * @param id the patient ID
+     * @param version the patient's optimistic-locking version
+     * @param name the patient's name
+     * @param address the patient's address
+     */
+    public void put(UUID id, long version, String name, String address) {
+        var nameTrigrams = trigrams(name);
+        var addressTrigrams = trigrams(address);
+        lock.writeLock().lock();
+        try {
+            add(id, version, nameTrigrams, addressTrigrams);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a patient read by the initial load, unless it was deleted or changed since it was read.
+     *
+     * @param id the patient ID
+     * @param version the patient's optimistic-locking version
+     * @param name the patient's name
+     * @param address the patient's address
+     */
+    public void load(UUID id, long version, String name, String address) {
+        var nameTrigrams = trigrams(name);
+        var addressTrigrams = trigrams(address);
+        lock.writeLock().lock();
+        try {
+            if (!deletedWhileLoading.contains(id)) {
+                add(id, version, nameTrigrams, addressTrigrams);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ends the initial load; deletes are no longer remembered.
+     */
+    public void finishLoading() {
+        lock.writeLock().lock();
+        try {
+            loading = false;
+            deletedWhileLoading.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true once {@link #finishLoading()} has been called
+     */
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return !loading;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a patient after a committed delete.
+     *
+     * @param id the patient ID
+     */
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                deletedWhileLoading.add(id);
+            }
+            var ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                retire(ordinal);
+                compactIfMostlyRetired();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed patients
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the patients whose name or address is most similar to the query.
+     *
+     * @param query free text; only the first {@value #MAX_QUERY_LENGTH} characters are used
+     * @param minSimilarity lowest score to return, in [0, 1]
+     * @param limit maximum number of matches
+     * @return matches by descending score, ties in indexing order
+     */
+    public List<Match> search(String query, double minSimilarity, int limit) {
+        if (query == null || limit <= 0) {
+            return List.of();
+        }
+        var queryTrigrams = trigrams(query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query);
+        if (queryTrigrams.length == 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            var counts = borrowScratch(size);
+            var touched = new Postings();
+            try {
+                // A patient scoring at least minSimilarity on a field shares at least this many trigrams with it
+                int required = Math.max(1, (int) Math.ceil(minSimilarity * queryTrigrams.length - 1e-9));
+                countField(queryTrigrams, 0, 0, required, counts, touched);
+                countField(queryTrigrams, ADDRESS_FIELD, ADDRESS_SHIFT, required, counts, touched);
+                return rank(queryTrigrams.length, counts, touched, minSimilarity, limit);
+            } finally {
+                for (int i = 0; i < touched.size; i++) {
+                    counts[touched.ordinals[i]] = 0;
+                }
+                scratch.offer(counts);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts, in the field's half of {@code counts}, the query trigrams each candidate shares with one field.
+     * <p>
+     * A patient missing from all of the {@code queryTrigrams - required + 1} rarest postings
+     * lists shares fewer than {@code required} trigrams, so only those lists are scanned to
+     * find candidates. The remaining, most common lists are only probed for the candidates,
+     * by binary search when that is cheaper than a scan (postings are in ordinal order).
+     */
+    private void countField(long[] queryTrigrams, long field, int shift, int required,
+                            int[] counts, Postings touched) {
+        var lists = new Postings[queryTrigrams.length];
+        int found = 0;
+        for (long trigram : queryTrigrams) {
+            var list = postings.get(trigram | field);
+            if (list != null) {
+                lists[found++] = list;
+            }
+        }
+        // Trigrams absent from the index are among the rarest lists; each one lowers the number left to scan
+        int scanned = queryTrigrams.length - required + 1 - (queryTrigrams.length - found);
+        if (scanned <= 0) {
+            return;
+        }
+        lists = Arrays.copyOf(lists, found);
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+        int increment = 1 << shift;
+        var candidates = new Postings();
+        for (int i = 0; i < scanned; i++) {
+            var list = lists[i];
+            for (int j = 0; j < list.size; j++) {
+                int ordinal = list.ordinals[j];
+                int count = counts[ordinal];
+                if (count == 0) {
+                    touched.add(ordinal);
+                }
+                if ((count >>> shift & FIELD_MASK) == 0) {
+                    candidates.add(ordinal);
+                }
+                counts[ordinal] = count + increment;
+            }
+        }
+        for (int i = scanned; i < found; i++) {
+            var list = lists[i];
+            if ((long) candidates.size * (32 - Integer.numberOfLeadingZeros(list.size)) < list.size) {
+                for (int j = 0; j < candidates.size; j++) {
+                    int ordinal = candidates.ordinals[j];
+                    if (Arrays.binarySearch(list.ordinals, 0, list.size, ordinal) >= 0) {
+                        counts[ordinal] += increment;
+                    }
+                }
+            } else {
+                for (int j = 0; j < list.size; j++) {
+                    int ordinal = list.ordinals[j];
+                    if ((counts[ordinal] >>> shift & FIELD_MASK) != 0) {
+                        counts[ordinal] += increment;
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Match> rank(int queryCount, int[] counts, Postings touched, double minSimilarity, int limit) {
+        // Min-heap of the best candidates so far; the weakest (lowest score, then latest indexed) is evicted first
+        var best = new PriorityQueue<Candidate>(limit + 1, (a, b) -> a.score() != b.score()
+                ? Double.compare(a.score(), b.score())
+                : Integer.compare(b.ordinal(), a.ordinal()));
+        for (int i = 0; i < touched.size; i++) {
+            int ordinal = touched.ordinals[i];
+            if (ids[ordinal] == null) {
+                continue; // retired
+            }
+            int hits = counts[ordinal];
+            int documentCounts = trigramCounts[ordinal];
+            double score = Math.max(
+                    similarity(queryCount, documentCounts & FIELD_MASK, hits & FIELD_MASK),
+                    similarity(queryCount, documentCounts >>> ADDRESS_SHIFT, hits >>> ADDRESS_SHIFT));
+            if (score > 0 && score >= minSimilarity) {
+                best.offer(new Candidate(ordinal, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        var matches = new Match[best.size()];
+        for (int i = matches.length - 1; i >= 0; i--) {
+            var candidate = best.poll();
+            matches[i] = new Match(ids[candidate.ordinal()], candidate.score());
+        }
+        return List.of(matches);
+    }
+
+    private static double similarity(int queryCount, int documentCount, int shared) {
+        return shared == 0 ? 0 : (double) shared / (queryCount + documentCount - shared);
+    }
+
+    private int[] borrowScratch(int length) {
+        var counts = scratch.poll();
+        while (counts != null && counts.length < length) {
+            counts = scratch.poll(); // outgrown; let it be collected
+        }
+        return counts != null ? counts : new int[Math.max(length, ids.length)];
+    }
+
+    private void add(UUID id, long version, long[] nameTrigrams, long[] addressTrigrams) {
+        var existing = ordinals.get(id);
+        if (existing != null) {
+            if (versions[existing] >= version) {
+                return;
+            }
+            retire(existing);
+        }
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            trigramCounts = Arrays.copyOf(trigramCounts, capacity);
+        }
+        int ordinal = size++;
+        ids[ordinal] = id;
+        versions[ordinal] = version;
+        trigramCounts[ordinal] = Math.min(nameTrigrams.length, FIELD_MASK)
+                | Math.min(addressTrigrams.length, FIELD_MASK) << ADDRESS_SHIFT;
+        ordinals.put(id, ordinal);
+        for (long trigram : nameTrigrams) {
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(ordinal);
+        }
+        for (long trigram : addressTrigrams) {
+            postings.computeIfAbsent(trigram | ADDRESS_FIELD, key -> new Postings()).add(ordinal);
+        }
+        compactIfMostlyRetired();
+    }
+
+    private void retire(int ordinal) {
+        ids[ordinal] = null;
+        retired++;
+    }
+
+    /**
+     * Drops retired ordinals from every postings list and renumbers the live ones, once
+     * retired ordinals outnumber live ones.
+     */
+    private void compactIfMostlyRetired() {
+        if (retired < MIN_RETIRED_BEFORE_COMPACTION || retired < size - retired) {
+            return;
+        }
+        var renumbered = new int[size];
+        int live = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (ids[ordinal] == null) {
+                renumbered[ordinal] = -1;
+                continue;
+            }
+            renumbered[ordinal] = live;
+            ids[live] = ids[ordinal];
+            versions[live] = versions[ordinal];
+            trigramCounts[live] = trigramCounts[ordinal];
+            ordinals.put(ids[live], live);
+            live++;
+        }
+        Arrays.fill(ids, live, size, null);
+        var emptied = new ArrayList<Long>();
+        postings.forEach((trigram, list) -> {
+            list.renumber(renumbered);
+            if (list.size == 0) {
+                emptied.add(trigram);
+            }
+        });
+        emptied.forEach(postings::remove);
+        size = live;
+        retired = 0;
+        scratch.clear();
+    }
+
+    /**
+     * Distinct trigrams of the folded text, each packed as three 16-bit characters.
+     */
+    static long[] trigrams(String text) {
+        if (text == null || text.isBlank()) {
+            return new long[0];
+        }
+        var folded = fold(text);
+        var trigrams = new long[folded.length() * 3];
+        int count = 0;
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                count = addWordTrigrams(folded, start, i, trigrams, count);
+                start = -1;
+            }
+        }
+        var distinct = Arrays.copyOf(trigrams, count);
+        Arrays.sort(distinct);
+        int unique = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[unique++] = distinct[i];
+            }
+        }
+        return Arrays.copyOf(distinct, unique);
+    }
+
+    /**
+     * Adds the trigrams of {@code "  " + word + " "}.
+     */
+    private static int addWordTrigrams(String text, int start, int end, long[] trigrams, int count) {
+        char a = ' ';
+        char b = ' ';
+        for (int i = start; i <= end; i++) {
+            char c = i < end ? text.charAt(i) : ' ';
+            trigrams[count++] = (long) a << 32 | (long) b << 16 | c;
+            a = b;
+            b = c;
+        }
+        return count;
+    }
+
+    /**
+     * Lower-cases the text and folds accented and a few special Latin letters to ASCII.
+     */
+    static String fold(String text) {
+        var decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFKD);
+        var stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        var folded = new StringBuilder(stripped.length());
+        for (int i = 0; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            switch (c) {
+                case 'ß' -> folded.append("ss");
+                case 'æ' -> folded.append("ae");
+                case 'œ' -> folded.append("oe");
+                case 'ø' -> folded.append('o');
+                case 'ł' -> folded.append('l');
+                case 'đ', 'ð' -> folded.append('d');
+                case 'þ' -> folded.append("th");
+                case 'ı' -> folded.append('i');
+                default -> folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    private record Candidate(int ordinal, double score) {
+    }
+
+    /**
+     * A growable list of patient ordinals in insertion order.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        void renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = renumbered[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[kept++] = ordinal;
+                }
+            }
+            size = kept;
+            if (ordinals.length > 16 && size < ordinals.length / 4) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(4, size));
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.model.PatientSummary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+
+/**
+ * Merges pages read from every shard into one sorted sequence.
+ * <p>
+ * Each shard keeps a buffer of at most one page; when it runs dry the next page after the
+ * last row read there is fetched in a short read-only transaction. The first pages are
+ * fetched in parallel. Rows a shard does not own (copies left by a bucket move) are skipped.
+ */
+class ShardMergeIterator implements Iterator<PatientSummary> {
+
+    private final PatientShards shards;
+    private final Comparator<PatientSummary> order;
+    private final BiFunction<PatientSummary, Integer, List<PatientSummary>> pageAfter;
+    private final int pageSize;
+    private final List<ArrayDeque<PatientSummary>> buffers;
+    private final PatientSummary[] last;
+    private final boolean[] exhausted;
+
+    /**
+     * @param shards the shards to read
+     * @param order the order each page is sorted in
+     * @param pageAfter reads up to {@code pageSize} rows following the given row (null for the
+     *        first page), in the current transaction
+     * @param pageSize rows per page
+     */
+    ShardMergeIterator(PatientShards shards, Comparator<PatientSummary> order,
+                       BiFunction<PatientSummary, Integer, List<PatientSummary>> pageAfter, int pageSize) {
+        this.shards = shards;
+        this.order = order;
+        this.pageAfter = pageAfter;
+        this.pageSize = pageSize;
+        int count = shards.count();
+        this.buffers = new ArrayList<>(count);
+        this.last = new PatientSummary[count];
+        this.exhausted = new boolean[count];
+        var firstPages = shards.fanOut(shard -> pageAfter.apply(null, pageSize));
+        for (int shard = 0; shard < count; shard++) {
+            buffers.add(new ArrayDeque<>(pageSize));
+            accept(shard, firstPages.get(shard));
+        }
+    }
+
+    private void accept(int shard, List<PatientSummary> page) {
+        exhausted[shard] = page.size() < pageSize;
+        if (!page.isEmpty()) {
+            last[shard] = page.get(page.size() - 1);
+        }
+        for (var row : page) {
+            if (shards.owns(shard, row.id())) {
+                buffers.get(shard).add(row);
+            }
+        }
+    }
+
+    private void refill(int shard) {
+        while (buffers.get(shard).isEmpty() && !exhausted[shard]) {
+            var after = last[shard];
+            accept(shard, shards.read(shard, () -> pageAfter.apply(after, pageSize)));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        for (int shard = 0; shard < buffers.size(); shard++) {
+            refill(shard);
+            if (!buffers.get(shard).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public PatientSummary next() {
+        int next = -1;
+        for (int shard = 0; shard < buffers.size(); shard++) {
+            refill(shard);
+            var head = buffers.get(shard).peek();
+            if (head != null && (next < 0 || order.compare(head, buffers.get(next).peek()) < 0)) {
+                next = shard;
+            }
+        }
+        if (next < 0) {
+            throw new NoSuchElementException();
+        }
+        return buffers.get(next).poll();
+    }
+}
@@ -3,12 +3,60 @@ CREATE TABLE IF NOT EXISTS patient
 (
     id              UUID PRIMARY KEY,
     name            VARCHAR(255)        NOT NULL,
-    email           VARCHAR(255) UNIQUE NOT NULL,
+    email           VARCHAR(255)        NOT NULL,
     address         VARCHAR(255)        NOT NULL,
     date_of_birth   DATE                NOT NULL,
-    registered_date DATE                NOT NULL
+    registered_date DATE                NOT NULL,
+    -- Optimistic-locking version and modification time, exposed as ETag / Last-Modified
+    version         BIGINT              NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Named so duplicate-email violations can be recognised and answered as such
+    CONSTRAINT uk_patient_email UNIQUE (email)
     );
 
+-- Tables created before versioning was introduced
+ALTER TABLE patient ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE patient ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Keyset pagination over (registered_date, id) for GET /patients/page and the streamed list
+CREATE INDEX IF NOT EXISTS idx_patient_registered_date_id ON patient (registered_date, id);
+
+-- Name prefix and date of birth filters for GET /patients/search (email uses the unique constraint).
+-- On Postgres, create idx_patient_name ON patient (name varchar_pattern_ops) instead: under a
+-- collation other than "C" a plain index cannot serve LIKE 'prefix%' (see docs/performance.md)
+CREATE INDEX IF NOT EXISTS idx_patient_name ON patient (name);
+CREATE INDEX IF NOT EXISTS idx_patient_date_of_birth ON patient (date_of_birth);
+
+-- Transactional outbox of patient changes, drained by PatientOutboxPublisher
+CREATE SEQUENCE IF NOT EXISTS patient_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS patient_outbox
+(
+    id            BIGINT PRIMARY KEY,
+    patient_id    UUID                     NOT NULL,
+    event_type    VARCHAR(16)              NOT NULL,
+    payload       VARCHAR(4000),
+    occurred_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+    -- Assigned in publication order; GET /patients/changes pages over it
+    feed_position BIGINT,
+    published_at  TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT uk_patient_outbox_feed_position UNIQUE (feed_position)
+    );
+
+CREATE INDEX IF NOT EXISTS idx_patient_outbox_unpublished ON patient_outbox (published_at, id);
+
+-- Last change-feed position handed out. PatientOutboxPublisher locks the row for each batch,
+-- so publishers on several instances take turns and positions commit in order
+CREATE TABLE IF NOT EXISTS patient_feed_counter
+(
+    id            INT PRIMARY KEY,
+    last_position BIGINT NOT NULL
+    );
+
+INSERT INTO patient_feed_counter (id, last_position)
+SELECT 1, 0
+    WHERE NOT EXISTS (SELECT 1 FROM patient_feed_counter);
+
 -- Insert well-known UUIDs for specific patients
 INSERT INTO patient (id, name, email, address, date_of_birth, registered_date)
 SELECT '123e4567-e89b-12d3-a456-426614174000',
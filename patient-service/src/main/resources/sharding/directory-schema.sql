@@ -0,0 +1,32 @@
+-- Shard directory, on spring.datasource: which shard owns each hash bucket of patient IDs
+CREATE TABLE IF NOT EXISTS patient_shard_bucket
+(
+    bucket     INT PRIMARY KEY,
+    shard      VARCHAR(64) NOT NULL,
+    -- Set while the bucket's rows are copied to another shard
+    moving_to  VARCHAR(64),
+    -- Set after a move until the old shard's copies are deleted
+    moved_from VARCHAR(64)
+    );
+
+-- Emails in use on any shard, which keeps them unique across shards
+CREATE TABLE IF NOT EXISTS patient_email_directory
+(
+    email       VARCHAR(255) PRIMARY KEY,
+    patient_id  UUID                     NOT NULL,
+    reserved_at TIMESTAMP WITH TIME ZONE NOT NULL
+    );
+
+CREATE INDEX IF NOT EXISTS idx_patient_email_directory_patient_id ON patient_email_directory (patient_id);
+
+-- Last change-feed position handed out. one counter for all shards, locked by
+-- PatientOutboxPublisher for each batch so positions commit in order
+CREATE TABLE IF NOT EXISTS patient_feed_counter
+(
+    id            INT PRIMARY KEY,
+    last_position BIGINT NOT NULL
+    );
+
+INSERT INTO patient_feed_counter (id, last_position)
+SELECT 1, 0
+    WHERE NOT EXISTS (SELECT 1 FROM patient_feed_counter);
@@ -0,0 +1,2 @@
+-- Name prefix filter of GET /patients/search; H2 range-scans a plain index for LIKE 'prefix%'
+CREATE INDEX IF NOT EXISTS idx_patient_name ON patient (name);
@@ -0,0 +1,3 @@
+-- Name prefix filter of GET /patients/search. Under a collation other than "C", Postgres only
+-- range-scans an index for LIKE 'prefix%' when it compares characters as bytes (varchar_pattern_ops)
+CREATE INDEX IF NOT EXISTS idx_patient_name ON patient (name varchar_pattern_ops);
@@ -0,0 +1,34 @@
+-- Patient tables of one shard; same layout as data.sql, without the sample patients
+CREATE TABLE IF NOT EXISTS patient
+(
+    id              UUID PRIMARY KEY,
+    name            VARCHAR(255)        NOT NULL,
+    email           VARCHAR(255)        NOT NULL,
+    address         VARCHAR(255)        NOT NULL,
+    date_of_birth   DATE                NOT NULL,
+    registered_date DATE                NOT NULL,
+    version         BIGINT              NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_patient_email UNIQUE (email)
+    );
+
+CREATE INDEX IF NOT EXISTS idx_patient_registered_date_id ON patient (registered_date, id);
+-- idx_patient_name is spelled differently per database, see shard-schema-<platform>.sql
+CREATE INDEX IF NOT EXISTS idx_patient_date_of_birth ON patient (date_of_birth);
+
+-- One value per call: Hibernate's pooled ranges would be shared between shards (see sharding-orm.xml)
+CREATE SEQUENCE IF NOT EXISTS patient_outbox_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS patient_outbox
+(
+    id            BIGINT PRIMARY KEY,
+    patient_id    UUID                     NOT NULL,
+    event_type    VARCHAR(16)              NOT NULL,
+    payload       VARCHAR(4000),
+    occurred_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+    feed_position BIGINT,
+    published_at  TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT uk_patient_outbox_feed_position UNIQUE (feed_position)
+    );
+
+CREATE INDEX IF NOT EXISTS idx_patient_outbox_unpublished ON patient_outbox (published_at, id);
@@ -0,0 +1,201 @@
+package com.pm.patientservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.service.PatientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exercises the HTTP contract of {@link PatientController}: validators and conditional requests,
+ * keyset pagination, batch lookups and error responses.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PatientControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void listValidatorsAreOnlyComputedForConditionalRequests() throws Exception {
+        var plain = mockMvc.perform(get("/patients").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(plain))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        var eTag = mockMvc.perform(head("/patients").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("W/\"");
+
+        mockMvc.perform(get("/patients").accept(MediaType.APPLICATION_NDJSON).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/patients").contentType(MediaType.APPLICATION_JSON).content(patientJson("etag.list@example.com")))
+                .andExpect(status().isOk());
+        var changed = mockMvc.perform(get("/patients").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(changed))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    void pageCursorsWalkEveryPatientOnceInKeysetOrder() throws Exception {
+        // Several patients on one registration date, so pages break inside a run of equal dates
+        var sameDay = new ArrayList<String>();
+        for (int i = 0; i < 7; i++) {
+            sameDay.add(createPatient(patientJson("page.same." + i + "@example.com", "2023-09-10")));
+        }
+
+        var ids = new ArrayList<String>();
+        String cursor = null;
+        do {
+            var request = get("/patients/page").param("limit", "3");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            var page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            assertThat(page.get("patients").size()).isBetween(1, 3);
+            page.get("patients").forEach(patient -> ids.add(patient.get("id").asText()));
+            cursor = page.path("nextCursor").isTextual() ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        assertThat(ids).containsAll(sameDay).containsExactlyElementsOf(jdbcTemplate.queryForList(
+                "SELECT CAST(id AS VARCHAR) FROM patient ORDER BY registered_date, id", String.class));
+    }
+
+    @Test
+    void malformedPageCursorIsRejected() throws Exception {
+        var badDate = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("2024-13-40|" + UUID.randomUUID()).getBytes(StandardCharsets.US_ASCII));
+        for (var cursor : new String[]{"not a cursor", "bm8tc2VwYXJhdG9y", badDate}) {
+            mockMvc.perform(get("/patients/page").param("cursor", cursor))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid pagination cursor."));
+        }
+    }
+
+    @Test
+    void duplicateEmailIsRejectedOnCreateAndUpdate() throws Exception {
+        createPatient(patientJson("dup.taken@example.com"));
+        var other = createPatient(patientJson("dup.other@example.com"));
+
+        mockMvc.perform(post("/patients").contentType(MediaType.APPLICATION_JSON).content(patientJson("dup.taken@example.com")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Email address already exists."));
+        mockMvc.perform(put("/patients/" + other).contentType(MediaType.APPLICATION_JSON).content(patientJson("dup.taken@example.com")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Email address already exists."));
+
+        // Keeping its own email is not a conflict
+        mockMvc.perform(put("/patients/" + other).contentType(MediaType.APPLICATION_JSON).content(patientJson("dup.other@example.com")))
+                .andExpect(status().isOk());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM patient WHERE email = 'dup.taken@example.com'", Integer.class)).isOne();
+    }
+
+    @Test
+    void weakIfMatchNeverMatches() throws Exception {
+        var id = createPatient(patientJson("weak.match@example.com"));
+
+        // If-Match compares strongly, so a weak tag fails even for the current version
+        mockMvc.perform(put("/patients/" + id).header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(patientJson("weak.match@example.com")))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Patient has been modified since it was read."));
+        mockMvc.perform(put("/patients/" + id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(patientJson("weak.moved@example.com")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void batchGetKeepsRequestOrderAndReportsMissingIds() throws Exception {
+        var first = createPatient(patientJson("batch.first@example.com"));
+        var second = createPatient(patientJson("batch.second@example.com"));
+        var third = createPatient(patientJson("batch.third@example.com"));
+        var missing = UUID.randomUUID().toString();
+        // One patient comes from the cache, the others from the database
+        mockMvc.perform(get("/patients/" + second)).andExpect(status().isOk());
+
+        mockMvc.perform(post("/patients/batch-get").contentType(MediaType.APPLICATION_JSON)
+                        .content(idsJson(List.of(third, missing, first, third, second))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patients[*].id").value(contains(third, first, second)))
+                .andExpect(jsonPath("$.missingIds").value(contains(missing)));
+    }
+
+    @Test
+    void batchGetRejectsEmptyAndOversizedRequests() throws Exception {
+        mockMvc.perform(post("/patients/batch-get").contentType(MediaType.APPLICATION_JSON).content(idsJson(List.of())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.ids").value("At least one ID is required"));
+
+        var tooMany = Stream.generate(() -> UUID.randomUUID().toString())
+                .limit(PatientService.MAX_BATCH_GET_SIZE + 1).toList();
+        mockMvc.perform(post("/patients/batch-get").contentType(MediaType.APPLICATION_JSON).content(idsJson(tooMany)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.ids").value("At most " + PatientService.MAX_BATCH_GET_SIZE + " IDs can be requested at once"));
+    }
+
+    private String idsJson(List<String> ids) throws Exception {
+        return objectMapper.writeValueAsString(Map.of("ids", ids));
+    }
+
+    private String createPatient(String json) throws Exception {
+        var created = mockMvc.perform(post("/patients").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(created).get("id").asText();
+    }
+
+    private static String patientJson(String email) {
+        return patientJson(email, "2024-03-04");
+    }
+
+    private static String patientJson(String email, String registeredDate) {
+        return """
+                {"name":"Controller Test","email":"%s","address":"1 Controller Way",\
+                "dateOfBirth":"1981-03-04","registeredDate":"%s"}
+                """.formatted(email, registeredDate);
+    }
+}
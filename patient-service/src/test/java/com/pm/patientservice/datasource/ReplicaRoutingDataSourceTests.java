@@ -0,0 +1,118 @@
+package com.pm.patientservice.datasource;
+
+import com.pm.patientservice.config.ReplicaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes transactions over three separate H2 databases standing in for a primary and two
+ * replicas, whose reported lag is read from a table the test controls.
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private DriverManagerDataSource replicaA;
+    private DriverManagerDataSource replicaB;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        replicaA = database("routing_a");
+        replicaB = database("routing_b");
+        setLag(replicaA, 0);
+        setLag(replicaB, 0);
+        var lagQuery = "SELECT seconds FROM replica_lag";
+        routing = new ReplicaRoutingDataSource(database("routing_primary"),
+                List.of(new ReplicaRoutingDataSource.Replica("replica-a", replicaA, lagQuery),
+                        new ReplicaRoutingDataSource.Replica("replica-b", replicaB, lagQuery)),
+                ReplicaProperties.Selection.ROUND_ROBIN, Duration.ofSeconds(5), Duration.ZERO,
+                new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+
+        // The same proxy and transaction setup the application uses, with plain JDBC
+        var dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+    }
+
+    @Test
+    void sendsReadOnlyTransactionsToReplicasInTurn() {
+        // Replicas only get reads once a lag check has passed
+        assertThat(readOnlyTarget()).isEqualTo("ROUTING_PRIMARY");
+
+        routing.checkReplicas();
+        assertThat(List.of(readOnlyTarget(), readOnlyTarget(), readOnlyTarget(), readOnlyTarget()))
+                .containsExactly("ROUTING_A", "ROUTING_B", "ROUTING_A", "ROUTING_B");
+        String written = readWrite.execute(status -> currentDatabase());
+        assertThat(written).isEqualTo("ROUTING_PRIMARY");
+        assertThat(currentDatabase()).isEqualTo("ROUTING_PRIMARY");
+    }
+
+    @Test
+    void skipsLaggingReplicasAndFallsBackToPrimary() {
+        setLag(replicaB, 60);
+        routing.checkReplicas();
+        assertThat(routing.usableReplicas()).containsExactly("replica-a");
+        assertThat(List.of(readOnlyTarget(), readOnlyTarget())).containsExactly("ROUTING_A", "ROUTING_A");
+
+        // A failing lag check counts as unknown lag
+        new JdbcTemplate(replicaA).execute("DROP TABLE replica_lag");
+        routing.checkReplicas();
+        assertThat(routing.usableReplicas()).isEmpty();
+        assertThat(readOnlyTarget()).isEqualTo("ROUTING_PRIMARY");
+
+        setLag(replicaB, 1);
+        routing.checkReplicas();
+        assertThat(readOnlyTarget()).isEqualTo("ROUTING_B");
+    }
+
+    @Test
+    void keepsReadsUnderPrimaryScopeOnThePrimary() {
+        routing.checkReplicas();
+        try (var primary = ReplicaContext.primary()) {
+            assertThat(List.of(readOnlyTarget(), readOnlyTarget())).containsExactly("ROUTING_PRIMARY", "ROUTING_PRIMARY");
+        }
+        assertThat(readOnlyTarget()).isEqualTo("ROUTING_A");
+    }
+
+    private String readOnlyTarget() {
+        return readOnly.execute(status -> currentDatabase());
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static void setLag(DriverManagerDataSource replica, double seconds) {
+        var jdbc = new JdbcTemplate(replica);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE PRECISION)");
+        jdbc.update("DELETE FROM replica_lag");
+        jdbc.update("INSERT INTO replica_lag VALUES (?)", seconds);
+    }
+}
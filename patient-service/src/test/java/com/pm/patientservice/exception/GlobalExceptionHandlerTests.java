@@ -0,0 +1,52 @@
+package com.pm.patientservice.exception;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Maps integrity violations as the translated exceptions arrive from Spring Data: the email
+ * constraint is a duplicate email, every other violation a conflict.
+ */
+class GlobalExceptionHandlerTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(meterRegistry);
+
+    @Test
+    void emailConstraintViolationIsADuplicateEmail() {
+        var response = handler.handleDataIntegrityViolation(
+                violation(ConstraintViolationException.ConstraintKind.UNIQUE, "uk_patient_email"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo(Map.of("message", "Email address already exists."));
+        assertThat(meterRegistry.get("patient.errors").tag("status", "400").counter().count()).isOne();
+    }
+
+    @Test
+    void otherConstraintViolationsAreConflicts() {
+        var primaryKey = violation(ConstraintViolationException.ConstraintKind.UNIQUE, "PRIMARY KEY ON PUBLIC.PATIENT(ID)");
+        var check = violation(ConstraintViolationException.ConstraintKind.OTHER, "CONSTRAINT_8C");
+
+        for (var ex : new DataIntegrityViolationException[]{primaryKey, check}) {
+            var response = handler.handleDataIntegrityViolation(ex);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+            assertThat(response.getBody()).isEqualTo(Map.of("message", "Request conflicts with existing data."));
+        }
+        assertThat(meterRegistry.get("patient.errors").tag("status", "409").counter().count()).isEqualTo(2);
+    }
+
+    private static DataIntegrityViolationException violation(ConstraintViolationException.ConstraintKind kind,
+                                                             String constraintName) {
+        var cause = new ConstraintViolationException("could not execute statement",
+                new SQLException("constraint violated", "23000"), "insert into patient ...", kind, constraintName);
+        return new DataIntegrityViolationException("could not execute statement", cause);
+    }
+}
@@ -0,0 +1,79 @@
+package com.pm.patientservice.filter;
+
+import com.pm.patientservice.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the AIMD adjustment of {@link ConcurrencyLimit}.
+ */
+class ConcurrencyLimitTests {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void growsWhileBusyAndFastAndShrinksOnSlowOrFailedRequests() throws Exception {
+        var limit = new ConcurrencyLimit(properties(4));
+
+        // Fully used and fast: +1 per sample
+        for (int i = 0; i < 4; i++) {
+            assertThat(limit.tryAcquire(0)).isTrue();
+        }
+        assertThat(limit.tryAcquire(0)).isFalse();
+        limit.release(FAST, false, true);
+        assertThat(limit.limit()).isEqualTo(5);
+
+        // Slow: x0.5, never below the minimum
+        limit.release(SLOW, false, true);
+        assertThat(limit.limit()).isEqualTo(2);
+        limit.release(FAST, true, false);
+        assertThat(limit.limit()).isEqualTo(2);
+
+        // One request is still in flight, which is half the limit
+        assertThat(limit.inFlight()).isEqualTo(1);
+        limit.release(FAST, false, true);
+        assertThat(limit.limit()).isEqualTo(3);
+        assertThat(limit.inFlight()).isZero();
+        for (int i = 0; i < 3; i++) {
+            assertThat(limit.tryAcquire(0)).isTrue();
+        }
+        assertThat(limit.tryAcquire(0)).isFalse();
+    }
+
+    @Test
+    void shrinkingBelowInFlightBlocksNewRequestsUntilEnoughFinish() throws Exception {
+        var limit = new ConcurrencyLimit(properties(8));
+        for (int i = 0; i < 8; i++) {
+            assertThat(limit.tryAcquire(0)).isTrue();
+        }
+        limit.release(SLOW, false, true); // 8 -> 4 with 7 still in flight
+        assertThat(limit.limit()).isEqualTo(4);
+        assertThat(limit.inFlight()).isEqualTo(7);
+        assertThat(limit.tryAcquire(0)).isFalse();
+
+        // Ignored samples (long-running endpoints) only return the permit
+        for (int i = 0; i < 4; i++) {
+            limit.release(SLOW, false, false);
+        }
+        assertThat(limit.limit()).isEqualTo(4);
+        assertThat(limit.tryAcquire(0)).isTrue();
+    }
+
+    @Test
+    void fixedLimitNeverChanges() throws Exception {
+        var limit = new ConcurrencyLimit(new ConcurrencyLimitProperties(true, 3, Duration.ZERO,
+                new ConcurrencyLimitProperties.Adaptive(false, 2, 200, Duration.ofMillis(100), 0.5)));
+        assertThat(limit.tryAcquire(0)).isTrue();
+        limit.release(SLOW, true, true);
+        assertThat(limit.limit()).isEqualTo(3);
+    }
+
+    private static ConcurrencyLimitProperties properties(int initial) {
+        return new ConcurrencyLimitProperties(true, initial, Duration.ZERO,
+                new ConcurrencyLimitProperties.Adaptive(true, 2, 200, Duration.ofMillis(100), 0.5));
+    }
+}
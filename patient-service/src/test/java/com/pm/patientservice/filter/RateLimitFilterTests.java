@@ -0,0 +1,113 @@
+package com.pm.patientservice.filter;
+
+import com.pm.patientservice.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks endpoint weighting, per-client buckets and the 429 response of {@link RateLimitFilter}.
+ */
+class RateLimitFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void listCallsSpendTheBudgetOfManyReads() throws Exception {
+        // 1 token per second: nothing refills during the test
+        var filter = new RateLimitFilter(properties(200, 1, Map.of()), meterRegistry);
+
+        assertThat(send(filter, "GET", "/patients", "partner").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "GET", "/patients", "partner").getStatus()).isEqualTo(200);
+
+        var limited = send(filter, "GET", "/patients", "partner");
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("100");
+        assertThat(limited.getContentAsString()).isEqualTo("{\"message\":\"Too many requests, please retry later.\"}");
+        assertThat(send(filter, "GET", "/patients/123e4567-e89b-12d3-a456-426614174000", "partner").getStatus())
+                .isEqualTo(429);
+
+        // Other clients have their own bucket
+        assertThat(send(filter, "GET", "/patients", "other").getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.counter("patient.requests.shed", "reason", "rate_limit", "endpoint", "list").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.counter("patient.requests.shed", "reason", "rate_limit", "endpoint", "read").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void configuredCostsOverrideDefaults() throws Exception {
+        var filter = new RateLimitFilter(properties(10, 1, Map.of(PatientEndpoint.READ, 5)), meterRegistry);
+
+        assertThat(send(filter, "GET", "/patients/abc", "client").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "GET", "/patients/abc", "client").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "GET", "/patients/abc", "client").getStatus()).isEqualTo(429);
+        // Costs above the capacity are capped, so the request can still pass with a full bucket
+        assertThat(send(filter, "GET", "/patients", "fresh").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void keysOnRemoteAddressUnlessAHeaderIsConfigured() throws Exception {
+        var filter = new RateLimitFilter(properties(100, 1, null, Map.of()), meterRegistry);
+
+        // Without a configured header, a new client ID per request does not earn a new bucket
+        assertThat(send(filter, "GET", "/patients", "first").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "GET", "/patients", "second").getStatus()).isEqualTo(429);
+        var otherAddress = new MockHttpServletRequest("GET", "/patients");
+        otherAddress.setRemoteAddr("10.0.0.2");
+        var response = new MockHttpServletResponse();
+        filter.doFilter(otherAddress, response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void bucketRefillsOverTime() {
+        var bucket = new TokenBucket(10, 5, 0);
+        assertThat(bucket.tryConsume(10, 0)).isZero();
+        assertThat(bucket.tryConsume(5, 0)).isEqualTo(1_000_000_000L);
+        assertThat(bucket.tryConsume(5, 500_000_000L)).isEqualTo(500_000_000L);
+        assertThat(bucket.tryConsume(5, 1_000_000_000L)).isZero();
+        // Refill stops at the capacity
+        assertThat(bucket.tryConsume(10, 60_000_000_000L)).isZero();
+        assertThat(bucket.tryConsume(1, 60_000_000_000L)).isPositive();
+    }
+
+    @Test
+    void classifiesEndpoints() {
+        assertThat(PatientEndpoint.classify("GET", "/patients")).isEqualTo(PatientEndpoint.LIST);
+        assertThat(PatientEndpoint.classify("POST", "/patients")).isEqualTo(PatientEndpoint.WRITE);
+        assertThat(PatientEndpoint.classify("GET", "/patients/42")).isEqualTo(PatientEndpoint.READ);
+        assertThat(PatientEndpoint.classify("PUT", "/patients/42")).isEqualTo(PatientEndpoint.WRITE);
+        assertThat(PatientEndpoint.classify("GET", "/patients/search")).isEqualTo(PatientEndpoint.QUERY);
+        assertThat(PatientEndpoint.classify("POST", "/patients/bulk")).isEqualTo(PatientEndpoint.BULK);
+        assertThat(PatientEndpoint.classify("POST", "/patients/batch-get")).isEqualTo(PatientEndpoint.BATCH_GET);
+        assertThat(PatientEndpoint.classify("POST", "/patients/exports")).isEqualTo(PatientEndpoint.EXPORT);
+        assertThat(PatientEndpoint.classify("GET", "/patients/exports/j1")).isEqualTo(PatientEndpoint.READ);
+        assertThat(PatientEndpoint.classify("GET", "/patients/exports/j1/download")).isEqualTo(PatientEndpoint.EXPORT);
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String method, String uri, String client)
+            throws Exception {
+        var request = new MockHttpServletRequest(method, uri);
+        request.addHeader("X-Client-Id", client);
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static RateLimitProperties properties(int capacity, int refillPerSecond,
+                                                  Map<PatientEndpoint, Integer> costs) {
+        return properties(capacity, refillPerSecond, "X-Client-Id", costs);
+    }
+
+    private static RateLimitProperties properties(int capacity, int refillPerSecond, String clientHeader,
+                                                  Map<PatientEndpoint, Integer> costs) {
+        return new RateLimitProperties(true, capacity, refillPerSecond, clientHeader, 1000, costs);
+    }
+}
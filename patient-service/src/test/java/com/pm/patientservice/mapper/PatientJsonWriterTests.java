@@ -0,0 +1,103 @@
+package com.pm.patientservice.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.model.PatientSummary;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that {@link PatientJsonWriter} produces exactly the bytes Jackson writes for the
+ * mapped {@link com.pm.patientservice.dto.PatientResponseDTO}.
+ */
+class PatientJsonWriterTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesSameJsonAsJacksonForTrickyValues() throws IOException {
+        var patients = List.of(
+                summary(new UUID(0x123e4567e89b12d3L, 0xa456426614174000L), "John Doe", "john.doe@example.com",
+                        "123 Main St, Springfield", LocalDate.of(1985, 6, 15)),
+                summary(new UUID(-1L, 0L), "Quote \" and \\ backslash / slash", "x@example.com",
+                        "Tab\tNewline\nReturn\rFeed\fBack\bNul\u0000Unit\u001fDel\u007f", LocalDate.of(1, 1, 1)),
+                summary(UUID.randomUUID(), "Zoë Ångström 中文 \ud83d\ude00", "zoe@example.com",
+                        "Straße \u2028 line separator, lone \ud800 surrogate \udc00", LocalDate.of(2000, 2, 29)),
+                summary(UUID.randomUUID(), "Far Future", "future@example.com", "Nowhere", LocalDate.of(10_000, 1, 1)),
+                summary(UUID.randomUUID(), "Before Christ", "bc@example.com", "Nowhere", LocalDate.of(-44, 3, 15)));
+
+        for (var patient : patients) {
+            var out = new ByteArrayOutputStream();
+            try (var writer = new PatientJsonWriter(out)) {
+                writer.writePatient(patient);
+            }
+            assertThat(out.toByteArray()).isEqualTo(jackson(patient));
+        }
+    }
+
+    @Test
+    void writesArraysAndLinesAcrossBufferBoundaries() throws IOException {
+        var patients = new ArrayList<PatientSummary>();
+        for (int i = 0; i < 500; i++) {
+            var name = i % 50 == 0 ? "Long é\"名前 ".repeat(PatientJsonWriter.BUFFER_SIZE / 5) : "Patient " + i;
+            patients.add(summary(UUID.randomUUID(), name, "patient" + i + "@example.com",
+                    i + " Main St", LocalDate.of(1950, 1, 1).plusDays(i)));
+        }
+
+        var array = new ByteArrayOutputStream();
+        try (var writer = new PatientJsonWriter(array)) {
+            writer.writeStartArray();
+            for (var patient : patients) {
+                writer.writeArrayElement(patient);
+            }
+            writer.writeEndArray();
+        }
+        var expectedArray = objectMapper.writeValueAsBytes(
+                patients.stream().map(PatientMapper::toPatientResponseDTO).toList());
+        assertThat(array.toByteArray()).isEqualTo(expectedArray);
+
+        var lines = new ByteArrayOutputStream();
+        try (var writer = new PatientJsonWriter(lines)) {
+            for (var patient : patients) {
+                writer.writeLine(patient);
+            }
+        }
+        var expectedLines = new ByteArrayOutputStream();
+        for (var patient : patients) {
+            expectedLines.write(jackson(patient));
+            expectedLines.write('\n');
+        }
+        assertThat(lines.toByteArray()).isEqualTo(expectedLines.toByteArray());
+    }
+
+    @Test
+    void emptyArray() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var writer = new PatientJsonWriter(out)) {
+            writer.writeStartArray();
+            writer.writeEndArray();
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+
+    /**
+     * Jackson's UTF-8 output for the mapped DTO, as written to HTTP responses.
+     */
+    private byte[] jackson(PatientSummary patient) throws IOException {
+        return objectMapper.writeValueAsBytes(PatientMapper.toPatientResponseDTO(patient));
+    }
+
+    private static PatientSummary summary(UUID id, String name, String email, String address, LocalDate dateOfBirth) {
+        return new PatientSummary(id, name, email, address, dateOfBirth, LocalDate.of(2024, 1, 1),
+                0L, Instant.EPOCH);
+    }
+}
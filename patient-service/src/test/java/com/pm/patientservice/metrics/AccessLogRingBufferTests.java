@@ -0,0 +1,84 @@
+package com.pm.patientservice.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that {@link AccessLogRingBuffer} hands every published entry to the consumer
+ * exactly once and in order, and drops entries instead of blocking when full.
+ */
+class AccessLogRingBufferTests {
+
+    @Test
+    void dropsWhenFullAndResumesAfterDrain() {
+        var buffer = new AccessLogRingBuffer(5);
+        assertThat(buffer.capacity()).isEqualTo(8);
+        for (int i = 0; i < 8; i++) {
+            long sequence = buffer.claim();
+            buffer.entry(sequence).status = i;
+            buffer.publish(sequence);
+        }
+        assertThat(buffer.claim()).isEqualTo(-1);
+
+        var statuses = new ArrayList<Integer>();
+        assertThat(buffer.drain(entry -> statuses.add(entry.status))).isEqualTo(8);
+        assertThat(statuses).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+        assertThat(buffer.claim()).isEqualTo(8);
+    }
+
+    @Test
+    void deliversConcurrentProducersInOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 20_000;
+        var buffer = new AccessLogRingBuffer(256);
+        var received = new ArrayList<List<Integer>>();
+        for (int p = 0; p < producers; p++) {
+            received.add(new ArrayList<>());
+        }
+        var done = new AtomicBoolean();
+        var consumer = new Thread(() -> {
+            while (!done.get() || buffer.backlog() > 0) {
+                if (buffer.drain(entry -> received.get(entry.statements).add(entry.status)) == 0) {
+                    Thread.yield();
+                }
+            }
+        });
+        consumer.start();
+
+        var threads = new ArrayList<Thread>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            var thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    long sequence;
+                    while ((sequence = buffer.claim()) < 0) {
+                        Thread.yield();
+                    }
+                    var entry = buffer.entry(sequence);
+                    entry.statements = producer;
+                    entry.status = i;
+                    buffer.publish(sequence);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        done.set(true);
+        consumer.join();
+
+        for (var statuses : received) {
+            assertThat(statuses).hasSize(perProducer);
+            for (int i = 0; i < perProducer; i++) {
+                assertThat(statuses.get(i)).isEqualTo(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.pm.patientservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the layout and ordering of the IDs from {@link TimeOrderedUuidGenerator}.
+ */
+class TimeOrderedUuidGeneratorTests {
+
+    @Test
+    void generatesVersion7UuidsWithCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        var id = TimeOrderedUuidGenerator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // The counter may carry the timestamp slightly ahead of the clock after a burst
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 1_000);
+        assertThat(UUID.fromString(id.toString())).isEqualTo(id);
+    }
+
+    @Test
+    void idsIncreaseInStringAndUuidOrder() {
+        var previous = TimeOrderedUuidGenerator.next();
+        for (int i = 0; i < 100_000; i++) {
+            var next = TimeOrderedUuidGenerator.next();
+            // Postgres and H2 compare uuid values as unsigned bytes, i.e. in string order
+            assertThat(next.toString()).isGreaterThan(previous.toString());
+            assertThat(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()))
+                    .isPositive();
+            previous = next;
+        }
+    }
+}
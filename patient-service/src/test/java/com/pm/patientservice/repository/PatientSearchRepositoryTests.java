@@ -0,0 +1,102 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.dto.PatientSearchRequestDTO;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.model.PatientSummary;
+import com.pm.patientservice.service.PatientCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the criteria search against the database. Each test uses its own name prefix, so rows
+ * from other tests sharing the database do not match.
+ */
+@SpringBootTest
+class PatientSearchRepositoryTests {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    void namePrefixMatchesWildcardCharactersLiterally() {
+        save("Search 100% Sure", "search.percent@example.com", LocalDate.of(1980, 1, 1), LocalDate.of(2024, 1, 1));
+        save("Search 1000 Sure", "search.thousand@example.com", LocalDate.of(1980, 1, 1), LocalDate.of(2024, 1, 1));
+        save("Search a_b", "search.underscore@example.com", LocalDate.of(1980, 1, 1), LocalDate.of(2024, 1, 1));
+        save("Search axb", "search.axb@example.com", LocalDate.of(1980, 1, 1), LocalDate.of(2024, 1, 1));
+
+        assertThat(names(patientRepository.search(byName("Search 100%"), null, 10))).containsExactly("Search 100% Sure");
+        assertThat(names(patientRepository.search(byName("Search a_"), null, 10))).containsExactly("Search a_b");
+        assertThat(names(patientRepository.search(byName("Search 10"), null, 10)))
+                .containsExactlyInAnyOrder("Search 100% Sure", "Search 1000 Sure");
+    }
+
+    @Test
+    void dateOfBirthRangeIsInclusive() {
+        for (int year = 1960; year <= 1964; year++) {
+            save("Range " + year, "range." + year + "@example.com", LocalDate.of(year, 6, 15), LocalDate.of(2024, 1, 1));
+        }
+
+        var criteria = byName("Range ");
+        criteria.setDateOfBirthFrom(LocalDate.of(1961, 6, 15));
+        criteria.setDateOfBirthTo(LocalDate.of(1963, 6, 15));
+        assertThat(names(patientRepository.search(criteria, null, 10)))
+                .containsExactlyInAnyOrder("Range 1961", "Range 1962", "Range 1963");
+
+        criteria.setDateOfBirthTo(null);
+        assertThat(names(patientRepository.search(criteria, null, 10)))
+                .containsExactlyInAnyOrder("Range 1961", "Range 1962", "Range 1963", "Range 1964");
+    }
+
+    @Test
+    void cursorContinuesAfterTheLastRowInKeysetOrder() {
+        // Two registration dates, so pages break both inside and between runs of equal dates
+        for (int i = 0; i < 7; i++) {
+            save("Keyset " + i, "keyset." + i + "@example.com", LocalDate.of(1990, 1, 1),
+                    LocalDate.of(2024, 2, 1 + i % 2));
+        }
+        var criteria = byName("Keyset ");
+        var all = patientRepository.search(criteria, null, 100);
+        assertThat(all).hasSize(7).isSortedAccordingTo(PatientCursor.KEYSET_ORDER);
+
+        var paged = new ArrayList<PatientSummary>();
+        PatientCursor after = null;
+        List<PatientSummary> page;
+        do {
+            page = patientRepository.search(criteria, after, 3);
+            paged.addAll(page);
+            if (!page.isEmpty()) {
+                var last = page.get(page.size() - 1);
+                after = new PatientCursor(last.registeredDate(), last.id());
+            }
+        } while (page.size() == 3);
+
+        assertThat(paged).containsExactlyElementsOf(all);
+    }
+
+    private void save(String name, String email, LocalDate dateOfBirth, LocalDate registeredDate) {
+        var patient = new Patient();
+        patient.setName(name);
+        patient.setEmail(email);
+        patient.setAddress("1 Search Street");
+        patient.setDateOfBirth(dateOfBirth);
+        patient.setRegisteredDate(registeredDate);
+        patientRepository.save(patient);
+    }
+
+    private static PatientSearchRequestDTO byName(String prefix) {
+        var criteria = new PatientSearchRequestDTO();
+        criteria.setName(prefix);
+        return criteria;
+    }
+
+    private static List<String> names(List<PatientSummary> patients) {
+        return patients.stream().map(PatientSummary::name).toList();
+    }
+}
@@ -0,0 +1,110 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.service.PatientService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the Hibernate second-level cache serves repeat reads and stays coherent
+ * with updates and deletes made through the service. The statistics are shared by the whole
+ * session factory, so the outbox publisher is held off and the startup loaders are waited out.
+ */
+@SpringBootTest(properties = "patient-service.outbox.poll-interval=1h")
+class PatientSecondLevelCacheTests {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private CacheRegionStatistics patientRegion;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        for (var thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("patient-email-filter-loader")
+                    || thread.getName().equals("patient-search-index-loader")) {
+                thread.join();
+            }
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        patientRegion = statistics.getDomainDataRegionStatistics(Patient.class.getName());
+    }
+
+    @Test
+    void findByIdIsServedFromCacheAfterFirstLoad() {
+        var id = patientRepository.save(newPatient("l2.find@example.com")).getId();
+        entityManagerFactory.getCache().evict(Patient.class, id);
+
+        long hits = patientRegion.getHitCount();
+        long misses = patientRegion.getMissCount();
+        long loads = statistics.getEntityStatistics(Patient.class.getName()).getLoadCount();
+
+        assertThat(patientRepository.findById(id)).isPresent();
+        assertThat(patientRepository.findById(id)).isPresent();
+
+        assertThat(patientRegion.getMissCount() - misses).isEqualTo(1);
+        assertThat(patientRegion.getHitCount() - hits).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(Patient.class.getName()).getLoadCount() - loads).isEqualTo(1);
+    }
+
+    @Test
+    void updateIsVisibleToCachedFindById() {
+        var id = patientRepository.save(newPatient("l2.update@example.com")).getId();
+        assertThat(patientRepository.findById(id)).isPresent();
+
+        patientService.updatePatient(id, updateRequest("Renamed Patient", "l2.update@example.com"), null);
+
+        long hits = patientRegion.getHitCount();
+        var patient = patientRepository.findById(id).orElseThrow();
+        assertThat(patient.getName()).isEqualTo("Renamed Patient");
+        assertThat(patient.getVersion()).isEqualTo(1L);
+        assertThat(patientRegion.getHitCount() - hits).isEqualTo(1);
+    }
+
+    @Test
+    void deleteRemovesCachedPatient() {
+        var id = patientRepository.save(newPatient("l2.delete@example.com")).getId();
+        assertThat(patientRepository.findById(id)).isPresent();
+
+        patientService.deletePatient(id);
+
+        assertThat(patientRepository.findById(id)).isEmpty();
+    }
+
+    private static Patient newPatient(String email) {
+        var patient = new Patient();
+        patient.setName("Cache Test");
+        patient.setEmail(email);
+        patient.setAddress("1 Cache Lane");
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setRegisteredDate(LocalDate.of(2024, 1, 1));
+        return patient;
+    }
+
+    private static PatientRequestDTO updateRequest(String name, String email) {
+        var request = new PatientRequestDTO();
+        request.setName(name);
+        request.setEmail(email);
+        request.setAddress("1 Cache Lane");
+        request.setDateOfBirth("1990-01-01");
+        return request;
+    }
+}
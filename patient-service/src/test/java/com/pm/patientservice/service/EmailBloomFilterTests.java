@@ -0,0 +1,46 @@
+package com.pm.patientservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that {@link EmailBloomFilter} has no false negatives and meets its false-positive target.
+ */
+class EmailBloomFilterTests {
+
+    @Test
+    void neverMissesAddedEmailsAndMeetsTargetRateAtCapacity() {
+        int capacity = 100_000;
+        var filter = new EmailBloomFilter(capacity, 0.01);
+        for (int i = 0; i < capacity; i++) {
+            filter.put("patient" + i + "@example.com");
+        }
+
+        for (int i = 0; i < capacity; i++) {
+            assertThat(filter.mightContain("patient" + i + "@example.com")).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (filter.mightContain("new" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / capacity;
+        assertThat(observed).isBetween(0.005, 0.015);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.008, 0.012);
+        assertThat(filter.insertions()).isEqualTo(capacity);
+    }
+
+    @Test
+    void expectedRateGrowsPastTargetWhenOverfilled() {
+        var filter = new EmailBloomFilter(1_000, 0.01);
+        assertThat(filter.mightContain("nobody@example.com")).isFalse();
+        assertThat(filter.expectedFalsePositiveRate()).isZero();
+
+        for (int i = 0; i < 3_000; i++) {
+            filter.put("patient" + i + "@example.com");
+        }
+        assertThat(filter.expectedFalsePositiveRate()).isGreaterThan(0.1);
+    }
+}
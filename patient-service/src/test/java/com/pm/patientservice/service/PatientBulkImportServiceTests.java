@@ -0,0 +1,129 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.dto.BulkPatientResponseDTO;
+import com.pm.patientservice.dto.BulkPatientResultDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Imports chunks containing rows the database rejects: an email another writer took after the
+ * existing-email check, or a row breaking some other constraint.
+ */
+@SpringBootTest
+class PatientBulkImportServiceTests {
+
+    @Autowired
+    private PatientBulkImportService bulkImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private PatientEmailFilter emailFilter;
+
+    @BeforeEach
+    void waitForFilterLoader() throws InterruptedException {
+        // The loader calls into the spy; stubbing while it runs would interleave with its calls
+        for (var thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("patient-email-filter-loader")) {
+                thread.join();
+            }
+        }
+    }
+
+    @Test
+    void reportsOnlyTheRowWhoseEmailWasTakenAfterTheLookup() throws Exception {
+        // The row inserted behind the service's back is not in the email filter, so the lookup skips it
+        doAnswer(invocation -> {
+            jdbcTemplate.update("""
+                    INSERT INTO patient (id, name, email, address, date_of_birth, registered_date)
+                    VALUES (?, 'Racer', 'bulk.race@example.com', '1 Race Road', DATE '1970-01-01', DATE '2024-01-01')
+                    """, UUID.randomUUID());
+            return invocation.callRealMethod();
+        }).when(emailFilter).mightExist(any(Collection.class));
+
+        var body = """
+                {"name":"Bulk One","email":"bulk.one@example.com","address":"1 Bulk St","dateOfBirth":"1980-01-01","registeredDate":"2024-01-01"}
+                {"name":"Bulk Race","email":"bulk.race@example.com","address":"2 Bulk St","dateOfBirth":"1980-01-02","registeredDate":"2024-01-01"}
+                {"name":"Bulk Three","email":"bulk.three@example.com","address":"3 Bulk St","dateOfBirth":"1980-01-03","registeredDate":"2024-01-01"}
+                """;
+        var response = bulkImportService.importJson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getResults())
+                .extracting(BulkPatientResultDTO::getRow, BulkPatientResultDTO::getStatus)
+                .containsExactly(
+                        tuple(0L, BulkPatientResultDTO.Status.CREATED),
+                        tuple(1L, BulkPatientResultDTO.Status.FAILED),
+                        tuple(2L, BulkPatientResultDTO.Status.CREATED));
+        assertThat(response.getResults().get(1).getErrors()).containsKey("email");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM patient WHERE email LIKE 'bulk.%@example.com'", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsAnOverlongAddressWithoutFailingTheRestOfTheBatch() throws Exception {
+        var body = """
+                {"name":"Long One","email":"long.one@example.com","address":"1 Long St","dateOfBirth":"1980-01-01","registeredDate":"2024-01-01"}
+                {"name":"Long Two","email":"long.two@example.com","address":"%s","dateOfBirth":"1980-01-02","registeredDate":"2024-01-01"}
+                {"name":"Long Three","email":"long.three@example.com","address":"3 Long St","dateOfBirth":"1980-01-03","registeredDate":"2024-01-01"}
+                """.formatted("x".repeat(256));
+        var response = bulkImportService.importJson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getResults())
+                .extracting(BulkPatientResultDTO::getRow, BulkPatientResultDTO::getStatus)
+                .containsExactlyInAnyOrder(
+                        tuple(0L, BulkPatientResultDTO.Status.CREATED),
+                        tuple(1L, BulkPatientResultDTO.Status.FAILED),
+                        tuple(2L, BulkPatientResultDTO.Status.CREATED));
+        assertThat(failedRow(response, 1L).getErrors()).containsKey("address");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM patient WHERE email LIKE 'long.%@example.com'", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void reportsARowBreakingAnotherConstraintInsteadOfAbortingTheImport() throws Exception {
+        // Stands in for a constraint the request validation does not know about
+        jdbcTemplate.execute("ALTER TABLE patient ADD CONSTRAINT chk_test_address CHECK (address <> '2 Check St')");
+        try {
+            var body = """
+                    {"name":"Check One","email":"check.one@example.com","address":"1 Check St","dateOfBirth":"1980-01-01","registeredDate":"2024-01-01"}
+                    {"name":"Check Two","email":"check.two@example.com","address":"2 Check St","dateOfBirth":"1980-01-02","registeredDate":"2024-01-01"}
+                    {"name":"Check Three","email":"check.three@example.com","address":"3 Check St","dateOfBirth":"1980-01-03","registeredDate":"2024-01-01"}
+                    """;
+            var response = bulkImportService.importJson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(response.getCreated()).isEqualTo(2);
+            assertThat(response.getResults())
+                    .extracting(BulkPatientResultDTO::getRow, BulkPatientResultDTO::getStatus)
+                    .containsExactly(
+                            tuple(0L, BulkPatientResultDTO.Status.CREATED),
+                            tuple(1L, BulkPatientResultDTO.Status.FAILED),
+                            tuple(2L, BulkPatientResultDTO.Status.CREATED));
+            assertThat(response.getResults().get(1).getErrors()).containsOnlyKeys("message");
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM patient WHERE email LIKE 'check.%@example.com'", Integer.class)).isEqualTo(2);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE patient DROP CONSTRAINT chk_test_address");
+        }
+    }
+
+    private static BulkPatientResultDTO failedRow(BulkPatientResponseDTO response, long row) {
+        return response.getResults().stream().filter(result -> result.getRow() == row).findFirst().orElseThrow();
+    }
+}
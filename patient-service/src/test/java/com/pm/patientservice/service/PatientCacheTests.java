@@ -0,0 +1,90 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.config.CacheConfig;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.exception.PatientNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that getPatientById is answered from the patient cache, and that updates replace and
+ * deletes remove the cached entry. Rows are changed behind the service's back to tell a cache
+ * hit from a database read.
+ */
+@SpringBootTest
+class PatientCacheTests {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repeatReadsAreServedFromTheCache() {
+        var id = UUID.fromString(patientService.createPatient(request("Cached", "cache.hit@example.com")).getId());
+        assertThat(patientService.getPatientById(id).getName()).isEqualTo("Cached");
+
+        jdbcTemplate.update("UPDATE patient SET name = 'Changed behind' WHERE id = ?", id);
+
+        assertThat(patientService.getPatientById(id).getName()).isEqualTo("Cached");
+        assertThat(cacheManager.getCache(CacheConfig.PATIENTS).get(id, PatientResponseDTO.class)).isNotNull();
+    }
+
+    @Test
+    void updateReplacesAndDeleteRemovesTheCachedPatient() {
+        var id = UUID.fromString(patientService.createPatient(request("Before", "cache.write@example.com")).getId());
+        patientService.getPatientById(id);
+
+        patientService.updatePatient(id, request("After", "cache.write@example.com"), null);
+        var cached = cacheManager.getCache(CacheConfig.PATIENTS).get(id, PatientResponseDTO.class);
+        assertThat(cached.getName()).isEqualTo("After");
+        assertThat(cached.getVersion()).isEqualTo(1L);
+        assertThat(patientService.getPatientById(id).getName()).isEqualTo("After");
+
+        patientService.deletePatient(id);
+        assertThat(cacheManager.getCache(CacheConfig.PATIENTS).get(id)).isNull();
+        assertThatThrownBy(() -> patientService.getPatientById(id)).isInstanceOf(PatientNotFoundException.class);
+    }
+
+    @Test
+    void cachedPatientSurvivesSerialization() throws Exception {
+        var id = UUID.fromString(patientService.createPatient(request("Serialized", "cache.serial@example.com")).getId());
+        var patient = patientService.getPatientById(id);
+
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(patient);
+        }
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            var copy = (PatientResponseDTO) in.readObject();
+            assertThat(copy).usingRecursiveComparison().isEqualTo(patient);
+        }
+    }
+
+    private static PatientRequestDTO request(String name, String email) {
+        var request = new PatientRequestDTO();
+        request.setName(name);
+        request.setEmail(email);
+        request.setAddress("1 Cache Close");
+        request.setDateOfBirth("1985-04-05");
+        request.setRegisteredDate("2024-04-05");
+        return request;
+    }
+}
@@ -0,0 +1,187 @@
+package com.pm.patientservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.config.ExportProperties;
+import com.pm.patientservice.dto.PatientExportJobDTO;
+import com.pm.patientservice.exception.ExportCapacityException;
+import com.pm.patientservice.exception.ExportJobNotFoundException;
+import com.pm.patientservice.exception.ExportJobStateException;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.model.PatientSummary;
+import com.pm.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs exports against the application database with a service of the test's own, whose
+ * repository delegates to the real one except where a test makes the stream fail or stall.
+ */
+@SpringBootTest
+class PatientExportServiceTests {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientShards patientShards;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    private PatientExportService exportService;
+
+    @BeforeEach
+    void seedPatients() {
+        // Enough rows for several checkpoints
+        for (int i = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient", Integer.class); i < 9; i++) {
+            var patient = new Patient();
+            patient.setName("Export " + i);
+            patient.setEmail("export." + i + "@example.com");
+            patient.setAddress("1 Export Row, Suite " + i);
+            patient.setDateOfBirth(LocalDate.of(1970, 1, 1 + i));
+            patient.setRegisteredDate(LocalDate.of(2024, 1, 1));
+            patientRepository.save(patient);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (exportService != null) {
+            exportService.shutdown();
+        }
+    }
+
+    @Test
+    void exportsEveryPatientInIdOrder() throws Exception {
+        exportService = exportService(patientRepository, 4, 2);
+
+        var job = awaitFinished(exportService.startExport().getId());
+
+        assertThat(job.getStatus()).isEqualTo(PatientExportJobDTO.Status.COMPLETED);
+        var ids = allIdsById();
+        assertThat(job.getRowsExported()).isEqualTo(ids.size());
+        assertThat(job.getLastExportedId()).isEqualTo(ids.get(ids.size() - 1));
+        assertThat(exportedIds(exportService.getExportFile(job.getId()))).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void resumesAFailedExportAfterTheLastCheckpoint() throws Exception {
+        var rows = new AtomicInteger();
+        var repository = mock(PatientRepository.class, delegatesTo(patientRepository));
+        // The connection "drops" at the sixth row; the last checkpoint is after the fourth
+        doAnswer(invocation -> patientRepository.streamAllOrderById().peek(patient -> {
+            if (rows.incrementAndGet() > 5) {
+                throw new IllegalStateException("Connection lost");
+            }
+        })).when(repository).streamAllOrderById();
+        exportService = exportService(repository, 2, 2);
+
+        var failed = awaitFinished(exportService.startExport().getId());
+        assertThat(failed.getStatus()).isEqualTo(PatientExportJobDTO.Status.FAILED);
+        assertThat(failed.getError()).isEqualTo("Connection lost");
+        assertThat(failed.getRowsExported()).isEqualTo(4);
+        var ids = allIdsById();
+        assertThat(failed.getLastExportedId()).isEqualTo(ids.get(3));
+
+        var resumed = awaitFinished(exportService.resumeExport(failed.getId()).getId());
+        assertThat(resumed.getStatus()).isEqualTo(PatientExportJobDTO.Status.COMPLETED);
+        assertThat(resumed.getRowsExported()).isEqualTo(ids.size());
+        // The fifth row, written after the checkpoint, was dropped and written again exactly once
+        assertThat(exportedIds(exportService.getExportFile(resumed.getId()))).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void rejectsExportsBeyondTheQueueAndUnfinishedJobStates() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var repository = mock(PatientRepository.class, delegatesTo(patientRepository));
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Stream.<PatientSummary>empty();
+        }).when(repository).streamAllOrderById();
+        exportService = exportService(repository, 100, 0);
+
+        var running = exportService.startExport();
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> exportService.getExportFile(running.getId())).isInstanceOf(ExportJobStateException.class);
+        assertThatThrownBy(() -> exportService.resumeExport(running.getId())).isInstanceOf(ExportJobStateException.class);
+
+        // One thread and no queue: a second export is turned away while the first runs
+        assertThatThrownBy(exportService::startExport).isInstanceOf(ExportCapacityException.class);
+        release.countDown();
+        assertThat(awaitFinished(running.getId()).getStatus()).isEqualTo(PatientExportJobDTO.Status.COMPLETED);
+        assertThatThrownBy(() -> exportService.resumeExport(running.getId())).isInstanceOf(ExportJobStateException.class);
+        assertThatThrownBy(() -> exportService.getJob("no-such-job")).isInstanceOf(ExportJobNotFoundException.class);
+    }
+
+    private PatientExportService exportService(PatientRepository repository, int checkpointRows, int queueCapacity)
+            throws IOException {
+        var service = new PatientExportService(repository, patientShards, transactionManager,
+                new ExportProperties(directory, 1, queueCapacity, checkpointRows), objectMapper);
+        service.loadJobs();
+        return service;
+    }
+
+    private PatientExportJobDTO awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            var job = exportService.getJob(jobId);
+            if (job.getStatus() == PatientExportJobDTO.Status.COMPLETED
+                    || job.getStatus() == PatientExportJobDTO.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Export " + jobId + " did not finish");
+    }
+
+    private List<String> allIdsById() {
+        return jdbcTemplate.queryForList("SELECT CAST(id AS VARCHAR) FROM patient ORDER BY id", String.class);
+    }
+
+    /**
+     * Reads the IDs from every gzip member of an export, skipping the header.
+     */
+    private static List<String> exportedIds(Path file) throws IOException {
+        try (var reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().skip(1).map(line -> line.substring(0, line.indexOf(','))).toList();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.dto.PatientFuzzyMatchDTO;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that the fuzzy search index follows committed creates, updates and deletes,
+ * and ignores changes that roll back.
+ */
+@SpringBootTest
+class PatientFuzzySearchServiceTests {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientFuzzySearchService fuzzySearchService;
+
+    @Test
+    void followsCommittedChanges() {
+        var created = patientService.createPatient(request("Bartholomew Quigley", "fuzzy.quigley@example.com"));
+        var id = UUID.fromString(created.getId());
+
+        assertThat(fuzzySearchService.search("Bartolomew Quiglee", 5).getMatches())
+                .extracting(match -> match.getPatient().getId())
+                .containsExactly(created.getId());
+
+        patientService.updatePatient(id, request("Bartholomew Quimby", "fuzzy.quigley@example.com"), null);
+        assertThat(fuzzySearchService.search("Quigley", 5).getMatches()).isEmpty();
+        assertThat(fuzzySearchService.search("Quimby", 5).getMatches())
+                .extracting(PatientFuzzyMatchDTO::getPatient)
+                .singleElement()
+                .satisfies(patient -> assertThat(patient.getName()).isEqualTo("Bartholomew Quimby"));
+
+        patientService.deletePatient(id);
+        assertThat(fuzzySearchService.search("Bartholomew Quimby", 5).getMatches()).isEmpty();
+    }
+
+    @Test
+    void ignoresRolledBackChanges() {
+        patientService.createPatient(request("Philippa Umberfield", "fuzzy.taken@example.com"));
+
+        assertThatThrownBy(() -> patientService.createPatient(
+                request("Cornelius Vandersloot", "fuzzy.taken@example.com")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(fuzzySearchService.search("Cornelius Vandersloot", 5).getMatches()).isEmpty();
+    }
+
+    private static PatientRequestDTO request(String name, String email) {
+        var request = new PatientRequestDTO();
+        request.setName(name);
+        request.setEmail(email);
+        request.setAddress("7 Fuzzy Lane");
+        request.setDateOfBirth("1980-05-05");
+        request.setRegisteredDate("2024-01-01");
+        return request;
+    }
+}
@@ -0,0 +1,109 @@
+package com.pm.patientservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs several publishers against the same outbox at once, as several instances would.
+ */
+@SpringBootTest(properties = "patient-service.outbox.batch-size=5")
+class PatientOutboxPublisherTests {
+
+    private static final Path EVENTS;
+
+    static {
+        try {
+            EVENTS = Files.createTempFile("patient-outbox-publisher-tests", ".ndjson");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @DynamicPropertySource
+    static void eventFile(DynamicPropertyRegistry registry) {
+        registry.add("patient-service.outbox.file", EVENTS::toString);
+    }
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientOutboxPublisher publisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void concurrentPublishersDeliverEachEventOnceWithConsecutivePositions() throws Exception {
+        for (int i = 0; i < 40; i++) {
+            patientService.createPatient(request("Outbox " + i, "outbox." + i + "@example.com"));
+        }
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var start = new CountDownLatch(1);
+            var runs = new ArrayList<Future<?>>();
+            for (int i = 0; i < 4; i++) {
+                runs.add(executor.submit(() -> {
+                    start.await();
+                    publisher.publishPending();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var run : runs) {
+                run.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // The scheduled run may still hold the last batch
+        publisher.publishPending();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM patient_outbox WHERE published_at IS NULL", Integer.class)).isZero();
+        var positions = jdbcTemplate.queryForList(
+                "SELECT feed_position FROM patient_outbox ORDER BY feed_position", Long.class);
+        assertThat(positions).hasSizeGreaterThanOrEqualTo(40)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, positions.size()).boxed().toList());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT last_position FROM patient_feed_counter WHERE id = 1", Long.class)).isEqualTo(positions.size());
+
+        var delivered = new ArrayList<Long>();
+        for (var line : Files.readAllLines(EVENTS)) {
+            delivered.add(objectMapper.readTree(line).get("position").asLong());
+        }
+        assertThat(delivered).containsExactlyInAnyOrderElementsOf(positions);
+    }
+
+    private static PatientRequestDTO request(String name, String email) {
+        var request = new PatientRequestDTO();
+        request.setName(name);
+        request.setEmail(email);
+        request.setAddress("1 Outbox Lane");
+        request.setDateOfBirth("1975-04-05");
+        request.setRegisteredDate("2024-02-03");
+        return request;
+    }
+}
@@ -0,0 +1,85 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.datasource.ReplicaRoutingDataSource;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.exception.PatientNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the patient service with one read replica that is a copy of the primary taken at a
+ * point the test chooses, standing in for a replica that has not caught up yet.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + PatientReplicaCacheTests.PRIMARY_URL,
+        "patient-service.replicas.enabled=true",
+        "patient-service.replicas.lag-query=",
+        "patient-service.replicas.lag-check-interval=0s",
+        "patient-service.replicas.instances[0].url=" + PatientReplicaCacheTests.REPLICA_URL,
+        "patient-service.outbox.poll-interval=1h"
+})
+class PatientReplicaCacheTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:replica-cache-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-cache-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Test
+    void deletedPatientIsNotCachedFromALaggingReplica() throws Exception {
+        var id = UUID.fromString(patientService.createPatient(request("replica.deleted@example.com")).getId());
+        copyPrimaryToReplica();
+        replicaRoutingDataSource.checkReplicas();
+        assertThat(replicaRoutingDataSource.usableReplicas()).containsExactly("replica-1");
+
+        patientService.deletePatient(id);
+
+        // The replica still has the patient...
+        assertThat(new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")).queryForObject(
+                "SELECT COUNT(*) FROM patient WHERE id = ?", Integer.class, id)).isOne();
+        // ...but neither read caches it
+        assertThatThrownBy(() -> patientService.getPatientById(id)).isInstanceOf(PatientNotFoundException.class);
+        assertThat(patientService.getPatientsByIds(List.of(id)).getMissingIds()).containsExactly(id.toString());
+        assertThatThrownBy(() -> patientService.getPatientById(id)).isInstanceOf(PatientNotFoundException.class);
+    }
+
+    /**
+     * Replaces the replica's contents with a snapshot of the primary.
+     */
+    private static void copyPrimaryToReplica() throws Exception {
+        var script = Files.createTempFile("replica-cache", ".sql");
+        try {
+            new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""))
+                    .execute("SCRIPT TO '" + script + "'");
+            var replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + script + "'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private static PatientRequestDTO request(String email) {
+        var request = new PatientRequestDTO();
+        request.setName("Replica Test");
+        request.setEmail(email);
+        request.setAddress("1 Replica Road");
+        request.setDateOfBirth("1975-06-07");
+        request.setRegisteredDate("2024-06-07");
+        return request;
+    }
+}
@@ -0,0 +1,297 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.datasource.ShardDirectory;
+import com.pm.patientservice.datasource.ShardRoutingDataSource;
+import com.pm.patientservice.dto.BulkPatientResultDTO;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.exception.EmailAlreadyExistsException;
+import com.pm.patientservice.exception.PatientNotFoundException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the patient service over three in-memory H2 shards. The bucket map starts out with
+ * every bucket on the first two shards, so a rebalance has to fill the third. Pools have
+ * auto-commit turned off, as in the prod profile.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + PatientShardingTests.DIRECTORY_URL,
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.open-in-view=false",
+        "spring.datasource.hikari.auto-commit=false",
+        "patient-service.sharding.enabled=true",
+        "patient-service.sharding.buckets=64",
+        "patient-service.sharding.move-buckets=8",
+        "patient-service.sharding.copy-batch-size=7",
+        "patient-service.sharding.shards[0].name=shard-0",
+        "patient-service.sharding.shards[0].url=jdbc:h2:mem:sharding-tests-0;DB_CLOSE_DELAY=-1",
+        "patient-service.sharding.shards[1].name=shard-1",
+        "patient-service.sharding.shards[1].url=jdbc:h2:mem:sharding-tests-1;DB_CLOSE_DELAY=-1",
+        "patient-service.sharding.shards[2].name=shard-2",
+        "patient-service.sharding.shards[2].url=jdbc:h2:mem:sharding-tests-2;DB_CLOSE_DELAY=-1",
+        "patient-service.outbox.poll-interval=1h"
+})
+class PatientShardingTests {
+
+    static final String DIRECTORY_URL = "jdbc:h2:mem:sharding-tests-directory;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientShardRebalancer rebalancer;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    private PatientOutboxPublisher publisher;
+
+    @Autowired
+    private PatientBulkImportService bulkImportService;
+
+    @BeforeAll
+    static void seedBucketMap() {
+        var directory = new DriverManagerDataSource(DIRECTORY_URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("sharding/directory-schema.sql")).execute(directory);
+        var jdbcTemplate = new JdbcTemplate(directory);
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient_shard_bucket", Integer.class) == 0) {
+            for (int bucket = 0; bucket < 64; bucket++) {
+                jdbcTemplate.update("INSERT INTO patient_shard_bucket (bucket, shard) VALUES (?, ?)",
+                        bucket, "shard-" + (bucket % 2));
+            }
+        }
+    }
+
+    @Test
+    void createsReadsUpdatesAndDeletesAcrossShards() {
+        var created = new ArrayList<PatientResponseDTO>();
+        for (int i = 0; i < 20; i++) {
+            created.add(patientService.createPatient(request("Crud " + i, "crud." + i + "@example.com")));
+        }
+        var ids = created.stream().map(patient -> UUID.fromString(patient.getId())).toList();
+        assertThat(shardsHolding(ids)).hasSizeGreaterThan(1);
+        assertThat(patientService.getPatientsByIds(ids).getPatients()).hasSize(20);
+
+        var id = ids.get(3);
+        patientService.updatePatient(id, request("Crud renamed", "crud.renamed@example.com"), null);
+        assertThat(patientService.getPatientById(id).getEmail()).isEqualTo("crud.renamed@example.com");
+        // The old email was released
+        patientService.createPatient(request("Crud reuse", "crud.3@example.com"));
+
+        patientService.deletePatient(id);
+        assertThatThrownBy(() -> patientService.getPatientById(id)).isInstanceOf(PatientNotFoundException.class);
+        patientService.createPatient(request("Crud reuse", "crud.renamed@example.com"));
+    }
+
+    @Test
+    void keepsEmailsUniqueAcrossShards() {
+        // Each attempt gets a new ID, so the attempts land on every shard
+        var first = patientService.createPatient(request("Unique first", "unique@example.com"));
+        for (int i = 0; i < 10; i++) {
+            int n = i;
+            assertThatThrownBy(() -> patientService.createPatient(request("Unique " + n, "unique@example.com")))
+                    .isInstanceOf(EmailAlreadyExistsException.class);
+        }
+        var other = patientService.createPatient(request("Unique other", "unique.other@example.com"));
+        assertThatThrownBy(() -> patientService.updatePatient(UUID.fromString(other.getId()),
+                request("Unique other", "unique@example.com"), null))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+
+        // Deleting the holder releases the email
+        patientService.deletePatient(UUID.fromString(first.getId()));
+        patientService.updatePatient(UUID.fromString(other.getId()), request("Unique other", "unique@example.com"), null);
+    }
+
+    @Test
+    void mergesPagesFromAllShardsInKeysetOrder() {
+        for (int i = 0; i < 25; i++) {
+            patientService.createPatient(request("Page " + i, "page." + i + "@example.com"));
+        }
+        var paged = new ArrayList<String>();
+        String cursor = null;
+        do {
+            var page = patientService.getPatientPage(cursor, 7);
+            assertThat(page.getPatients()).hasSizeLessThanOrEqualTo(7);
+            page.getPatients().forEach(patient -> paged.add(patient.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        var streamed = new ArrayList<String>();
+        patientService.streamPatients(patient -> streamed.add(patient.id().toString()));
+        assertThat(paged).doesNotHaveDuplicates().containsExactlyElementsOf(streamed);
+        assertThat(paged).hasSize(patientService.getPatientListVersion().count().intValue());
+    }
+
+    @Test
+    void rebalanceMovesBucketsToTheEmptyShard() {
+        var ids = new ArrayList<UUID>();
+        for (int i = 0; i < 40; i++) {
+            ids.add(UUID.fromString(patientService.createPatient(
+                    request("Rebalance " + i, "rebalance." + i + "@example.com")).getId()));
+        }
+
+        var status = rebalancer.rebalance();
+        assertThat(status.bucketsToMove()).isZero();
+        assertThat(status.unfinishedMoves()).isZero();
+        assertThat(status.unfinishedCleanups()).isZero();
+        assertThat(status.shards()).extracting(PatientShardRebalancer.ShardStatus::buckets)
+                .containsExactly(22, 21, 21);
+
+        // Every patient is still found, exactly once, and the third shard now holds some
+        assertThat(patientService.getPatientsByIds(ids).getMissingIds()).isEmpty();
+        assertThat(shardsHolding(ids)).contains("shard-2");
+        long rows = 0;
+        for (var shard : shardRoutingDataSource.shards()) {
+            rows += new JdbcTemplate(shard.dataSource()).queryForObject("SELECT COUNT(*) FROM patient", Long.class);
+        }
+        assertThat(rows).isEqualTo(patientService.getPatientListVersion().count());
+
+        // Moved patients can still be written
+        for (var id : ids) {
+            patientService.updatePatient(id, request("Rebalanced", patientService.getPatientById(id).getEmail()), null);
+        }
+    }
+
+    @Test
+    void commitsDirectoryWritesWithAutoCommitOff() {
+        var patient = patientService.createPatient(request("Committed", "committed@example.com"));
+        var directory = new JdbcTemplate(new DriverManagerDataSource(DIRECTORY_URL, "sa", ""));
+        assertThat(directory.queryForObject("SELECT patient_id FROM patient_email_directory WHERE email = ?",
+                UUID.class, "committed@example.com")).isEqualTo(UUID.fromString(patient.getId()));
+
+        rebalancer.rebalance();
+        var owners = shardDirectory.owners();
+        directory.query("SELECT bucket, shard, moving_to, moved_from FROM patient_shard_bucket", row -> {
+            assertThat(row.getString(2)).isEqualTo("shard-" + owners[row.getInt(1)]);
+            assertThat(row.getString(3)).isNull();
+            assertThat(row.getString(4)).isNull();
+        });
+
+        patientService.deletePatient(UUID.fromString(patient.getId()));
+        assertThat(directory.queryForObject("SELECT COUNT(*) FROM patient_email_directory WHERE email = ?",
+                Integer.class, "committed@example.com")).isZero();
+    }
+
+    @Test
+    void numbersTheChangeFeedAcrossShardsFromTheDirectory() {
+        for (int i = 0; i < 20; i++) {
+            patientService.createPatient(request("Feed " + i, "feed." + i + "@example.com"));
+        }
+        publisher.publishPending();
+
+        var positions = new ArrayList<Long>();
+        for (var shard : shardRoutingDataSource.shards()) {
+            var jdbcTemplate = new JdbcTemplate(shard.dataSource());
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM patient_outbox WHERE published_at IS NULL", Integer.class)).isZero();
+            positions.addAll(jdbcTemplate.queryForList("SELECT feed_position FROM patient_outbox", Long.class));
+        }
+        assertThat(positions).doesNotHaveDuplicates().hasSizeGreaterThanOrEqualTo(20);
+        assertThat(new JdbcTemplate(new DriverManagerDataSource(DIRECTORY_URL, "sa", "")).queryForObject(
+                "SELECT last_position FROM patient_feed_counter WHERE id = 1", Long.class))
+                .isEqualTo(positions.stream().mapToLong(Long::longValue).max().orElseThrow());
+    }
+
+    @Test
+    void retriesAConflictingBulkBatchRowByRow() throws Exception {
+        // The same email on every shard, unknown to the directory: whichever shard batch gets the
+        // duplicate fails at the unique constraint and is retried row by row
+        for (int shard = 0; shard < 3; shard++) {
+            shardJdbcTemplate(shard).update("""
+                    INSERT INTO patient (id, name, email, address, date_of_birth, registered_date)
+                    VALUES (?, 'Stray', 'bulk.dup@example.com', '1 Stray St', DATE '1970-01-01', DATE '2024-01-01')
+                    """, UUID.randomUUID());
+        }
+        var body = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            var email = i == 5 ? "bulk.dup@example.com" : "bulk." + i + "@example.com";
+            body.append("""
+                    {"name":"Bulk %d","email":"%s","address":"1 Bulk St","dateOfBirth":"1980-01-01","registeredDate":"2024-01-01"}
+                    """.formatted(i, email));
+        }
+
+        var response = bulkImportService.importJson(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getCreated()).isEqualTo(11);
+        assertThat(response.getResults())
+                .filteredOn(result -> result.getStatus() == BulkPatientResultDTO.Status.FAILED)
+                .extracting(BulkPatientResultDTO::getRow, result -> result.getErrors().keySet())
+                .containsExactly(tuple(5L, Set.of("email")));
+        // The duplicate's reservation was released; the created rows keep theirs
+        var directory = new JdbcTemplate(new DriverManagerDataSource(DIRECTORY_URL, "sa", ""));
+        assertThat(directory.queryForObject("SELECT COUNT(*) FROM patient_email_directory WHERE email = ?",
+                Integer.class, "bulk.dup@example.com")).isZero();
+        assertThat(directory.queryForObject(
+                "SELECT COUNT(*) FROM patient_email_directory WHERE email LIKE 'bulk.%@example.com'",
+                Integer.class)).isEqualTo(11);
+
+        // A rebalance could not copy the strays onto each other's shards
+        for (int shard = 0; shard < 3; shard++) {
+            shardJdbcTemplate(shard).update("DELETE FROM patient WHERE name = 'Stray'");
+        }
+    }
+
+    /**
+     * Auto-committing access to a shard, bypassing its pool.
+     */
+    @Test
+    void createsThePlatformSpecificNameIndexOnEveryShard() {
+        for (int shard = 0; shard < 3; shard++) {
+            assertThat(shardJdbcTemplate(shard).queryForObject(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_PATIENT_NAME'",
+                    Integer.class)).isOne();
+        }
+    }
+
+    private static JdbcTemplate shardJdbcTemplate(int shard) {
+        return new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:sharding-tests-" + shard, "sa", ""));
+    }
+
+    private List<String> shardsHolding(List<UUID> ids) {
+        var holding = new HashSet<String>();
+        for (var shard : shardRoutingDataSource.shards()) {
+            var jdbcTemplate = new JdbcTemplate(shard.dataSource());
+            for (var id : ids) {
+                if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient WHERE id = ?", Integer.class, id) > 0) {
+                    holding.add(shard.name());
+                }
+            }
+        }
+        return List.copyOf(holding);
+    }
+
+    private static PatientRequestDTO request(String name, String email) {
+        var request = new PatientRequestDTO();
+        request.setName(name);
+        request.setEmail(email);
+        request.setAddress("1 Shard Street");
+        request.setDateOfBirth("1980-02-03");
+        request.setRegisteredDate("2024-05-06");
+        return request;
+    }
+}
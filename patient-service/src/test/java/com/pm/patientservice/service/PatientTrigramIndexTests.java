@@ -0,0 +1,81 @@
+package com.pm.patientservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ranking, normalization and change handling of {@link PatientTrigramIndex}.
+ */
+class PatientTrigramIndexTests {
+
+    private final PatientTrigramIndex index = new PatientTrigramIndex();
+
+    @Test
+    void ranksTyposAndTransliterationsByNameOrAddress() {
+        var john = UUID.randomUUID();
+        var jane = UUID.randomUUID();
+        var zoe = UUID.randomUUID();
+        index.put(john, 0, "John Smith", "123 Main St, Springfield");
+        index.put(jane, 0, "Jane Smithers", "9 Elm Road, Shelbyville");
+        index.put(zoe, 0, "Zoë Ångström", "Straße 5, Berlin");
+
+        assertThat(index.search("Jon Smiht", 0.3, 10)).extracting(PatientTrigramIndex.Match::id)
+                .containsExactly(john);
+        assertThat(index.search("smith", 0.1, 10)).extracting(PatientTrigramIndex.Match::id)
+                .containsExactly(john, jane);
+        assertThat(index.search("zoe angstrom", 0.3, 10)).singleElement()
+                .satisfies(match -> assertThat(match.score()).isEqualTo(1.0));
+        assertThat(index.search("strasse berlin", 0.3, 10)).extracting(PatientTrigramIndex.Match::id)
+                .containsExactly(zoe);
+        assertThat(index.search("main st springfeld", 0.3, 10)).extracting(PatientTrigramIndex.Match::id)
+                .containsExactly(john);
+        assertThat(index.search("  ,; ", 0, 10)).isEmpty();
+        assertThat(index.search("smith", 0.1, 1)).extracting(PatientTrigramIndex.Match::id)
+                .containsExactly(john);
+    }
+
+    @Test
+    void updatesReplaceOlderVersionsAndDeletesStick() {
+        var id = UUID.randomUUID();
+        index.put(id, 1, "Alice Walker", "1 Oak Lane");
+        index.put(id, 0, "Stale Name", "1 Oak Lane");
+        assertThat(index.search("alice walker", 0.3, 10)).hasSize(1);
+        assertThat(index.search("stale name", 0.3, 10)).isEmpty();
+
+        index.put(id, 2, "Alice Cooper", "1 Oak Lane");
+        assertThat(index.search("alice walker", 0.9, 10)).isEmpty();
+        assertThat(index.search("alice cooper", 0.9, 10)).hasSize(1);
+        assertThat(index.size()).isEqualTo(1);
+
+        // A row read by the initial load before it was deleted must not come back
+        index.remove(id);
+        index.load(id, 2, "Alice Cooper", "1 Oak Lane");
+        assertThat(index.search("alice cooper", 0.3, 10)).isEmpty();
+        index.finishLoading();
+        assertThat(index.isLoaded()).isTrue();
+    }
+
+    @Test
+    void compactsAfterManyUpdates() {
+        var ids = new UUID[2_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID();
+            index.put(ids[i], 0, "Patient " + i, i + " Main St");
+        }
+        for (int i = 0; i < ids.length; i++) {
+            index.put(ids[i], 1, "Renamed " + i, i + " Main St");
+        }
+        for (int i = 0; i < ids.length; i += 2) {
+            index.remove(ids[i]);
+        }
+
+        assertThat(index.size()).isEqualTo(1_000);
+        assertThat(index.search("Renamed 1999", 0.5, 1)).extracting(PatientTrigramIndex.Match::id)
+                .containsExactly(ids[1999]);
+        assertThat(index.search("Renamed 1998", 0.99, 10)).isEmpty();
+        assertThat(index.search("Patient 1999", 0.99, 10)).isEmpty();
+    }
+}